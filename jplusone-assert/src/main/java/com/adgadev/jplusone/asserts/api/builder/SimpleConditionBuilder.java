@@ -31,4 +31,10 @@ public interface SimpleConditionBuilder {
 
     ConditionDoneBuilder sqlStatementsTotal(SqlStatementGroupType sqlStatementGroupType);
 
+    ConditionDoneBuilder sqlStatementBatchesTotal();
+
+    ConditionDoneBuilder sqlStatementBatchesTotal(SqlStatementGroupType sqlStatementGroupType);
+
+    ConditionDoneBuilder duplicateSqlSelectStatementsTotal();
+
 }
@@ -65,12 +65,15 @@ class SessionSelectorBuilderImpl implements SessionSelectorBuilder {
     }
 
     private SessionSelector getSessionSelector(Function<Integer, Integer> sizeToElementPosition) {
-        return rootNodeView -> rootNodeView.getSessions()
-                .stream()
-                .skip(sizeToElementPosition.apply(rootNodeView.getSessions().size()))
-                .findFirst()
-                .map((Function<SessionNodeView, List<SessionNodeView>>) List::of)
-                .orElse(emptyList());
+        return rootNodeView -> {
+            List<? extends SessionNodeView> sessions = rootNodeView.getSessions();
+
+            return sessions.stream()
+                    .skip(sizeToElementPosition.apply(sessions.size()))
+                    .findFirst()
+                    .map((Function<SessionNodeView, List<SessionNodeView>>) List::of)
+                    .orElse(emptyList());
+        };
     }
 
 }
@@ -25,7 +25,7 @@ import com.adgadev.jplusone.asserts.api.builder.exclusion.simple.SimpleImplicitO
 import com.adgadev.jplusone.asserts.impl.rule.Rule;
 import com.adgadev.jplusone.asserts.impl.rule.Condition;
 import com.adgadev.jplusone.core.registry.OperationType;
-import com.adgadev.jplusone.core.registry.StatementType;
+import com.adgadev.jplusone.core.sql.StatementType;
 import lombok.AccessLevel;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
@@ -90,4 +90,25 @@ class SimpleConditionBuilderImpl implements SimpleConditionBuilder {
         return new ConditionDoneBuilderImpl(rule);
     }
 
+    @Override
+    public ConditionDoneBuilder sqlStatementBatchesTotal() {
+        condition.setStatementTypes(new HashSet<>(asList(StatementType.values())));
+        condition.setBatchedStatementsOnly(true);
+        return new ConditionDoneBuilderImpl(rule);
+    }
+
+    @Override
+    public ConditionDoneBuilder sqlStatementBatchesTotal(@NonNull SqlStatementGroupType sqlStatementGroupType) {
+        Set<StatementType> statementTypes = SQL_STATEMENT_GROUP_TYPE_TO_IMPL.get(sqlStatementGroupType);
+        condition.setStatementTypes(statementTypes);
+        condition.setBatchedStatementsOnly(true);
+        return new ConditionDoneBuilderImpl(rule);
+    }
+
+    @Override
+    public ConditionDoneBuilder duplicateSqlSelectStatementsTotal() {
+        rule.replaceWithDuplicateSelectStatementsCondition(condition);
+        return new ConditionDoneBuilderImpl(rule);
+    }
+
 }
@@ -21,7 +21,9 @@ import com.adgadev.jplusone.asserts.impl.rule.message.AmountAssertionMessageTemp
 import com.adgadev.jplusone.core.registry.OperationNodeView;
 import com.adgadev.jplusone.core.registry.OperationType;
 import com.adgadev.jplusone.core.registry.SessionNodeView;
-import com.adgadev.jplusone.core.registry.StatementType;
+import com.adgadev.jplusone.core.sql.StatementType;
+import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -38,11 +40,15 @@ import static java.util.stream.Collectors.toList;
 public class Condition {
 
     @Setter
+    @Getter(AccessLevel.PACKAGE)
     private AmountVerifier amountVerifier;
 
     @Setter
     private Set<StatementType> statementTypes;
 
+    @Setter
+    private boolean batchedStatementsOnly;
+
     @Setter
     private OperationType operationType;
 
@@ -61,14 +67,18 @@ public class Condition {
         ensureThat(nonNull(amountVerifier), "amountVerifier is not set");
         ensureThat(nonNull(statementTypes), "statementTypes is not set");
 
-        int numberOfStatements = (int) operations.stream()
+        // each row of a batch counts as executed statement, unless batches are counted
+        int numberOfStatements = operations.stream()
                 .map(OperationNodeView::getStatements)
                 .flatMap(List::stream)
                 .filter(statement -> statementTypes.contains(statement.getStatementType()))
-                .count();
+                .filter(statement -> !batchedStatementsOnly || statement.getBatchSize().isPresent())
+                .mapToInt(statement -> batchedStatementsOnly ? 1 : statement.getExecutionsCount())
+                .sum();
 
-        amountVerifier.checkAmount(numberOfStatements,
-                () -> AmountAssertionMessageTemplate.forStatements(session, operations, statementTypes));
+        amountVerifier.checkAmount(numberOfStatements, () -> batchedStatementsOnly
+                ? AmountAssertionMessageTemplate.forBatchedStatements(session, operations, statementTypes)
+                : AmountAssertionMessageTemplate.forStatements(session, operations, statementTypes));
     }
 
     private void checkOperation(SessionNodeView session, List<OperationNodeView> operations) {
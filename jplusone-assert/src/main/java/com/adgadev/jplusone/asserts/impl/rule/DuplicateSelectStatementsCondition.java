@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.asserts.impl.rule;
+
+import com.adgadev.jplusone.asserts.impl.rule.message.AmountAssertionMessageTemplate;
+import com.adgadev.jplusone.core.analysis.DuplicateSelectStatements;
+import com.adgadev.jplusone.core.analysis.DuplicateSelectStatementsDetector;
+import com.adgadev.jplusone.core.registry.OperationNodeView;
+import com.adgadev.jplusone.core.registry.SessionNodeView;
+
+import java.util.List;
+
+import static com.adgadev.jplusone.asserts.impl.util.ValidationUtils.ensureThat;
+import static java.util.Objects.nonNull;
+
+/**
+ * Condition on amount of redundant executions of SELECT statements, i.e. statements repeating already executed
+ * SELECT statement with the same parameters.
+ */
+public class DuplicateSelectStatementsCondition extends Condition {
+
+    private final DuplicateSelectStatementsDetector duplicateSelectStatementsDetector = new DuplicateSelectStatementsDetector();
+
+    DuplicateSelectStatementsCondition(AmountVerifier amountVerifier) {
+        setAmountVerifier(amountVerifier);
+    }
+
+    @Override
+    public void check(SessionNodeView session, List<OperationNodeView> operations) {
+        AmountVerifier amountVerifier = getAmountVerifier();
+        ensureThat(nonNull(amountVerifier), "amountVerifier is not set");
+
+        int numberOfRedundantStatements = duplicateSelectStatementsDetector.detect(session, operations).stream()
+                .mapToInt(DuplicateSelectStatements::getRedundantCount)
+                .sum();
+
+        amountVerifier.checkAmount(numberOfRedundantStatements,
+                () -> AmountAssertionMessageTemplate.forDuplicateSelectStatements(session, operations));
+    }
+}
@@ -19,12 +19,15 @@ package com.adgadev.jplusone.asserts.impl.rule;
 import com.adgadev.jplusone.core.registry.OperationNodeView;
 import com.adgadev.jplusone.core.registry.RootNodeView;
 import com.adgadev.jplusone.core.registry.SessionNodeView;
+import com.adgadev.jplusone.core.registry.SessionTrackingMode;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 
 import java.util.ArrayList;
 import java.util.List;
 
+import static com.adgadev.jplusone.asserts.impl.util.ValidationUtils.ensureThat;
+
 @RequiredArgsConstructor
 public class Rule {
 
@@ -42,8 +45,19 @@ public class Rule {
         return condition;
     }
 
+    /**
+     * Replaces condition, which amount verifier is already set, with condition on duplicate SELECT statements.
+     */
+    public void replaceWithDuplicateSelectStatementsCondition(Condition condition) {
+        DuplicateSelectStatementsCondition duplicateSelectStatementsCondition = new DuplicateSelectStatementsCondition(condition.getAmountVerifier());
+        conditions.set(conditions.indexOf(condition), duplicateSelectStatementsCondition);
+    }
+
     public void check(RootNodeView rootNode) {
         for (SessionNodeView session: sessionSelector.getMatchingSessions(rootNode)) {
+            // operations are not recorded in other tracking modes, so the rule would be satisfied regardless of them
+            ensureThat(session.getTrackingMode() == SessionTrackingMode.FULL, "Session selected by the rule is tracked in "
+                    + session.getTrackingMode() + " mode, rules can be checked only against sessions tracked in FULL mode");
             List<OperationNodeView> operations = executionFilter.getMatchingOperations(session);
             conditions.forEach(condition -> condition.check(session, operations));
         }
@@ -19,8 +19,8 @@ package com.adgadev.jplusone.asserts.impl.rule.exclusion;
 import com.adgadev.jplusone.asserts.api.builder.AmountMatcher;
 import com.adgadev.jplusone.core.registry.OperationNodeView;
 import com.adgadev.jplusone.core.registry.StatementNodeView;
-import com.adgadev.jplusone.core.registry.StatementType;
-import com.adgadev.jplusone.core.registry.StatementType.StatementGroupType;
+import com.adgadev.jplusone.core.sql.StatementType;
+import com.adgadev.jplusone.core.sql.StatementType.StatementGroupType;
 import lombok.Setter;
 
 public class ExplicitOperationExclusion implements OperationExclusion {
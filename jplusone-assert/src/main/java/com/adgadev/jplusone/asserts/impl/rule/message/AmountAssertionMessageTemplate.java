@@ -19,8 +19,9 @@ package com.adgadev.jplusone.asserts.impl.rule.message;
 import com.adgadev.jplusone.core.registry.OperationNodeView;
 import com.adgadev.jplusone.core.registry.OperationType;
 import com.adgadev.jplusone.core.registry.SessionNodeView;
-import com.adgadev.jplusone.core.registry.StatementType;
+import com.adgadev.jplusone.core.sql.StatementType;
 
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
 
@@ -35,6 +36,16 @@ public interface AmountAssertionMessageTemplate {
 
     static AmountAssertionMessageTemplate forStatements(SessionNodeView session, List<OperationNodeView>operations,
                                                         Set<StatementType> statementTypes) {
-        return new StatementAmountAssertionMessageTemplate(session, operations, statementTypes);
+        return new StatementAmountAssertionMessageTemplate(session, operations, statementTypes, "SQL statements");
+    }
+
+    static AmountAssertionMessageTemplate forBatchedStatements(SessionNodeView session, List<OperationNodeView>operations,
+                                                               Set<StatementType> statementTypes) {
+        return new StatementAmountAssertionMessageTemplate(session, operations, statementTypes, "batched SQL statements");
+    }
+
+    static AmountAssertionMessageTemplate forDuplicateSelectStatements(SessionNodeView session, List<OperationNodeView>operations) {
+        return new StatementAmountAssertionMessageTemplate(session, operations, EnumSet.of(StatementType.SELECT),
+                "redundant executions of duplicate SQL SELECT statements");
     }
 }
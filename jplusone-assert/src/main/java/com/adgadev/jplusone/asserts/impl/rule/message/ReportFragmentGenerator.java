@@ -21,11 +21,14 @@ import com.adgadev.jplusone.core.registry.FrameStack;
 import com.adgadev.jplusone.core.registry.OperationNodeView;
 import com.adgadev.jplusone.core.registry.OperationType;
 import com.adgadev.jplusone.core.registry.SessionNodeView;
-import com.adgadev.jplusone.core.registry.StatementType;
+import com.adgadev.jplusone.core.registry.SessionTrackingMode;
+import com.adgadev.jplusone.core.registry.StatementCounters;
 import com.adgadev.jplusone.core.report.ReportGenerator;
+import com.adgadev.jplusone.core.sql.StatementType;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -65,5 +68,22 @@ public class ReportFragmentGenerator {
         public FrameStack getSessionFrameStack() {
             return session.getSessionFrameStack();
         }
+
+        @Override
+        public SessionTrackingMode getTrackingMode() {
+            return session.getTrackingMode();
+        }
+
+        @Override
+        public StatementCounters getStatementCounters() {
+            return session.getStatementCounters();
+        }
+
+        @Override
+        public Duration getExecutionTime() {
+            return operations.stream()
+                    .map(OperationNodeView::getExecutionTime)
+                    .reduce(Duration.ZERO, Duration::plus);
+        }
     }
 }
@@ -18,7 +18,7 @@ package com.adgadev.jplusone.asserts.impl.rule.message;
 
 import com.adgadev.jplusone.core.registry.OperationNodeView;
 import com.adgadev.jplusone.core.registry.SessionNodeView;
-import com.adgadev.jplusone.core.registry.StatementType;
+import com.adgadev.jplusone.core.sql.StatementType;
 import lombok.RequiredArgsConstructor;
 
 import java.util.List;
@@ -33,16 +33,19 @@ class StatementAmountAssertionMessageTemplate implements AmountAssertionMessageT
 
     private final Set<StatementType> statementTypes;
 
+    private final String statementsDescription;
+
     @Override
     public String buildMessage(String expectedAmount, int actualAmount) {
         ReportFragmentGenerator reportFragmentGenerator = new ReportFragmentGenerator();
         String reportFragment = reportFragmentGenerator.generate(session, operations, statementTypes);
 
-        return String.format("Actual amount of SQL statements (%s) is different than the expected amount\n" +
+        return String.format("Actual amount of %s (%s) is different than the expected amount\n" +
                         "    Expected: %s \n" +
                         "    Actual  : <%d>\n" +
                         "\n" +
                         "Operations & SQL statements after applying requested SQL statement type filter:%s",
+                statementsDescription,
                 statementTypes, expectedAmount, actualAmount, reportFragment);
     }
 }
@@ -26,6 +26,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 import java.util.stream.Stream;
 
 import static com.adgadev.jplusone.asserts.context.mother.RootNodeMother.anyRootNode;
+import static com.adgadev.jplusone.asserts.context.mother.SessionNodeMother.anyCountersOnlySessionNode;
 import static com.adgadev.jplusone.asserts.context.mother.SessionNodeMother.anySessionNodeWithExplicitOperation;
 import static com.adgadev.jplusone.asserts.context.mother.SessionNodeMother.anySessionNodeWithImplicitOperation;
 import static com.adgadev.jplusone.asserts.impl.JPlusOneAssertionContextMother.anyContext;
@@ -63,6 +64,10 @@ class SessionSelectorRuleTest {
         SESSION_WITH_EXPLICIT_OPERATION_AND_SESSION_WITH_IMPLICIT_OPERATION(anyContext(anyRootNode(
                 anySessionNodeWithExplicitOperation(),
                 anySessionNodeWithImplicitOperation()
+        ))),
+        SESSION_WITH_EXPLICIT_OPERATION_AND_COUNTERS_ONLY_SESSION(anyContext(anyRootNode(
+                anySessionNodeWithExplicitOperation(),
+                anyCountersOnlySessionNode()
         )));
 
         private final JPlusOneAssertionContext context;
@@ -103,8 +108,8 @@ class SessionSelectorRuleTest {
             "NO_SESSION",
             "SESSION_WITH_EXPLICIT_OPERATION",
             "TWO_SESSIONS_WITH_EXPLICIT_OPERATIONS",
-            "SESSION_WITH_EXPLICIT_OPERATION_AND_SESSION_WITH_IMPLICIT_OPERATION"
-
+            "SESSION_WITH_EXPLICIT_OPERATION_AND_SESSION_WITH_IMPLICIT_OPERATION",
+            "SESSION_WITH_EXPLICIT_OPERATION_AND_COUNTERS_ONLY_SESSION"
     })
     void shouldFirstSessionAssertionSucceed(ContextDataSet contextDataSet) {
         JPlusOneAssertionRule rule = JPlusOneAssertionRule
@@ -203,7 +208,9 @@ class SessionSelectorRuleTest {
     private static Stream<Arguments> provideNthSessionInvalidData() {
         return Stream.of(
                 Arguments.of(ContextDataSet.SESSION_WITH_EXPLICIT_OPERATION, 1, RuntimeException.class, "Session number is larger than last captured session number"),
-                Arguments.of(ContextDataSet.NO_SESSION, 0, RuntimeException.class, "Session number is larger than last captured session number")
+                Arguments.of(ContextDataSet.NO_SESSION, 0, RuntimeException.class, "Session number is larger than last captured session number"),
+                Arguments.of(ContextDataSet.SESSION_WITH_EXPLICIT_OPERATION_AND_COUNTERS_ONLY_SESSION, 1, RuntimeException.class,
+                        "Session selected by the rule is tracked in COUNTERS_ONLY mode, rules can be checked only against sessions tracked in FULL mode")
         );
     }
 
@@ -218,6 +225,17 @@ class SessionSelectorRuleTest {
         assertThat(exception.getMessage(), equalTo(exceptionMessage));
     }
 
+    @Test
+    void shouldEachSessionAssertionFailForCountersOnlySession() {
+        JPlusOneAssertionRule rule = JPlusOneAssertionRule
+                .within().eachSession()
+                .shouldBe().noImplicitOperations();
+
+        Exception exception = assertThrows(RuntimeException.class,
+                () -> rule.check(ContextDataSet.SESSION_WITH_EXPLICIT_OPERATION_AND_COUNTERS_ONLY_SESSION.context));
+        assertThat(exception.getMessage(), startsWith("Session selected by the rule is tracked in COUNTERS_ONLY mode"));
+    }
+
     @Test
     void shouldFailToCreateNthSessionRuleForNegativeNumber() {
         assertThrows(RuntimeException.class, () -> JPlusOneAssertionRule
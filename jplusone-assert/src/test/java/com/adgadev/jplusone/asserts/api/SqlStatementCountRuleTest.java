@@ -103,4 +103,93 @@ public class SqlStatementCountRuleTest {
         );
     }
 
+    @TestFactory
+    Iterable<DynamicTest> shouldCountEachRowOfBatchInSqlStatementsTotalRule() {
+        JPlusOneAssertionRule rule = JPlusOneAssertionRule
+                .within().lastSession()
+                .shouldBe().exactly(11).sqlStatementsTotal(SqlStatementType.INSERT_STATEMENT);
+
+        return asList(
+                // POSITIVE test cases
+                dynamicTest("[MATCHES] operation with 1xINSERT batch of 10 rows and 1xINSERT", expectMatchingRule(rule, anySessionNode(
+                        anyOperationNode(anyBatchedInsertStatementNode(), anyInsertStatementNode())
+                ))),
+                // NEGATIVE test cases
+                dynamicTest("[NOT MATCHES] operation with 1xINSERT batch of 10 rows", expectFailingRule(rule, anySessionNode(
+                        anyOperationNode(anyBatchedInsertStatementNode())
+                )))
+        );
+    }
+
+    @TestFactory
+    Iterable<DynamicTest> shouldAssertSingleWriteSqlStatementBatchTotalRule() {
+        JPlusOneAssertionRule rule = JPlusOneAssertionRule
+                .within().lastSession()
+                .shouldBe().exactly(1).sqlStatementBatchesTotal(SqlStatementGroupType.WRITE_STATEMENTS);
+
+        return asList(
+                // POSITIVE test cases
+                dynamicTest("[MATCHES] operation with 1xINSERT batch", expectMatchingRule(rule, anySessionNode(
+                        anyOperationNode(anyBatchedInsertStatementNode())
+                ))),
+                dynamicTest("[MATCHES] operation with 1xINSERT batch and 1xINSERT", expectMatchingRule(rule, anySessionNode(
+                        anyOperationNode(anyBatchedInsertStatementNode(), anyInsertStatementNode())
+                ))),
+                // NEGATIVE test cases
+                dynamicTest("[NOT MATCHES] operation with 1xINSERT", expectFailingRule(rule, anySessionNode(
+                        anyOperationNode(anyInsertStatementNode())
+                ))),
+                dynamicTest("[NOT MATCHES] operation with 2xINSERT batch", expectFailingRule(rule, anySessionNode(
+                        anyOperationNode(anyBatchedInsertStatementNode(), anyBatchedInsertStatementNode())
+                )))
+        );
+    }
+
+    @TestFactory
+    Iterable<DynamicTest> shouldAssertNoDuplicateSqlSelectStatementsTotalRule() {
+        JPlusOneAssertionRule rule = JPlusOneAssertionRule
+                .within().lastSession()
+                .shouldBe().none().duplicateSqlSelectStatementsTotal();
+
+        return asList(
+                // POSITIVE test cases
+                dynamicTest("[MATCHES] Empty session", expectMatchingRule(rule, anySessionNode(
+                        // empty
+                ))),
+                dynamicTest("[MATCHES] operations with 2xSELECT with different parameters", expectMatchingRule(rule, anySessionNode(
+                        anyOperationNode(anySelectStatementNode(1)),
+                        anyOperationNode(anySelectStatementNode(2))
+                ))),
+                dynamicTest("[MATCHES] operation with 2xINSERT", expectMatchingRule(rule, anySessionNode(
+                        anyOperationNode(anyInsertStatementNode(), anyInsertStatementNode())
+                ))),
+                // NEGATIVE test cases
+                dynamicTest("[NOT MATCHES] operation with 2xSELECT with the same parameters", expectFailingRule(rule, anySessionNode(
+                        anyOperationNode(anySelectStatementNode(1), anySelectStatementNode(1))
+                ))),
+                dynamicTest("[NOT MATCHES] operations with 2xSELECT with the same parameters", expectFailingRule(rule, anySessionNode(
+                        anyOperationNode(anySelectStatementNode(1)),
+                        anyOperationNode(anySelectStatementNode(1))
+                )))
+        );
+    }
+
+    @TestFactory
+    Iterable<DynamicTest> shouldAssertAtMostOneDuplicateSqlSelectStatementTotalRule() {
+        JPlusOneAssertionRule rule = JPlusOneAssertionRule
+                .within().lastSession()
+                .shouldBe().atMost(1).duplicateSqlSelectStatementsTotal();
+
+        return asList(
+                // POSITIVE test cases
+                dynamicTest("[MATCHES] operation with 2xSELECT with the same parameters", expectMatchingRule(rule, anySessionNode(
+                        anyOperationNode(anySelectStatementNode(1), anySelectStatementNode(1), anySelectStatementNode(2))
+                ))),
+                // NEGATIVE test cases
+                dynamicTest("[NOT MATCHES] operation with 3xSELECT with the same parameters", expectFailingRule(rule, anySessionNode(
+                        anyOperationNode(anySelectStatementNode(1), anySelectStatementNode(1), anySelectStatementNode(1))
+                )))
+        );
+    }
+
 }
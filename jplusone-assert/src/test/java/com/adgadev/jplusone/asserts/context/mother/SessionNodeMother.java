@@ -19,6 +19,7 @@ package com.adgadev.jplusone.asserts.context.mother;
 import com.adgadev.jplusone.asserts.context.stub.OperationNodeStub;
 import com.adgadev.jplusone.asserts.context.stub.SessionNodeStub;
 import com.adgadev.jplusone.core.registry.FrameStack;
+import com.adgadev.jplusone.core.registry.SessionTrackingMode;
 
 import java.util.List;
 
@@ -37,6 +38,13 @@ public class SessionNodeMother {
         return anySessionNode(anyExplicitOperationNode());
     }
 
+    public static SessionNodeStub anyCountersOnlySessionNode() {
+        return SessionNodeStub.builder()
+                .operations(List.of())
+                .trackingMode(SessionTrackingMode.COUNTERS_ONLY)
+                .build();
+    }
+
     public static SessionNodeStub anySessionNode(OperationNodeStub operation) {
         return anySessionNode(asList(operation), anyFrameStackForSession());
     }
@@ -18,7 +18,9 @@ package com.adgadev.jplusone.asserts.context.mother;
 
 import com.adgadev.jplusone.asserts.context.stub.StatementNodeStub;
 import com.adgadev.jplusone.core.registry.StatementNodeView;
-import com.adgadev.jplusone.core.registry.StatementType;
+import com.adgadev.jplusone.core.sql.StatementType;
+
+import java.util.OptionalInt;
 
 public class StatementNodeMother {
 
@@ -40,6 +42,13 @@ public class StatementNodeMother {
                 .build();
     }
 
+    public static StatementNodeStub anySelectStatementNode(int bookId) {
+        return StatementNodeStub.builder()
+                .statementType(StatementType.SELECT)
+                .sql("SELECT * FROM books WHERE id=" + bookId)
+                .build();
+    }
+
     public static StatementNodeStub anyInsertStatementNode() {
         return StatementNodeStub.builder()
                 .statementType(StatementType.INSERT)
@@ -53,4 +62,12 @@ public class StatementNodeMother {
                 .sql("UPDATE books SET title='Godfather' WHERE id=1")
                 .build();
     }
+
+    public static StatementNodeStub anyBatchedInsertStatementNode() {
+        return StatementNodeStub.builder()
+                .statementType(StatementType.INSERT)
+                .sql("INSERT INTO books(id, title) VALUES (1, 'Godfather'")
+                .batchSize(OptionalInt.of(10))
+                .build();
+    }
 }
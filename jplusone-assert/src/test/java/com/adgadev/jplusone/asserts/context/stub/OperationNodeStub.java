@@ -23,6 +23,7 @@ import com.adgadev.jplusone.core.registry.OperationType;
 import lombok.Builder;
 import lombok.Getter;
 
+import java.time.Duration;
 import java.util.List;
 
 @Getter
@@ -37,4 +38,11 @@ public class OperationNodeStub implements OperationNodeView {
 
     private final List<StatementNodeStub> statements;
 
+    @Override
+    public Duration getExecutionTime() {
+        return statements.stream()
+                .map(StatementNodeStub::getExecutionTime)
+                .reduce(Duration.ZERO, Duration::plus);
+    }
+
 }
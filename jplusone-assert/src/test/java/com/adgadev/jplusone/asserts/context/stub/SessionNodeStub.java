@@ -18,9 +18,12 @@ package com.adgadev.jplusone.asserts.context.stub;
 
 import com.adgadev.jplusone.core.registry.FrameStack;
 import com.adgadev.jplusone.core.registry.SessionNodeView;
+import com.adgadev.jplusone.core.registry.SessionTrackingMode;
+import com.adgadev.jplusone.core.registry.StatementCounters;
 import lombok.Builder;
 import lombok.Getter;
 
+import java.time.Duration;
 import java.util.List;
 
 @Getter
@@ -31,4 +34,16 @@ public class SessionNodeStub implements SessionNodeView {
 
     private final FrameStack sessionFrameStack;
 
+    @Builder.Default
+    private final SessionTrackingMode trackingMode = SessionTrackingMode.FULL;
+
+    private final StatementCounters statementCounters;
+
+    @Override
+    public Duration getExecutionTime() {
+        return operations.stream()
+                .map(OperationNodeStub::getExecutionTime)
+                .reduce(Duration.ZERO, Duration::plus);
+    }
+
 }
@@ -16,11 +16,17 @@
 
 package com.adgadev.jplusone.asserts.context.stub;
 
+import com.adgadev.jplusone.core.proxy.SqlParameters;
 import com.adgadev.jplusone.core.registry.StatementNodeView;
-import com.adgadev.jplusone.core.registry.StatementType;
+import com.adgadev.jplusone.core.sql.StatementType;
 import lombok.Builder;
 import lombok.Getter;
 
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.OptionalInt;
+
 @Builder
 @Getter
 public class StatementNodeStub implements StatementNodeView {
@@ -29,4 +35,24 @@ public class StatementNodeStub implements StatementNodeView {
 
     private final String sql;
 
+    private final String sqlTemplate;
+
+    private final SqlParameters parameters;
+
+    @Builder.Default
+    private final Duration executionTime = Duration.ZERO;
+
+    @Builder.Default
+    private final OptionalInt rowsCount = OptionalInt.empty();
+
+    @Builder.Default
+    private final OptionalInt batchSize = OptionalInt.empty();
+
+    @Builder.Default
+    private final List<String> batchParameters = Collections.emptyList();
+
+    @Override
+    public String getSqlTemplate() {
+        return sqlTemplate != null ? sqlTemplate : sql;
+    }
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.frame;
+
+import com.adgadev.jplusone.core.registry.FrameStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FramesProviderBenchmark {
+
+    @Param({"10", "50", "200"})
+    private int stackDepth;
+
+    private FramesProvider framesProvider;
+
+    @Setup
+    public void setUp() {
+        framesProvider = new FramesProvider("com.adgadev.jplusone.core");
+    }
+
+    @Benchmark
+    public FrameStack captureCallFrames() {
+        return captureCallFramesAtDepth(stackDepth);
+    }
+
+    @Benchmark
+    public boolean isInvokedBy() {
+        return isInvokedByAtDepth(stackDepth);
+    }
+
+    private FrameStack captureCallFramesAtDepth(int depth) {
+        return depth > 0 ? captureCallFramesAtDepth(depth - 1) : framesProvider.captureCallFrames();
+    }
+
+    private boolean isInvokedByAtDepth(int depth) {
+        return depth > 0 ? isInvokedByAtDepth(depth - 1) : framesProvider.isInvokedBy(Runnable.class);
+    }
+}
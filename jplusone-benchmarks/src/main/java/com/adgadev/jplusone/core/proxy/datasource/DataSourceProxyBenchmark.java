@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.proxy.datasource;
+
+import com.adgadev.jplusone.core.frame.FramesProvider;
+import com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneReportProperties;
+import com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneSamplingProperties;
+import com.adgadev.jplusone.core.proxy.Identifier;
+import com.adgadev.jplusone.core.proxy.StateListener;
+import com.adgadev.jplusone.core.registry.BoundedSessionStore;
+import com.adgadev.jplusone.core.registry.RootNode;
+import com.adgadev.jplusone.core.registry.SessionRetentionMode;
+import com.adgadev.jplusone.core.report.ReportGenerator;
+import com.adgadev.jplusone.core.tracking.CountingStateListener;
+import com.adgadev.jplusone.core.tracking.OperationTypeTracker;
+import com.adgadev.jplusone.core.tracking.SessionSampler;
+import com.adgadev.jplusone.core.tracking.TrackingStateListener;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures execution of prepared statement against in-memory H2 database, without JPlusOne and with JPlusOne
+ * data source proxy and either full tracking or counters only tracking listener. Statements are executed through a dynamic {@link EntityManager} proxy,
+ * so that they are recognized as executed by JPA. As in JPA, connection is taken from a pool within an open session,
+ * hence statements are attributed to that session.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataSourceProxyBenchmark {
+
+    private static final String SQL = "select book0_.id as id1_1_, book0_.title as title2_1_ from book book0_ where book0_.id=?";
+
+    @Param({"DISABLED", "FULL", "COUNTERS_ONLY"})
+    private String trackingMode;
+
+    private boolean tracked;
+
+    private StateListener stateListener;
+
+    private JdbcConnectionPool connectionPool;
+
+    private DataSource dataSource;
+
+    private EntityManager entityManager;
+
+    @Setup
+    public void setUp() throws SQLException {
+        JdbcDataSource h2DataSource = new JdbcDataSource();
+        h2DataSource.setURL("jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1");
+        createSchema(h2DataSource);
+
+        JPlusOneReportProperties reportProperties = new JPlusOneReportProperties();
+        reportProperties.setEnabled(false);
+        ReportGenerator reportGenerator = new ReportGenerator(reportProperties);
+        RootNode rootNode = new RootNode(new BoundedSessionStore(1000, Duration.ZERO, SessionRetentionMode.ALL_SESSIONS));
+        tracked = !"DISABLED".equals(trackingMode);
+        FramesProvider framesProvider = new FramesProvider("com.adgadev.jplusone.core");
+        stateListener = "COUNTERS_ONLY".equals(trackingMode)
+                ? new CountingStateListener(framesProvider, rootNode, reportGenerator, new OperationTypeTracker())
+                : new TrackingStateListener(
+                        framesProvider,
+                        reportGenerator,
+                        new SessionSampler(new JPlusOneSamplingProperties()),
+                        new OperationTypeTracker(),
+                        rootNode);
+
+        connectionPool = JdbcConnectionPool.create(h2DataSource);
+        dataSource = tracked ? new DataSourceProxy(connectionPool, stateListener) : connectionPool;
+        entityManager = (EntityManager) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[] {EntityManager.class},
+                (proxy, method, args) -> findBook((Long) args[1]));
+    }
+
+    @TearDown
+    public void tearDown() {
+        connectionPool.dispose();
+    }
+
+    @Benchmark
+    public Object executeQuery() {
+        Identifier entityManagerId = Identifier.nextEntityManagerIdentifier();
+
+        if (tracked) {
+            stateListener.entityManagerCreated(entityManagerId);
+        }
+
+        Object title = entityManager.find(Object.class, 1L);
+
+        if (tracked) {
+            stateListener.entityManagerClosed(entityManagerId);
+        }
+
+        return title;
+    }
+
+    private String findBook(long id) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); PreparedStatement statement = connection.prepareStatement(SQL)) {
+            statement.setLong(1, id);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(2) : null;
+            }
+        }
+    }
+
+    private static void createSchema(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists book (id bigint primary key, title varchar(255))");
+            statement.execute("merge into book key (id) values (1, 'Godfather')");
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.proxy.datasource;
+
+import com.adgadev.jplusone.core.proxy.SqlStatement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParametrizedSqlBenchmark {
+
+    private static final String SQL = "select book0_.id as id1_1_, book0_.author_id as author_i3_1_, book0_.title as title2_1_ "
+            + "from book book0_ where book0_.author_id=? and book0_.title=? and book0_.id>?";
+
+    private ParametrizedSql parametrizedSql;
+
+    @Setup
+    public void setUp() {
+        parametrizedSql = ParametrizedSql.forSql(SQL);
+    }
+
+    @Benchmark
+    public SqlStatement bindAndSnapshot() {
+        bindParameters();
+        return parametrizedSql.toSqlStatement();
+    }
+
+    @Benchmark
+    public String bindSnapshotAndRender() {
+        bindParameters();
+        return parametrizedSql.toSqlStatement().getSql();
+    }
+
+    private void bindParameters() {
+        parametrizedSql.setLong(1, 42L);
+        parametrizedSql.setString(2, "Godfather");
+        parametrizedSql.setInt(3, 7);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.registry;
+
+import com.adgadev.jplusone.core.frame.FramesProvider;
+import com.adgadev.jplusone.core.proxy.SqlStatement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how adding closed sessions to the store scales with number of threads, while other thread keeps
+ * reading snapshots of stored sessions. Run with i.e. {@code -t 1}, {@code -t 4} or {@code -t max} to compare
+ * the throughput of writers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BoundedSessionStoreBenchmark {
+
+    @Param({"1000"})
+    private int maxSessions;
+
+    private BoundedSessionStore sessionStore;
+
+    private SessionNode session;
+
+    @Setup
+    public void setUp() {
+        FrameStack frameStack = new FramesProvider("com.adgadev.jplusone.core").captureCallFrames();
+        SessionNode openSession = SessionNode.create();
+        openSession.addStatement(SqlStatement.of("select * from book"), frameStack);
+
+        session = openSession.close(frameStack);
+        sessionStore = new BoundedSessionStore(maxSessions, Duration.ZERO, SessionRetentionMode.ALL_SESSIONS);
+    }
+
+    @Benchmark
+    public void addSession() {
+        sessionStore.add(session);
+    }
+
+    @Benchmark
+    @Group("addWhileReading")
+    @GroupThreads(3)
+    public void addSessionWhileReading() {
+        sessionStore.add(session);
+    }
+
+    @Benchmark
+    @Group("addWhileReading")
+    @GroupThreads(1)
+    public List<SessionNode> readSessionsWhileAdding() {
+        return sessionStore.getSessions();
+    }
+}
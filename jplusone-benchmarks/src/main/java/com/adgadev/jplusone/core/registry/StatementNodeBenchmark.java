@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.registry;
+
+import com.adgadev.jplusone.core.frame.FramesProvider;
+import com.adgadev.jplusone.core.proxy.SqlParameters;
+import com.adgadev.jplusone.core.proxy.SqlStatement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatementNodeBenchmark {
+
+    static final String SQL = "/* load com.adgadev.jplusone.test.domain.bookshop.Book */ select book0_.id as id1_1_0_, "
+            + "book0_.author_id as author_i3_1_0_, book0_.title as title2_1_0_ from book book0_ where book0_.id=?";
+
+    private static final int STATEMENTS_PER_SESSION = 100;
+
+    private SqlStatement sqlStatement;
+
+    private FrameStack frameStack;
+
+    @Setup
+    public void setUp() {
+        SqlParameters parameters = SqlParameters.ofSize(1);
+        parameters.setLong(1, 1);
+        sqlStatement = SqlStatement.withParameters(SQL, parameters);
+        frameStack = new FramesProvider("com.adgadev.jplusone.core").captureCallFrames();
+    }
+
+    @Benchmark
+    public StatementNode fromSql() {
+        return StatementNode.fromSql(sqlStatement);
+    }
+
+    @Benchmark
+    public String fromSqlAndRender() {
+        return StatementNode.fromSql(sqlStatement).getSql();
+    }
+
+    /**
+     * Adds fixed amount of statements to a fresh session, so that the score is not dominated by growth of single
+     * session recorded during the whole iteration.
+     */
+    @Benchmark
+    @OperationsPerInvocation(STATEMENTS_PER_SESSION)
+    public SessionNode addStatement() {
+        SessionNode sessionNode = SessionNode.create();
+
+        for (int i = 0; i < STATEMENTS_PER_SESSION; i++) {
+            sessionNode.addStatement(sqlStatement, frameStack);
+        }
+
+        return sessionNode;
+    }
+}
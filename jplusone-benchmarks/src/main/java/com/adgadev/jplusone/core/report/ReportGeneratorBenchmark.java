@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.report;
+
+import com.adgadev.jplusone.core.frame.FramesProvider;
+import com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneReportProperties;
+import com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneReportProperties.OperationFilteringMode;
+import com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneReportProperties.StatementFilteringMode;
+import com.adgadev.jplusone.core.proxy.SqlParameters;
+import com.adgadev.jplusone.core.proxy.SqlStatement;
+import com.adgadev.jplusone.core.registry.FrameStack;
+import com.adgadev.jplusone.core.registry.SessionNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportGeneratorBenchmark {
+
+    private static final String SQL = "select author0_.id as id1_0_0_, author0_.name as name2_0_0_ from author author0_ where author0_.id=?";
+
+    @Param({"1", "10", "50"})
+    private int operationsCount;
+
+    private ReportGenerator reportGenerator;
+
+    private JPlusOneReportProperties reportProperties;
+
+    private SessionNode session;
+
+    @Setup
+    public void setUp() {
+        reportProperties = new JPlusOneReportProperties();
+        reportProperties.setOperationFilteringMode(OperationFilteringMode.ALL_OPERATIONS);
+        reportProperties.setStatementFilteringMode(StatementFilteringMode.ALL_STATEMENTS);
+        reportGenerator = new ReportGenerator(reportProperties);
+
+        FramesProvider framesProvider = new FramesProvider("com.adgadev.jplusone.core");
+        SessionNode openSession = SessionNode.create();
+
+        for (int i = 0; i < operationsCount; i++) {
+            SqlParameters parameters = SqlParameters.ofSize(1);
+            parameters.setLong(1, i);
+            SqlStatement sqlStatement = SqlStatement.withParameters(SQL, parameters);
+            openSession.addStatement(sqlStatement, i % 2 == 0 ? framesProvider.captureCallFrames() : captureCallFramesIndirectly(framesProvider));
+        }
+
+        session = openSession.close(framesProvider.captureCallFrames());
+    }
+
+    @Benchmark
+    public String sessionToString() {
+        return reportGenerator.sessionToString(
+                session,
+                reportProperties.getOperationFilteringMode().getOperationTypes(),
+                reportProperties.getStatementFilteringMode().getStatementTypes());
+    }
+
+    private static FrameStack captureCallFramesIndirectly(FramesProvider framesProvider) {
+        return framesProvider.captureCallFrames();
+    }
+}
@@ -17,29 +17,57 @@
 package com.adgadev.jplusone.core;
 
 import com.adgadev.jplusone.core.flyway.FlywayAspect;
+import com.adgadev.jplusone.core.frame.FramesProvider;
+import com.adgadev.jplusone.core.metrics.JPlusOneMeterBinder;
 import com.adgadev.jplusone.core.proxy.ProxiedRootsBeanPostProcessor;
+import com.adgadev.jplusone.core.proxy.StateListener;
 import com.adgadev.jplusone.core.proxy.datasource.HikariDataSourceAspect;
 import com.adgadev.jplusone.core.proxy.hibernate.HibernateCollectionInitialisationEventListener;
+import com.adgadev.jplusone.core.proxy.hibernate.HibernateOperationBoundaryEventListener;
+import com.adgadev.jplusone.core.report.AsyncReportGenerator;
 import com.adgadev.jplusone.core.report.ReportGenerator;
+import com.adgadev.jplusone.core.tracking.CountingStateListener;
 import com.adgadev.jplusone.core.tracking.LoggingStateListener;
+import com.adgadev.jplusone.core.tracking.OperationTypeTracker;
+import com.adgadev.jplusone.core.tracking.SessionSampler;
 import com.adgadev.jplusone.core.utils.ApplicationScanner;
 import com.adgadev.jplusone.core.properties.JPlusOneProperties;
+import com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneRegistryProperties;
+import com.adgadev.jplusone.core.properties.JPlusOneProperties.TrackingMode;
+import com.adgadev.jplusone.core.registry.BoundedSessionStore;
+import com.adgadev.jplusone.core.registry.RecordedSessionListener;
 import com.adgadev.jplusone.core.registry.RootNode;
+import com.adgadev.jplusone.core.registry.SessionStore;
+import com.adgadev.jplusone.core.sql.StatementTemplateCache;
 import com.adgadev.jplusone.core.tracking.ActivationStateListener;
 import com.adgadev.jplusone.core.tracking.TrackingContext;
+import com.adgadev.jplusone.core.tracking.TrackingContextTaskDecorator;
+import com.adgadev.jplusone.core.tracking.TrackingContextTaskDecoratorBeanPostProcessor;
 import com.adgadev.jplusone.core.tracking.TrackingStateListener;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.ConditionContext;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.type.AnnotatedTypeMetadata;
 
 import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 @Configuration
@@ -66,23 +94,54 @@ public class JPlusOneAutoConfiguration {
     }
 
     @Bean
-    public RootNode rootNode() {
-        return new RootNode();
+    public FramesProvider framesProvider(TrackingContext context) {
+        return new FramesProvider(context.getApplicationRootPackage(), jPlusOneProperties.getCallFramesMaxDepth());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SessionStore sessionStore() {
+        JPlusOneRegistryProperties registryProperties = jPlusOneProperties.getRegistry();
+        return new BoundedSessionStore(
+                registryProperties.getMaxSessions(),
+                registryProperties.getSessionTimeToLive(),
+                registryProperties.getRetentionMode());
+    }
+
+    @Bean
+    public RootNode rootNode(SessionStore sessionStore, ObjectProvider<List<RecordedSessionListener>> recordedSessionListeners) {
+        return new RootNode(sessionStore, recordedSessionListeners.getIfAvailable(Collections::emptyList));
     }
 
     @Bean
     public ReportGenerator reportGenerator() {
-        return new ReportGenerator(jPlusOneProperties.getReport());
+        return jPlusOneProperties.getReport().getAsync().isEnabled()
+                ? new AsyncReportGenerator(jPlusOneProperties.getReport())
+                : new ReportGenerator(jPlusOneProperties.getReport());
     }
 
     @Bean
-    public TrackingStateListener trackingStateListener(TrackingContext context, ReportGenerator reportGenerator, RootNode rootNode) {
-        return new TrackingStateListener(context, reportGenerator, rootNode);
+    public SessionSampler sessionSampler() {
+        return new SessionSampler(jPlusOneProperties.getSampling());
     }
 
     @Bean
-    public LoggingStateListener loggingStateListener(TrackingContext context, TrackingStateListener stateListener) {
-        return new LoggingStateListener(context, stateListener);
+    public OperationTypeTracker operationTypeTracker() {
+        return new OperationTypeTracker();
+    }
+
+    @Bean
+    public StateListener recordingStateListener(FramesProvider framesProvider, ReportGenerator reportGenerator, SessionSampler sessionSampler,
+                                                OperationTypeTracker operationTypeTracker, RootNode rootNode) {
+        return jPlusOneProperties.getTrackingMode() == TrackingMode.COUNTERS_ONLY
+                ? new CountingStateListener(framesProvider, rootNode, reportGenerator, operationTypeTracker)
+                : new TrackingStateListener(framesProvider, reportGenerator, sessionSampler, operationTypeTracker, rootNode);
+    }
+
+    @Bean
+    public LoggingStateListener loggingStateListener(TrackingContext context, FramesProvider framesProvider,
+                                                     @Qualifier("recordingStateListener") StateListener stateListener) {
+        return new LoggingStateListener(context, framesProvider, stateListener);
     }
 
     @Bean
@@ -91,9 +150,19 @@ public class JPlusOneAutoConfiguration {
     }
 
     @Bean
-    public BeanPostProcessor proxiedRootsBeanPostProcessor(ActivationStateListener stateListener) {
+    public BeanPostProcessor trackingContextTaskDecoratorBeanPostProcessor(TrackingContext trackingContext, ActivationStateListener stateListener) {
+        return new TrackingContextTaskDecoratorBeanPostProcessor(new TrackingContextTaskDecorator(trackingContext, stateListener));
+    }
+
+    @Bean
+    public StatementTemplateCache statementTemplateCache() {
+        return new StatementTemplateCache();
+    }
+
+    @Bean
+    public BeanPostProcessor proxiedRootsBeanPostProcessor(ActivationStateListener stateListener, StatementTemplateCache statementTemplateCache) {
         boolean useHikariDataSourceAspect = applicationContext.containsBean("org.springframework.cloud.autoconfigure.RefreshAutoConfiguration");
-        return new ProxiedRootsBeanPostProcessor(stateListener, useHikariDataSourceAspect);
+        return new ProxiedRootsBeanPostProcessor(stateListener, statementTemplateCache, useHikariDataSourceAspect);
     }
 
     @Bean
@@ -102,11 +171,20 @@ public class JPlusOneAutoConfiguration {
         return new HibernateCollectionInitialisationEventListener(entityManagerFactory, stateListener);
     }
 
+    // collection initialisation listener must be registered first, so that it's wrapped in the operation boundary
+    @Bean
+    @Conditional(CountersOnlyTrackingPossibleCondition.class)
+    @DependsOn("hibernateCollectionInitialisationEventListener")
+    public HibernateOperationBoundaryEventListener hibernateOperationBoundaryEventListener(
+            EntityManagerFactory entityManagerFactory, OperationTypeTracker operationTypeTracker) {
+        return new HibernateOperationBoundaryEventListener(entityManagerFactory, operationTypeTracker);
+    }
+
     @Bean
     @ConditionalOnClass(name = "com.zaxxer.hikari.HikariDataSource")
     @ConditionalOnBean(type = { "org.springframework.cloud.autoconfigure.RefreshAutoConfiguration"})
-    public HikariDataSourceAspect hikariDataSourceAspect(ActivationStateListener stateListener) {
-        return new HikariDataSourceAspect(stateListener);
+    public HikariDataSourceAspect hikariDataSourceAspect(ActivationStateListener stateListener, StatementTemplateCache statementTemplateCache) {
+        return new HikariDataSourceAspect(stateListener, statementTemplateCache);
     }
 
     @Bean
@@ -114,4 +192,32 @@ public class JPlusOneAutoConfiguration {
     public FlywayAspect flywayAspect(TrackingContext trackingContext) {
         return new FlywayAspect(trackingContext);
     }
+
+    @Configuration
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    @ConditionalOnProperty(prefix = "jplusone.metrics", name = "enabled", matchIfMissing = true)
+    static class JPlusOneMetricsConfiguration {
+
+        @Bean
+        public JPlusOneMeterBinder jPlusOneMeterBinder(JPlusOneProperties jPlusOneProperties, ReportGenerator reportGenerator) {
+            return new JPlusOneMeterBinder(jPlusOneProperties.getMetrics().getMaxTagValues(), reportGenerator);
+        }
+    }
+
+    /**
+     * Operation type is tracked by hibernate event listeners only for sessions tracked with counters only.
+     */
+    static class CountersOnlyTrackingPossibleCondition extends SpringBootCondition {
+
+        @Override
+        public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            JPlusOneProperties properties = Binder.get(context.getEnvironment())
+                    .bind("jplusone", JPlusOneProperties.class)
+                    .orElseGet(JPlusOneProperties::new);
+
+            return properties.isCountersOnlyTrackingPossible()
+                    ? ConditionOutcome.match("sessions may be tracked with counters only")
+                    : ConditionOutcome.noMatch("all sessions are tracked with call frames");
+        }
+    }
 }
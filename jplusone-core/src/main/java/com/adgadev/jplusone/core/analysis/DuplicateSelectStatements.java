@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.analysis;
+
+import com.adgadev.jplusone.core.frame.FrameExtract;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * SQL SELECT statement with identical SQL and parameters executed more than once within one session,
+ * i.e. by queries bypassing the persistence context.
+ */
+@Value
+public class DuplicateSelectStatements {
+
+    private final String sql;
+
+    private final int count;
+
+    private final List<FrameExtract> callSites;
+
+    public int getRedundantCount() {
+        return count - 1;
+    }
+
+    @Override
+    public String toString() {
+        return count + " x SELECT";
+    }
+}
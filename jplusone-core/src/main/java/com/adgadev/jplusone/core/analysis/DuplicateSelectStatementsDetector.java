@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.analysis;
+
+import com.adgadev.jplusone.core.frame.FrameExtract;
+import com.adgadev.jplusone.core.proxy.SqlParameters;
+import com.adgadev.jplusone.core.registry.OperationNodeView;
+import com.adgadev.jplusone.core.registry.SessionNodeView;
+import com.adgadev.jplusone.core.registry.StatementNodeView;
+import com.adgadev.jplusone.core.sql.StatementType;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static com.adgadev.jplusone.core.analysis.OriginatingFrames.findOriginatingFrame;
+
+/**
+ * Detects SELECT statements with identical SQL template and parameters executed more than once within a session.
+ * Statements are indexed by their SQL template and typed parameter values, so each session is analysed in a single
+ * pass and SQL is rendered only for detected duplicates. Selects of next sequence values are expected to be repeated,
+ * hence they are not reported.
+ */
+public class DuplicateSelectStatementsDetector {
+
+    private static final Pattern SEQUENCE_SELECT_PATTERN = Pattern.compile("\\bnextval\\b|\\bnext\\s+value\\s+for\\b", Pattern.CASE_INSENSITIVE);
+
+    public List<DuplicateSelectStatements> detect(SessionNodeView session) {
+        return detect(session, session.getOperations());
+    }
+
+    public List<DuplicateSelectStatements> detect(SessionNodeView session, List<? extends OperationNodeView> operations) {
+        Map<StatementKey, StatementOccurrences> occurrencesByStatement = new HashMap<>();
+        List<StatementOccurrences> duplicates = new ArrayList<>();
+
+        for (OperationNodeView operation : operations) {
+            for (StatementNodeView statement : operation.getStatements()) {
+                if (statement.getStatementType() == StatementType.SELECT) {
+                    StatementKey key = new StatementKey(statement.getSqlTemplate(), statement.getParameters());
+                    StatementOccurrences occurrences = occurrencesByStatement.computeIfAbsent(key, k -> new StatementOccurrences(statement));
+                    occurrences.add(findOriginatingFrame(session, operation));
+
+                    if (occurrences.count == 2 && !isSequenceSelect(key.sqlTemplate)) {
+                        duplicates.add(occurrences);
+                    }
+                }
+            }
+        }
+
+        List<DuplicateSelectStatements> findings = new ArrayList<>(duplicates.size());
+
+        for (StatementOccurrences occurrences : duplicates) {
+            findings.add(new DuplicateSelectStatements(occurrences.statement.getSql(), occurrences.count, new ArrayList<>(occurrences.callSites)));
+        }
+
+        return findings;
+    }
+
+    private static boolean isSequenceSelect(String sqlTemplate) {
+        return SEQUENCE_SELECT_PATTERN.matcher(sqlTemplate).find();
+    }
+
+    @Value
+    private static class StatementKey {
+
+        private final String sqlTemplate;
+
+        private final SqlParameters parameters;
+    }
+
+    private static class StatementOccurrences {
+
+        private final StatementNodeView statement;
+
+        private final Set<FrameExtract> callSites = new LinkedHashSet<>();
+
+        private int count;
+
+        private StatementOccurrences(StatementNodeView statement) {
+            this.statement = statement;
+        }
+
+        private void add(FrameExtract callSite) {
+            count++;
+
+            if (callSite != null) {
+                callSites.add(callSite);
+            }
+        }
+    }
+}
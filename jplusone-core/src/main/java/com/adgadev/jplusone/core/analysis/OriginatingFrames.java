@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.analysis;
+
+import com.adgadev.jplusone.core.frame.FrameExtract;
+import com.adgadev.jplusone.core.registry.FrameStack;
+import com.adgadev.jplusone.core.registry.OperationNodeView;
+import com.adgadev.jplusone.core.registry.SessionNodeView;
+
+import java.util.Optional;
+
+class OriginatingFrames {
+
+    /**
+     * Returns last application frame of the operation, or of the session if operation's call frames
+     * do not contain any application frame, or null if neither of them does.
+     */
+    static FrameExtract findOriginatingFrame(SessionNodeView session, OperationNodeView operation) {
+        return findLastApplicationFrame(operation.getCallFramesStack())
+                .or(() -> findLastApplicationFrame(session.getSessionFrameStack()))
+                .orElse(null);
+    }
+
+    private static Optional<FrameExtract> findLastApplicationFrame(FrameStack frameStack) {
+        return Optional.ofNullable(frameStack)
+                .flatMap(stack -> stack.findLastMatchingFrame(FrameExtract::isApplicationClass));
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.analysis;
+
+import com.adgadev.jplusone.core.frame.FrameExtract;
+import com.adgadev.jplusone.core.sql.StatementType;
+import lombok.Value;
+
+/**
+ * SQL write statement with the same template executed repeatedly one by one, instead of in a single JDBC batch,
+ * within one operation.
+ */
+@Value
+public class UnbatchedWriteStatements {
+
+    private final StatementType statementType;
+
+    private final String sqlTemplate;
+
+    private final int count;
+
+    private final FrameExtract originatingFrame;
+
+    @Override
+    public String toString() {
+        return count + " x " + statementType;
+    }
+}
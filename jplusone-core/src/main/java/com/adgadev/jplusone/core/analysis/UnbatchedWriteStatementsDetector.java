@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.analysis;
+
+import com.adgadev.jplusone.core.frame.FrameExtract;
+import com.adgadev.jplusone.core.registry.OperationNodeView;
+import com.adgadev.jplusone.core.registry.SessionNodeView;
+import com.adgadev.jplusone.core.registry.StatementNodeView;
+import com.adgadev.jplusone.core.sql.StatementType;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.adgadev.jplusone.core.analysis.OriginatingFrames.findOriginatingFrame;
+
+/**
+ * Detects INSERT / UPDATE / DELETE statements with identical SQL template executed individually, not as JDBC batch,
+ * at least given number of times within a single operation. It's usually caused by disabled JDBC batching
+ * or identifier generation strategy which prevents Hibernate from batching inserts.
+ */
+@RequiredArgsConstructor
+public class UnbatchedWriteStatementsDetector {
+
+    private static final Set<StatementType> WRITE_STATEMENT_TYPES = EnumSet.of(StatementType.INSERT, StatementType.UPDATE, StatementType.DELETE);
+
+    private final int threshold;
+
+    public List<UnbatchedWriteStatements> detect(SessionNodeView session) {
+        List<UnbatchedWriteStatements> findings = new ArrayList<>();
+
+        for (OperationNodeView operation : session.getOperations()) {
+            Map<String, List<StatementNodeView>> statementsByTemplate = groupUnbatchedWriteStatements(operation);
+
+            for (List<StatementNodeView> statements : statementsByTemplate.values()) {
+                if (statements.size() >= threshold) {
+                    StatementNodeView statement = statements.get(0);
+                    FrameExtract originatingFrame = findOriginatingFrame(session, operation);
+                    findings.add(new UnbatchedWriteStatements(statement.getStatementType(), statement.getSqlTemplate(),
+                            statements.size(), originatingFrame));
+                }
+            }
+        }
+
+        return findings;
+    }
+
+    private Map<String, List<StatementNodeView>> groupUnbatchedWriteStatements(OperationNodeView operation) {
+        Map<String, List<StatementNodeView>> statementsByTemplate = new LinkedHashMap<>();
+
+        for (StatementNodeView statement : operation.getStatements()) {
+            if (WRITE_STATEMENT_TYPES.contains(statement.getStatementType()) && !statement.getBatchSize().isPresent()) {
+                statementsByTemplate.computeIfAbsent(statement.getSqlTemplate(), template -> new ArrayList<>()).add(statement);
+            }
+        }
+
+        return statementsByTemplate;
+    }
+}
@@ -16,10 +16,16 @@
 
 package com.adgadev.jplusone.core.frame;
 
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.lang.StackWalker.StackFrame;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 @Slf4j
 class FrameClassFactory {
@@ -30,6 +36,17 @@ class FrameClassFactory {
 
     private final String[] proxyClassNameMarkers;
 
+    private final ClassValue<Map<String, FrameClassification>> classificationCache = new ClassValue<>() {
+        @Override
+        protected Map<String, FrameClassification> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final LongAdder cacheHits = new LongAdder();
+
+    private final LongAdder cacheMisses = new LongAdder();
+
     public FrameClassFactory(String applicationRootPackage, String[] proxyClassNameMarkers) {
         log.debug("Using package '{}' as a root application package", applicationRootPackage);
         this.applicationRootPackage = applicationRootPackage.endsWith(PACKAGE_SEPARATOR)
@@ -38,21 +55,46 @@ class FrameClassFactory {
     }
 
     FrameClass createFrameClass(StackFrame stackFrame) {
-        Class<?> frameClass = stackFrame.getDeclaringClass();
+        FrameClassification classification = getFrameClassification(stackFrame.getDeclaringClass(), stackFrame.getMethodName());
+        return FrameClass.of(classification.getFrameClassKind(), classification.getFrameClass(), stackFrame);
+    }
+
+    FrameExtract createFrameExtract(StackFrame stackFrame) {
+        FrameClassification classification = getFrameClassification(stackFrame.getDeclaringClass(), stackFrame.getMethodName());
+        return classification.getFrameExtract(stackFrame);
+    }
+
+    FrameClassificationCacheStatistics getCacheStatistics() {
+        return new FrameClassificationCacheStatistics(cacheHits.sum(), cacheMisses.sum());
+    }
+
+    private FrameClassification getFrameClassification(Class<?> declaringClass, String methodName) {
+        Map<String, FrameClassification> methodClassifications = classificationCache.get(declaringClass);
+        FrameClassification classification = methodClassifications.get(methodName);
 
+        if (classification != null) {
+            cacheHits.increment();
+            return classification;
+        } else {
+            cacheMisses.increment();
+            return methodClassifications.computeIfAbsent(methodName, name -> classify(declaringClass, name));
+        }
+    }
+
+    private FrameClassification classify(Class<?> frameClass, String methodName) {
         if (isClassInsidePackage(frameClass) && isClassNotAProxy(frameClass)) {
-            return FrameClass.of(FrameClassKind.APPLICATION_CLASS, frameClass, stackFrame);
+            return new FrameClassification(FrameClassKind.APPLICATION_CLASS, frameClass);
 
         } else if (frameClass.getSuperclass() != null && isClassInsidePackage(frameClass.getSuperclass())) {
-            return FrameClass.of(FrameClassKind.APPLICATION_SUPERCLASS, frameClass.getSuperclass(), stackFrame);
+            return new FrameClassification(FrameClassKind.APPLICATION_SUPERCLASS, frameClass.getSuperclass());
 
         } else {
             return Arrays.stream(frameClass.getInterfaces())
                     .filter(this::isClassInsidePackage)
-                    .filter(interfaceClass -> classContainsMethod(interfaceClass, stackFrame.getMethodName()))
+                    .filter(interfaceClass -> classContainsMethod(interfaceClass, methodName))
                     .findFirst()
-                    .map(clazz -> FrameClass.of(FrameClassKind.APPLICATION_INTERFACE, clazz, stackFrame))
-                    .orElse(FrameClass.of(FrameClassKind.THIRD_PARTY_CLASS, frameClass, stackFrame));
+                    .map(clazz -> new FrameClassification(FrameClassKind.APPLICATION_INTERFACE, clazz))
+                    .orElse(new FrameClassification(FrameClassKind.THIRD_PARTY_CLASS, frameClass));
         }
     }
 
@@ -69,4 +111,69 @@ class FrameClassFactory {
         return !Arrays.stream(proxyClassNameMarkers)
                 .anyMatch(clazz.getCanonicalName()::contains);
     }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class FrameClassification {
+
+        private final FrameClassKind frameClassKind;
+
+        private final Class<?> frameClass;
+
+        /**
+         * Canonical FrameExtract instances per line number, kept in arrays sorted by line number and replaced
+         * on write. Methods are executed from a handful of lines only, so lookups don't box the line number.
+         */
+        @Getter(AccessLevel.NONE)
+        private volatile LineNumberIndex frameExtractsByLineNumber = LineNumberIndex.EMPTY;
+
+        // canonical FrameExtract instance per declaring class, method and line number
+        FrameExtract getFrameExtract(StackFrame stackFrame) {
+            int lineNumber = stackFrame.getLineNumber();
+            FrameExtract frameExtract = frameExtractsByLineNumber.get(lineNumber);
+
+            return frameExtract != null ? frameExtract : addFrameExtract(lineNumber, stackFrame);
+        }
+
+        private synchronized FrameExtract addFrameExtract(int lineNumber, StackFrame stackFrame) {
+            FrameExtract frameExtract = frameExtractsByLineNumber.get(lineNumber);
+
+            if (frameExtract == null) {
+                frameExtract = new FrameExtract(FrameClass.of(frameClassKind, frameClass, stackFrame));
+                frameExtractsByLineNumber = frameExtractsByLineNumber.with(lineNumber, frameExtract);
+            }
+
+            return frameExtract;
+        }
+    }
+
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    private static class LineNumberIndex {
+
+        private static final LineNumberIndex EMPTY = new LineNumberIndex(new int[0], new FrameExtract[0]);
+
+        private final int[] lineNumbers;
+
+        private final FrameExtract[] frameExtracts;
+
+        FrameExtract get(int lineNumber) {
+            int index = Arrays.binarySearch(lineNumbers, lineNumber);
+            return index >= 0 ? frameExtracts[index] : null;
+        }
+
+        LineNumberIndex with(int lineNumber, FrameExtract frameExtract) {
+            int index = -(Arrays.binarySearch(lineNumbers, lineNumber) + 1);
+            int[] newLineNumbers = new int[lineNumbers.length + 1];
+            FrameExtract[] newFrameExtracts = new FrameExtract[frameExtracts.length + 1];
+
+            System.arraycopy(lineNumbers, 0, newLineNumbers, 0, index);
+            System.arraycopy(lineNumbers, index, newLineNumbers, index + 1, lineNumbers.length - index);
+            System.arraycopy(frameExtracts, 0, newFrameExtracts, 0, index);
+            System.arraycopy(frameExtracts, index, newFrameExtracts, index + 1, frameExtracts.length - index);
+            newLineNumbers[index] = lineNumber;
+            newFrameExtracts[index] = frameExtract;
+
+            return new LineNumberIndex(newLineNumbers, newFrameExtracts);
+        }
+    }
 }
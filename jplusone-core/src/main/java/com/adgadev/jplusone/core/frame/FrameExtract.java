@@ -16,13 +16,12 @@
 
 package com.adgadev.jplusone.core.frame;
 
-import lombok.EqualsAndHashCode;
+import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
+
+import java.util.Objects;
 
 @Getter
-@EqualsAndHashCode
-@RequiredArgsConstructor
 public class FrameExtract {
 
     private final FrameClassKind type;
@@ -37,13 +36,26 @@ public class FrameExtract {
 
     private final Integer lineNumber;
 
+    @Getter(AccessLevel.NONE)
+    private final int hashCode;
+
+    public FrameExtract(FrameClassKind type, Class<?> clazz, String className, String methodName, String fileName, Integer lineNumber) {
+        this.type = type;
+        this.clazz = clazz;
+        this.className = className;
+        this.methodName = methodName;
+        this.fileName = fileName;
+        this.lineNumber = lineNumber;
+        this.hashCode = Objects.hash(type, clazz, className, methodName, fileName, lineNumber);
+    }
+
     FrameExtract(FrameClass frameClass) {
-        this.type = frameClass.getFrameClassKind();
-        this.clazz = frameClass.getFrameClass();
-        this.className = frameClass.getFrameClass().getName();
-        this.methodName = frameClass.getStackFrame().getMethodName();
-        this.fileName = frameClass.getStackFrame().getFileName();
-        this.lineNumber = frameClass.getStackFrame().getLineNumber();
+        this(frameClass.getFrameClassKind(),
+                frameClass.getFrameClass(),
+                frameClass.getFrameClass().getName(),
+                frameClass.getStackFrame().getMethodName(),
+                frameClass.getStackFrame().getFileName(),
+                frameClass.getStackFrame().getLineNumber());
     }
 
     public boolean isNotThirdPartyClass() {
@@ -75,5 +87,27 @@ public class FrameExtract {
                 : className + '.' + methodName + " [PROXY]";
     }
 
-    // TODO: implement cached hashcode
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        } else if (!(object instanceof FrameExtract)) {
+            return false;
+        }
+
+        FrameExtract other = (FrameExtract) object;
+
+        return hashCode == other.hashCode
+                && type == other.type
+                && clazz == other.clazz
+                && Objects.equals(lineNumber, other.lineNumber)
+                && Objects.equals(methodName, other.methodName)
+                && Objects.equals(fileName, other.fileName)
+                && Objects.equals(className, other.className);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
 }
@@ -18,7 +18,7 @@ package com.adgadev.jplusone.core.frame;
 
 import com.adgadev.jplusone.core.utils.StreamUtils;
 import com.adgadev.jplusone.core.registry.FrameStack;
-import lombok.RequiredArgsConstructor;
+import com.adgadev.jplusone.core.registry.FrameStackTrie;
 import lombok.extern.slf4j.Slf4j;
 
 import java.lang.StackWalker.Option;
@@ -32,9 +32,10 @@ import static java.lang.StackWalker.Option.SHOW_HIDDEN_FRAMES;
 import static java.util.Objects.nonNull;
 
 @Slf4j
-@RequiredArgsConstructor
 public class FramesProvider {
 
+    private static final int UNLIMITED_DEPTH = Integer.MAX_VALUE;
+
     private static final Set<Option> WALKER_OPTIONS = EnumSet.of(Option.RETAIN_CLASS_REFERENCE, SHOW_HIDDEN_FRAMES);
 
     private static final String[] PROXY_CLASS_NAME_MARKERS = {
@@ -45,24 +46,66 @@ public class FramesProvider {
             "$$_javassist",
             "$$_jvst"
     };
+
     private final FrameClassFactory frameClassFactory;
 
+    private final int maxCallFramesDepth;
+
+    private final FrameStackTrie frameStackTrie = new FrameStackTrie();
+
     public FramesProvider(String applicationRootPackage) {
+        this(applicationRootPackage, UNLIMITED_DEPTH);
+    }
+
+    public FramesProvider(String applicationRootPackage, int maxCallFramesDepth) {
         this.frameClassFactory = new FrameClassFactory(applicationRootPackage, PROXY_CLASS_NAME_MARKERS);
+        this.maxCallFramesDepth = maxCallFramesDepth > 0 ? maxCallFramesDepth : UNLIMITED_DEPTH;
     }
 
     public FrameStack captureCallFrames() {
         List<FrameExtract> callFrames = StackWalker.getInstance(WALKER_OPTIONS)
                 .walk(this::collectFrames);
 
-        return new FrameStack(callFrames);
+        return frameStackTrie.intern(callFrames);
+    }
+
+    /**
+     * Walks the call stack lazily starting from the innermost frame and stops at the first frame declared by
+     * a subtype of any of given classes, without materialising the remaining frames. The walk is not bounded by
+     * the max call frames depth, which limits captured frames only.
+     */
+    public boolean isInvokedBy(Class<?>... classes) {
+        return StackWalker.getInstance(WALKER_OPTIONS)
+                .walk(stream -> stream
+                        .anyMatch(stackFrame -> isSubtypeOfAny(stackFrame.getDeclaringClass(), classes)));
+    }
+
+    /**
+     * @return true if captured frame stack may lack outermost frames because of the max call frames depth
+     */
+    public boolean isTruncated(FrameStack frameStack) {
+        return frameStack.size() >= maxCallFramesDepth;
+    }
+
+    public FrameClassificationCacheStatistics getClassificationCacheStatistics() {
+        return frameClassFactory.getCacheStatistics();
+    }
+
+    private static boolean isSubtypeOfAny(Class<?> clazz, Class<?>[] classes) {
+        for (Class<?> superType : classes) {
+            if (superType.isAssignableFrom(clazz)) {
+                return true;
+            }
+        }
+
+        return false;
     }
 
     private List<FrameExtract> collectFrames(Stream<StackFrame> stream) {
         return stream
                 .filter(stackFrame -> nonNull(stackFrame.getDeclaringClass().getCanonicalName()))
-                .map(frameClassFactory::createFrameClass)
-                .map(FrameExtract::new)
+                .limit(maxCallFramesDepth)
+                .map(frameClassFactory::createFrameExtract)
                 .collect(StreamUtils.toListReversed());
     }
 
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.metrics;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Limits amount of distinct values of a meter tag. Values seen first are passed through as long as the limit
+ * is not reached, all others are replaced with {@link #OTHER_VALUE}.
+ */
+class BoundedTagValues {
+
+    static final String OTHER_VALUE = "OTHER";
+
+    private final int maxValues;
+
+    private final Set<String> values = ConcurrentHashMap.newKeySet();
+
+    BoundedTagValues(int maxValues) {
+        this.maxValues = maxValues;
+    }
+
+    String bound(String value) {
+        if (values.contains(value)) {
+            return value;
+        }
+
+        synchronized (values) {
+            if (values.size() < maxValues) {
+                values.add(value);
+                return value;
+            }
+        }
+
+        return OTHER_VALUE;
+    }
+}
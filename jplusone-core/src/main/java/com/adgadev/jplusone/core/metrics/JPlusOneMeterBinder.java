@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.metrics;
+
+import com.adgadev.jplusone.core.frame.FrameExtract;
+import com.adgadev.jplusone.core.registry.FrameStack;
+import com.adgadev.jplusone.core.registry.LazyInitialisation;
+import com.adgadev.jplusone.core.registry.OperationNode;
+import com.adgadev.jplusone.core.registry.OperationType;
+import com.adgadev.jplusone.core.registry.RecordedSessionListener;
+import com.adgadev.jplusone.core.registry.SessionNode;
+import com.adgadev.jplusone.core.registry.SessionTrackingMode;
+import com.adgadev.jplusone.core.report.AsyncReportGenerator;
+import com.adgadev.jplusone.core.report.ReportGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exports recorded sessions as Micrometer meters. Meters are registered in every registry the binder is bound to,
+ * once per distinct set of tags, and reused for subsequent sessions. Tags derived from application entry points,
+ * and from pairs of entity class and field, are limited to a configured amount of distinct values, to keep
+ * cardinality of the meters bounded.
+ *
+ * When reports are generated asynchronously depth of the report queue, and amounts of generated and dropped reports
+ * are exported as well.
+ */
+public class JPlusOneMeterBinder implements MeterBinder, RecordedSessionListener {
+
+    private static final String UNKNOWN_TAG_VALUE = "UNKNOWN";
+
+    private static final String NO_FIELD_TAG_VALUE = "NONE";
+
+    private final CompositeMeterRegistry registry = new CompositeMeterRegistry();
+
+    private final BoundedTagValues lazyInitialisationTagValues;
+
+    private final BoundedTagValues entryPointTagValues;
+
+    private final Map<SessionTrackingMode, DistributionSummary> statementsSummaries = new ConcurrentHashMap<>();
+
+    private volatile DistributionSummary implicitOperationsSummary;
+
+    private final Map<String, Counter> nPlusOneOperationsCounters = new ConcurrentHashMap<>();
+
+    private final Map<List<String>, Counter> lazyInitialisationsCounters = new ConcurrentHashMap<>();
+
+    public JPlusOneMeterBinder(int maxTagValues) {
+        this(maxTagValues, null);
+    }
+
+    public JPlusOneMeterBinder(int maxTagValues, ReportGenerator reportGenerator) {
+        this.lazyInitialisationTagValues = new BoundedTagValues(maxTagValues);
+        this.entryPointTagValues = new BoundedTagValues(maxTagValues);
+
+        if (reportGenerator instanceof AsyncReportGenerator) {
+            registerReportGeneratorMeters((AsyncReportGenerator) reportGenerator);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        registry.add(meterRegistry);
+    }
+
+    @Override
+    public void sessionRecorded(SessionNode session) {
+        statementsSummaries.computeIfAbsent(session.getTrackingMode(), this::statementsSummary)
+                .record(session.getStatementCounters().getStatementsCount());
+
+        if (session.getTrackingMode() == SessionTrackingMode.FULL) {
+            long implicitOperationsCount = session.getOperations().stream()
+                    .filter(operation -> operation.getOperationType() == OperationType.IMPLICIT)
+                    .count();
+
+            implicitOperationsSummary().record(implicitOperationsCount);
+
+            if (implicitOperationsCount > 0) {
+                String entryPoint = entryPointTagValues.bound(resolveEntryPoint(session));
+                nPlusOneOperationsCounters.computeIfAbsent(entryPoint, this::nPlusOneOperationsCounter)
+                        .increment(implicitOperationsCount);
+            }
+
+            session.getOperations().stream()
+                    .map(OperationNode::getLazyInitialisations)
+                    .flatMap(lazyInitialisations -> lazyInitialisations.stream())
+                    .forEach(lazyInitialisation -> lazyInitialisationsCounter(lazyInitialisation).increment());
+        }
+    }
+
+    private void registerReportGeneratorMeters(AsyncReportGenerator reportGenerator) {
+        Gauge.builder("jplusone.report.queue.depth", reportGenerator, AsyncReportGenerator::getQueueDepth)
+                .description("Amount of recorded sessions waiting for their reports to be generated")
+                .baseUnit("sessions")
+                .strongReference(true)
+                .register(registry);
+
+        FunctionCounter.builder("jplusone.report.generated", reportGenerator, AsyncReportGenerator::getGeneratedReportsCount)
+                .description("Amount of reports generated asynchronously")
+                .baseUnit("reports")
+                .register(registry);
+
+        FunctionCounter.builder("jplusone.report.dropped", reportGenerator, AsyncReportGenerator::getDroppedReportsCount)
+                .description("Amount of reports dropped due to full report queue")
+                .baseUnit("reports")
+                .register(registry);
+    }
+
+    private Counter lazyInitialisationsCounter(LazyInitialisation lazyInitialisation) {
+        String entityName = lazyInitialisation.getEntityClassName();
+        String fieldName = Optional.ofNullable(lazyInitialisation.getFieldName()).orElse(NO_FIELD_TAG_VALUE);
+
+        if (BoundedTagValues.OTHER_VALUE.equals(lazyInitialisationTagValues.bound(entityName + '.' + fieldName))) {
+            entityName = BoundedTagValues.OTHER_VALUE;
+            fieldName = BoundedTagValues.OTHER_VALUE;
+        }
+
+        List<String> tags = List.of(entityName, fieldName, lazyInitialisation.getType().name());
+        return lazyInitialisationsCounters.computeIfAbsent(tags, this::lazyInitialisationsCounter);
+    }
+
+    private DistributionSummary statementsSummary(SessionTrackingMode trackingMode) {
+        return DistributionSummary.builder("jplusone.session.statements")
+                .description("Amount of SQL statements executed in entity manager session")
+                .baseUnit("statements")
+                .tag("tracking.mode", trackingMode.name())
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private DistributionSummary implicitOperationsSummary() {
+        DistributionSummary summary = implicitOperationsSummary;
+
+        if (summary == null) {
+            summary = DistributionSummary.builder("jplusone.session.implicit.operations")
+                    .description("Amount of implicit operations (lazy loading) in entity manager session")
+                    .baseUnit("operations")
+                    .publishPercentileHistogram()
+                    .register(registry);
+            implicitOperationsSummary = summary;
+        }
+
+        return summary;
+    }
+
+    private Counter nPlusOneOperationsCounter(String entryPoint) {
+        return Counter.builder("jplusone.n.plus.one.operations")
+                .description("Amount of implicit operations (lazy loading) in sessions started from given application entry point")
+                .baseUnit("operations")
+                .tag("entry.point", entryPoint)
+                .register(registry);
+    }
+
+    private Counter lazyInitialisationsCounter(List<String> tags) {
+        return Counter.builder("jplusone.lazy.initialisations")
+                .description("Amount of lazy initialisations of entities and collections")
+                .tag("entity", tags.get(0))
+                .tag("field", tags.get(1))
+                .tag("type", tags.get(2))
+                .register(registry);
+    }
+
+    private static String resolveEntryPoint(SessionNode session) {
+        return Optional.ofNullable(session.getSessionFrameStack())
+                .map(FrameStack::getCallFrames)
+                .flatMap(callFrames -> callFrames.stream().filter(FrameExtract::isApplicationClass).findFirst())
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1) + '.' + frame.getMethodName())
+                .orElse(UNKNOWN_TAG_VALUE);
+    }
+}
@@ -17,25 +17,34 @@
 package com.adgadev.jplusone.core.properties;
 
 import com.adgadev.jplusone.core.registry.OperationType;
-import com.adgadev.jplusone.core.registry.StatementType;
+import com.adgadev.jplusone.core.registry.SessionRetentionMode;
+import com.adgadev.jplusone.core.registry.SessionTrackingMode;
+import com.adgadev.jplusone.core.sql.StatementType;
 import com.adgadev.jplusone.core.tracking.VerbosityLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.EnumSet;
 import java.util.Set;
 
 import static com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneReportProperties.OperationFilteringMode.IMPLICIT_OPERATIONS_ONLY;
 import static com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneReportProperties.Output.LOGGER;
 import static com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneReportProperties.StatementFilteringMode.READ_STATEMENTS_ONLY;
+import static com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneSamplingProperties.SamplingPolicy.ALWAYS;
 
 @Getter
 @Setter
 @ConfigurationProperties("jplusone")
 public class JPlusOneProperties {
 
+    public enum TrackingMode {
+        FULL,
+        COUNTERS_ONLY
+    }
+
     private String applicationRootPackage;
 
     private boolean enabled = true;
@@ -44,8 +53,23 @@ public class JPlusOneProperties {
 
     private VerbosityLevel verbosityLevel = VerbosityLevel.V3;
 
+    private int callFramesMaxDepth = 0;
+
+    private TrackingMode trackingMode = TrackingMode.FULL;
+
     private JPlusOneReportProperties report = new JPlusOneReportProperties();
 
+    private JPlusOneSamplingProperties sampling = new JPlusOneSamplingProperties();
+
+    private JPlusOneRegistryProperties registry = new JPlusOneRegistryProperties();
+
+    private JPlusOneMetricsProperties metrics = new JPlusOneMetricsProperties();
+
+    public boolean isCountersOnlyTrackingPossible() {
+        return trackingMode == TrackingMode.COUNTERS_ONLY
+                || (sampling.getPolicy() != ALWAYS && sampling.getUnsampledSessionMode() == SessionTrackingMode.COUNTERS_ONLY);
+    }
+
     @Getter
     @Setter
     public static class JPlusOneReportProperties {
@@ -87,6 +111,70 @@ public class JPlusOneProperties {
 
         private Output output = LOGGER;
 
+        private int unbatchedWriteStatementsThreshold = 5;
+
+        private JPlusOneAsyncReportProperties async = new JPlusOneAsyncReportProperties();
+
+        @Getter
+        @Setter
+        public static class JPlusOneAsyncReportProperties {
+
+            public enum OverflowPolicy {
+                DROP,
+                BLOCK,
+                SAMPLE
+            }
+
+            private boolean enabled = false;
+
+            private int queueCapacity = 1000;
+
+            private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class JPlusOneSamplingProperties {
+
+        public enum SamplingPolicy {
+            ALWAYS,
+            FIXED_RATE,
+            RANDOM,
+            ADAPTIVE
+        }
+
+        private SamplingPolicy policy = ALWAYS;
+
+        private double rate = 1.0;
+
+        private double cpuBudget = 0.05;
+
+        private SessionTrackingMode unsampledSessionMode = SessionTrackingMode.COUNTERS_ONLY;
+
+    }
+
+    @Getter
+    @Setter
+    public static class JPlusOneRegistryProperties {
+
+        private int maxSessions = 0;
+
+        private Duration sessionTimeToLive = Duration.ZERO;
+
+        private SessionRetentionMode retentionMode = SessionRetentionMode.ALL_SESSIONS;
+
+    }
+
+    @Getter
+    @Setter
+    public static class JPlusOneMetricsProperties {
+
+        private boolean enabled = true;
+
+        private int maxTagValues = 100;
+
     }
 
 }
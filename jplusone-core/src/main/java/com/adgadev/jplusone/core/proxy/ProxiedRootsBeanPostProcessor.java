@@ -17,7 +17,8 @@
 package com.adgadev.jplusone.core.proxy;
 
 import com.adgadev.jplusone.core.proxy.datasource.DataSourceProxy;
-import com.adgadev.jplusone.core.proxy.jpa.EntityManagerFactoryAopProxyFactory;
+import com.adgadev.jplusone.core.proxy.jpa.EntityManagerFactoryProxyFactory;
+import com.adgadev.jplusone.core.sql.StatementTemplateCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeansException;
@@ -32,6 +33,8 @@ public class ProxiedRootsBeanPostProcessor implements BeanPostProcessor {
 
     private final StateListener stateListener;
 
+    private final StatementTemplateCache statementTemplateCache;
+
     private final boolean useHikariDataSourceAspect;
 
     @Override
@@ -46,13 +49,13 @@ public class ProxiedRootsBeanPostProcessor implements BeanPostProcessor {
                 log.debug("Using HikariDataSource aspect to intercept datasource connection creation");
             } else {
                 log.debug("DataSource wrapped in the proxy");
-                return new DataSourceProxy((DataSource) bean, stateListener);
+                return new DataSourceProxy((DataSource) bean, stateListener, statementTemplateCache);
             }
         }
 
         if (bean instanceof EntityManagerFactory) {
             log.debug("EntityManagerFactory wrapped in the proxy");
-            return EntityManagerFactoryAopProxyFactory.createProxy((EntityManagerFactory) bean, stateListener);
+            return EntityManagerFactoryProxyFactory.createProxy((EntityManagerFactory) bean, stateListener);
         }
 
         return bean;
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.proxy;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Compact buffer of parameters bound to SQL statement. Numeric and boolean values are kept in primitive slots,
+ * other values are kept as references, and all of them are converted to SQL literals only when rendered.
+ * Parameter indexes are one based, like in JDBC. Indexes out of range are ignored. Parameters are equal when
+ * the same parameters are bound with equal values of the same type.
+ */
+public final class SqlParameters {
+
+    private static final byte UNSET = 0;
+
+    private static final byte NULL = 1;
+
+    private static final byte BOOLEAN = 2;
+
+    private static final byte LONG = 3;
+
+    private static final byte FLOAT = 4;
+
+    private static final byte DOUBLE = 5;
+
+    private static final byte OBJECT = 6;
+
+    private static final byte DESCRIPTION = 7;
+
+    private static final int MAX_RENDERED_BYTES = 32;
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private final byte[] types;
+
+    private final long[] primitiveValues;
+
+    private final Object[] objectValues;
+
+    private SqlParameters(byte[] types, long[] primitiveValues, Object[] objectValues) {
+        this.types = types;
+        this.primitiveValues = primitiveValues;
+        this.objectValues = objectValues;
+    }
+
+    public static SqlParameters ofSize(int size) {
+        return new SqlParameters(new byte[size], new long[size], new Object[size]);
+    }
+
+    public int size() {
+        return types.length;
+    }
+
+    public void setNull(int parameterIndex) {
+        set(parameterIndex, NULL, 0, null);
+    }
+
+    public void setBoolean(int parameterIndex, boolean value) {
+        set(parameterIndex, BOOLEAN, value ? 1 : 0, null);
+    }
+
+    public void setLong(int parameterIndex, long value) {
+        set(parameterIndex, LONG, value, null);
+    }
+
+    public void setFloat(int parameterIndex, float value) {
+        set(parameterIndex, FLOAT, Float.floatToRawIntBits(value), null);
+    }
+
+    public void setDouble(int parameterIndex, double value) {
+        set(parameterIndex, DOUBLE, Double.doubleToRawLongBits(value), null);
+    }
+
+    public void setObject(int parameterIndex, Object value) {
+        set(parameterIndex, value != null ? OBJECT : NULL, 0, value);
+    }
+
+    /**
+     * Binds parameter which can't be rendered as SQL literal (i.e. stream), described by given constant text.
+     */
+    public void setDescription(int parameterIndex, String description) {
+        set(parameterIndex, DESCRIPTION, 0, description);
+    }
+
+    public void clear() {
+        Arrays.fill(types, UNSET);
+        Arrays.fill(objectValues, null);
+    }
+
+    /**
+     * Returns copy of bound parameters which is not affected by later changes of bound values. Mutable values
+     * (dates, arrays) are copied, and of binary values only the prefix needed to render them is kept.
+     */
+    public SqlParameters snapshot() {
+        Object[] objectValuesSnapshot = new Object[objectValues.length];
+
+        for (int i = 0; i < objectValues.length; i++) {
+            objectValuesSnapshot[i] = types[i] == OBJECT ? snapshotOf(objectValues[i]) : objectValues[i];
+        }
+
+        return new SqlParameters(types.clone(), primitiveValues.clone(), objectValuesSnapshot);
+    }
+
+    /**
+     * Returns SQL literal of parameter with given (zero based) position, or null if parameter is not bound.
+     */
+    public String toLiteral(int position) {
+        if (position < 0 || position >= types.length) {
+            return null;
+        }
+
+        switch (types[position]) {
+            case NULL: return "NULL";
+            case BOOLEAN: return primitiveValues[position] != 0 ? "true" : "false";
+            case LONG: return Long.toString(primitiveValues[position]);
+            case FLOAT: return Float.toString(Float.intBitsToFloat((int) primitiveValues[position]));
+            case DOUBLE: return Double.toString(Double.longBitsToDouble(primitiveValues[position]));
+            case OBJECT: return toLiteral(objectValues[position]);
+            case DESCRIPTION: return (String) objectValues[position];
+            default: return null;
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        } else if (!(other instanceof SqlParameters)) {
+            return false;
+        }
+
+        SqlParameters parameters = (SqlParameters) other;
+
+        if (!Arrays.equals(types, parameters.types)) {
+            return false;
+        }
+
+        for (int i = 0; i < types.length; i++) {
+            if (isPrimitive(types[i]) && primitiveValues[i] != parameters.primitiveValues[i]) {
+                return false;
+            } else if (!isPrimitive(types[i]) && !Objects.deepEquals(objectValues[i], parameters.objectValues[i])) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Arrays.hashCode(types);
+
+        for (int i = 0; i < types.length; i++) {
+            hash = 31 * hash + (isPrimitive(types[i]) ? Long.hashCode(primitiveValues[i]) : hashOf(objectValues[i]));
+        }
+
+        return hash;
+    }
+
+    private static int hashOf(Object value) {
+        return value != null && value.getClass().isArray()
+                ? Arrays.deepHashCode(new Object[] {value})
+                : Objects.hashCode(value);
+    }
+
+    private static boolean isPrimitive(byte type) {
+        return type == BOOLEAN || type == LONG || type == FLOAT || type == DOUBLE;
+    }
+
+    private void set(int parameterIndex, byte type, long primitiveValue, Object objectValue) {
+        int position = parameterIndex - 1;
+
+        if (position >= 0 && position < types.length) {
+            types[position] = type;
+            primitiveValues[position] = primitiveValue;
+            objectValues[position] = objectValue;
+        }
+    }
+
+    private static Object snapshotOf(Object value) {
+        if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            // one byte more than rendered, so that rendered literal still shows the value is truncated
+            return Arrays.copyOf(bytes, Math.min(bytes.length, MAX_RENDERED_BYTES + 1));
+        } else if (value instanceof Date) {
+            return ((Date) value).clone();
+        } else if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+            System.arraycopy(value, 0, copy, 0, length);
+            return copy;
+        } else {
+            return value;
+        }
+    }
+
+    private static String toLiteral(Object value) {
+        if (value instanceof Number || value instanceof Boolean) {
+            return value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString();
+        } else if (value instanceof byte[]) {
+            return toHexLiteral((byte[]) value);
+        } else {
+            return "'" + value.toString().replace("'", "''") + "'";
+        }
+    }
+
+    private static String toHexLiteral(byte[] value) {
+        int renderedBytes = Math.min(value.length, MAX_RENDERED_BYTES);
+        StringBuilder builder = new StringBuilder(2 * renderedBytes + 6).append("X'");
+
+        for (int i = 0; i < renderedBytes; i++) {
+            builder.append(HEX_DIGITS[(value[i] >> 4) & 0xF]).append(HEX_DIGITS[value[i] & 0xF]);
+        }
+
+        return builder.append(renderedBytes < value.length ? "...'" : "'").toString();
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.proxy;
+
+import com.adgadev.jplusone.core.sql.StatementTemplate;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Executed SQL statement, kept as SQL template and snapshot of parameters bound to it. SQL with inlined parameters
+ * is built only when it is rendered, i.e. in the report.
+ *
+ * Statement executed as JDBC batch is represented by a single instance holding size of the batch and parameters
+ * of first rows of the batch. Parameters of the first row are used when statement's SQL is rendered.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SqlStatement {
+
+    private static final char PARAMETER_SYMBOL = '?';
+
+    private static final SqlParameters NO_PARAMETERS = SqlParameters.ofSize(0);
+
+    /**
+     * Template resolved when statement was prepared, or template of SQL of statement executed without parameters.
+     */
+    @Getter
+    private final StatementTemplate statementTemplate;
+
+    @Getter
+    private final SqlParameters parameters;
+
+    private final List<SqlParameters> batchParameters;
+
+    @Getter
+    private final int batchSize;
+
+    @Getter
+    private final StatementMetrics metrics = new StatementMetrics();
+
+    public static SqlStatement of(String sql) {
+        return new SqlStatement(StatementTemplate.parse(sql), NO_PARAMETERS, Collections.emptyList(), 0);
+    }
+
+    public static SqlStatement withParameters(String sqlTemplate, SqlParameters parameters) {
+        return withParameters(StatementTemplate.parse(sqlTemplate), parameters);
+    }
+
+    public static SqlStatement withParameters(StatementTemplate statementTemplate, SqlParameters parameters) {
+        return new SqlStatement(statementTemplate, snapshotOf(parameters), Collections.emptyList(), 0);
+    }
+
+    public static SqlStatement ofBatch(String sql, int batchSize) {
+        return new SqlStatement(StatementTemplate.parse(sql), NO_PARAMETERS, Collections.emptyList(), batchSize);
+    }
+
+    /**
+     * Creates statement executed as JDBC batch of given size. Captured parameters are snapshots of parameters
+     * of the first rows of the batch, there may be fewer of them than rows in the batch.
+     */
+    public static SqlStatement ofBatch(String sqlTemplate, List<SqlParameters> capturedParameters, int batchSize) {
+        return ofBatch(StatementTemplate.parse(sqlTemplate), capturedParameters, batchSize);
+    }
+
+    public static SqlStatement ofBatch(StatementTemplate statementTemplate, List<SqlParameters> capturedParameters, int batchSize) {
+        SqlParameters firstRowParameters = capturedParameters.isEmpty() ? NO_PARAMETERS : capturedParameters.get(0);
+        return new SqlStatement(statementTemplate, firstRowParameters, capturedParameters, batchSize);
+    }
+
+    private static SqlParameters snapshotOf(SqlParameters parameters) {
+        return parameters.size() > 0 ? parameters.snapshot() : NO_PARAMETERS;
+    }
+
+    public String getSqlTemplate() {
+        return statementTemplate.getSqlTemplate();
+    }
+
+    public boolean isBatch() {
+        return batchSize > 0;
+    }
+
+    /**
+     * Returns how many times the statement was executed, i.e. amount of rows of the batch.
+     */
+    public int getExecutionsCount() {
+        return isBatch() ? batchSize : 1;
+    }
+
+    /**
+     * Renders parameters of captured rows of the batch as lists of comma separated SQL literals, one per row.
+     */
+    public List<String> renderBatchParameters() {
+        List<String> rows = new ArrayList<>(batchParameters.size());
+
+        for (SqlParameters rowParameters : batchParameters) {
+            StringBuilder builder = new StringBuilder();
+
+            for (int i = 0; i < rowParameters.size(); i++) {
+                String parameterValue = rowParameters.toLiteral(i);
+                builder.append(i > 0 ? ", " : "").append(parameterValue != null ? parameterValue : PARAMETER_SYMBOL);
+            }
+
+            rows.add(builder.toString());
+        }
+
+        return rows;
+    }
+
+    public String getSql() {
+        return render(getSqlTemplate(), 0);
+    }
+
+    /**
+     * Renders given template, being a fragment or a reformatted version of this statement's template,
+     * substituting its placeholders with parameters starting at given (zero based) index.
+     */
+    public String render(String template, int firstParameterIndex) {
+        if (parameters.size() == 0) {
+            return template;
+        }
+
+        StringBuilder builder = new StringBuilder(template.length() + 8 * parameters.size());
+        int parameterIndex = firstParameterIndex;
+        int startIndex = 0;
+
+        for (int i = 0; i < template.length(); i++) {
+            if (template.charAt(i) == PARAMETER_SYMBOL) {
+                builder.append(template, startIndex, i);
+
+                String parameterValue = parameters.toLiteral(parameterIndex);
+                builder.append(parameterValue != null ? parameterValue : PARAMETER_SYMBOL);
+                parameterIndex++;
+                startIndex = i + 1;
+            }
+        }
+
+        builder.append(template, startIndex, template.length());
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getSql();
+    }
+}
@@ -16,17 +16,38 @@
 
 package com.adgadev.jplusone.core.proxy;
 
-import java.util.function.Supplier;
-
 public interface StateListener {
 
     void entityManagerCreated(Identifier entityManagerId);
 
     void entityManagerClosed(Identifier entityManagerId);
 
-    void statementExecuted(String sql);
+    /**
+     * Invoked once per connection, so that it's decided up front whether statements executed on it are tracked.
+     *
+     * @return identifier of entity manager on behalf of which the connection is acquired, or null if the connection
+     * is acquired outside of entity manager (i.e. by JdbcTemplate)
+     */
+    Identifier connectionAcquired();
 
-    void statementExecuted(Supplier<String> sqlSupplier);
+    /**
+     * @param entityManagerId identifier of entity manager which acquired the connection, or null if it has been
+     *                        acquired outside of entity manager
+     */
+    void statementExecuted(SqlStatement sqlStatement, Identifier entityManagerId);
 
     void lazyCollectionInitialized(String entityClassName, String fieldName);
+
+    /**
+     * @return identifier of entity manager whose session should be active in the thread executing submitted task, or null if there is none
+     */
+    Identifier taskSubmitted();
+
+    void taskStarted(Identifier entityManagerId);
+
+    void taskFinished(Identifier entityManagerId);
+
+    void transactionCommitStarted(Identifier entityManagerId);
+
+    void transactionCommitFinished(Identifier entityManagerId);
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.proxy;
+
+import java.time.Duration;
+
+/**
+ * Metrics of SQL statement execution. They are filled in by JDBC proxies when the execution is complete,
+ * hence after the statement has already been passed to {@link StateListener}. Result set metrics are filled in
+ * once the result set is consumed or closed.
+ */
+public final class StatementMetrics {
+
+    private volatile long executionTimeNanos;
+
+    private volatile boolean resultSetRead;
+
+    private volatile int rowsCount;
+
+    private volatile int fetchSize;
+
+    private volatile long estimatedResultSetBytes;
+
+    public void recordExecutionTime(long executionTimeNanos) {
+        this.executionTimeNanos = executionTimeNanos;
+    }
+
+    public void recordResultSet(int rowsCount, int fetchSize, long estimatedResultSetBytes) {
+        this.rowsCount = rowsCount;
+        this.fetchSize = fetchSize;
+        this.estimatedResultSetBytes = estimatedResultSetBytes;
+        this.resultSetRead = true;
+    }
+
+    public Duration getExecutionTime() {
+        return Duration.ofNanos(executionTimeNanos);
+    }
+
+    public boolean isResultSetRead() {
+        return resultSetRead;
+    }
+
+    /**
+     * Amount of rows consumed from the result set, which may be lower than amount of rows returned by the query
+     * if the result set was closed before reaching its end.
+     */
+    public int getRowsCount() {
+        return rowsCount;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Rough estimate of the size of values read from the result set, based on their in-memory java representation.
+     */
+    public long getEstimatedResultSetBytes() {
+        return estimatedResultSetBytes;
+    }
+}
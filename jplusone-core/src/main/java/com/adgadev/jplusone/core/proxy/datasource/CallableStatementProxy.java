@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.proxy.datasource;
+
+import com.adgadev.jplusone.core.proxy.Identifier;
+import com.adgadev.jplusone.core.proxy.StateListener;
+import com.adgadev.jplusone.core.sql.StatementTemplate;
+import lombok.experimental.Delegate;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+/**
+ * Tracks execution of stored procedure calls in the same way as of prepared statements. Parameters bound by name
+ * and out parameters are passed to the proxied statement only, as they can't be mapped onto SQL template.
+ */
+class CallableStatementProxy extends PreparedStatementProxy implements CallableStatement {
+
+    @Delegate(types = CallableStatement.class, excludes = PreparedStatement.class)
+    private final CallableStatement delegate;
+
+    CallableStatementProxy(CallableStatement delegate, Connection connection, StateListener stateListener, Identifier entityManagerId, StatementTemplate statementTemplate) {
+        super(delegate, connection, stateListener, entityManagerId, statementTemplate);
+        this.delegate = delegate;
+    }
+}
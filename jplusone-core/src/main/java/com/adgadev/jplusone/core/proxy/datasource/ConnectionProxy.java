@@ -16,12 +16,16 @@
 
 package com.adgadev.jplusone.core.proxy.datasource;
 
+import com.adgadev.jplusone.core.proxy.Identifier;
 import com.adgadev.jplusone.core.proxy.StateListener;
+import com.adgadev.jplusone.core.sql.StatementTemplateCache;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.Delegate;
 import lombok.extern.slf4j.Slf4j;
 
+import java.sql.CallableStatement;
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -35,58 +39,100 @@ class ConnectionProxy implements Connection {
 
     private final StateListener stateListener;
 
+    /**
+     * Entity manager on behalf of which the connection was acquired, resolved once so that statements are attributed
+     * to its session regardless of thread they are executed on. Null if connection was acquired outside of entity manager,
+     * in which case statements executed on it are not tracked.
+     */
+    private final Identifier entityManagerId;
+
+    private final StatementTemplateCache statementTemplateCache;
+
     @Override
     public Statement createStatement() throws SQLException {
         Statement statement = delegate.createStatement();
-        return new StatementProxy(statement, stateListener);
+        return new StatementProxy(statement, this, stateListener, entityManagerId);
     }
 
     @Override
     public Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException {
         Statement statement = delegate.createStatement(resultSetType, resultSetConcurrency);
-        return new StatementProxy(statement, stateListener);
+        return new StatementProxy(statement, this, stateListener, entityManagerId);
     }
 
     @Override
     public Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
         Statement statement = delegate.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability);
-        return new StatementProxy(statement, stateListener);
+        return new StatementProxy(statement, this, stateListener, entityManagerId);
     }
 
     @Override
     public PreparedStatement prepareStatement(String sql) throws SQLException {
         PreparedStatement preparedStatement = delegate.prepareStatement(sql);
-        return new PreparedStatementProxy(preparedStatement, stateListener, sql);
+        return new PreparedStatementProxy(preparedStatement, this, stateListener, entityManagerId, statementTemplateCache.get(sql));
     }
 
     @Override
     public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
         PreparedStatement preparedStatement = delegate.prepareStatement(sql, resultSetType, resultSetConcurrency);
-        return new PreparedStatementProxy(preparedStatement, stateListener, sql);
+        return new PreparedStatementProxy(preparedStatement, this, stateListener, entityManagerId, statementTemplateCache.get(sql));
     }
 
     @Override
     public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
         PreparedStatement preparedStatement = delegate.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
-        return new PreparedStatementProxy(preparedStatement, stateListener, sql);
+        return new PreparedStatementProxy(preparedStatement, this, stateListener, entityManagerId, statementTemplateCache.get(sql));
     }
 
     @Override
     public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
         PreparedStatement preparedStatement = delegate.prepareStatement(sql, autoGeneratedKeys);
-        return new PreparedStatementProxy(preparedStatement, stateListener, sql);
+        return new PreparedStatementProxy(preparedStatement, this, stateListener, entityManagerId, statementTemplateCache.get(sql));
     }
 
     @Override
     public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
         PreparedStatement preparedStatement = delegate.prepareStatement(sql, columnIndexes);
-        return new PreparedStatementProxy(preparedStatement, stateListener, sql);
+        return new PreparedStatementProxy(preparedStatement, this, stateListener, entityManagerId, statementTemplateCache.get(sql));
     }
 
     @Override
     public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
         PreparedStatement preparedStatement = delegate.prepareStatement(sql, columnNames);
-        return new PreparedStatementProxy(preparedStatement, stateListener, sql);
+        return new PreparedStatementProxy(preparedStatement, this, stateListener, entityManagerId, statementTemplateCache.get(sql));
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql) throws SQLException {
+        CallableStatement callableStatement = delegate.prepareCall(sql);
+        return new CallableStatementProxy(callableStatement, this, stateListener, entityManagerId, statementTemplateCache.get(sql));
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        CallableStatement callableStatement = delegate.prepareCall(sql, resultSetType, resultSetConcurrency);
+        return new CallableStatementProxy(callableStatement, this, stateListener, entityManagerId, statementTemplateCache.get(sql));
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+        CallableStatement callableStatement = delegate.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+        return new CallableStatementProxy(callableStatement, this, stateListener, entityManagerId, statementTemplateCache.get(sql));
+    }
+
+    @Override
+    public DatabaseMetaData getMetaData() throws SQLException {
+        return new DatabaseMetaDataProxy(delegate.getMetaData(), this);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return JdbcWrappers.unwrap(this, delegate, iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return JdbcWrappers.isWrapperFor(this, delegate, iface);
     }
 
     private interface ConnectionOverwrite {
@@ -109,6 +155,18 @@ class ConnectionProxy implements Connection {
 
         PreparedStatement prepareStatement(String sql, String columnNames[]) throws SQLException;
 
+        CallableStatement prepareCall(String sql) throws SQLException;
+
+        CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency) throws SQLException;
+
+        CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException;
+
+        DatabaseMetaData getMetaData() throws SQLException;
+
+        <T> T unwrap(Class<T> iface) throws SQLException;
+
+        boolean isWrapperFor(Class<?> iface) throws SQLException;
+
     }
 
 }
@@ -17,6 +17,7 @@
 package com.adgadev.jplusone.core.proxy.datasource;
 
 import com.adgadev.jplusone.core.proxy.StateListener;
+import com.adgadev.jplusone.core.sql.StatementTemplateCache;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.Delegate;
 
@@ -32,14 +33,30 @@ public class DataSourceProxy implements DataSource {
 
     private final StateListener stateListener;
 
+    private final StatementTemplateCache statementTemplateCache;
+
+    public DataSourceProxy(DataSource delegate, StateListener stateListener) {
+        this(delegate, stateListener, new StatementTemplateCache());
+    }
+
     public Connection getConnection() throws SQLException {
         Connection connection = delegate.getConnection();
-        return new ConnectionProxy(connection, stateListener);
+        return new ConnectionProxy(connection, stateListener, stateListener.connectionAcquired(), statementTemplateCache);
     }
 
     public Connection getConnection(String username, String password) throws SQLException {
         Connection connection = delegate.getConnection(username, password);
-        return new ConnectionProxy(connection, stateListener);
+        return new ConnectionProxy(connection, stateListener, stateListener.connectionAcquired(), statementTemplateCache);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return JdbcWrappers.unwrap(this, delegate, iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return JdbcWrappers.isWrapperFor(this, delegate, iface);
     }
 
     private interface DataSourceOverwrite {
@@ -47,5 +64,9 @@ public class DataSourceProxy implements DataSource {
         Connection getConnection() throws SQLException;
 
         Connection getConnection(String username, String password) throws SQLException;
+
+        <T> T unwrap(Class<T> iface) throws SQLException;
+
+        boolean isWrapperFor(Class<?> iface) throws SQLException;
     }
 }
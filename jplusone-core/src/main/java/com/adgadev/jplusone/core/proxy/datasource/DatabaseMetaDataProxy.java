@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.proxy.datasource;
+
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.Delegate;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+/**
+ * Passes through all metadata queries, only connection it was obtained from is replaced by its proxy,
+ * so that statements created via {@link #getConnection()} are tracked as well.
+ */
+@RequiredArgsConstructor
+class DatabaseMetaDataProxy implements DatabaseMetaData {
+
+    @Delegate(excludes = DatabaseMetaDataOverwrite.class)
+    private final DatabaseMetaData delegate;
+
+    private final Connection connection;
+
+    @Override
+    public Connection getConnection() {
+        return connection;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return JdbcWrappers.unwrap(this, delegate, iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return JdbcWrappers.isWrapperFor(this, delegate, iface);
+    }
+
+    private interface DatabaseMetaDataOverwrite {
+
+        Connection getConnection() throws SQLException;
+
+        <T> T unwrap(Class<T> iface) throws SQLException;
+
+        boolean isWrapperFor(Class<?> iface) throws SQLException;
+
+    }
+}
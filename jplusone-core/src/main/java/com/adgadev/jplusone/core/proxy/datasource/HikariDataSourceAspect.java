@@ -17,6 +17,7 @@
 package com.adgadev.jplusone.core.proxy.datasource;
 
 import com.adgadev.jplusone.core.proxy.StateListener;
+import com.adgadev.jplusone.core.sql.StatementTemplateCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -36,9 +37,11 @@ public class HikariDataSourceAspect {
 
     private final StateListener stateListener;
 
+    private final StatementTemplateCache statementTemplateCache;
+
     @Around("execution(* com.zaxxer.hikari.HikariDataSource.getConnection(..))")
     public Object interceptGetConnection(ProceedingJoinPoint thisJoinPoint) throws Throwable {
         Connection connection = (Connection) thisJoinPoint.proceed();
-        return new ConnectionProxy(connection, stateListener);
+        return new ConnectionProxy(connection, stateListener, stateListener.connectionAcquired(), statementTemplateCache);
     }
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.adgadev.jplusone.core.proxy.datasource;
+
+import java.sql.SQLException;
+import java.sql.Wrapper;
+
+/**
+ * Implementation of {@link Wrapper} methods shared by JDBC proxies. As required by JDBC specification the proxy
+ * itself is returned if it implements requested interface, so that unwrapping i.e. to {@link java.sql.Connection}
+ * doesn't bypass tracking, otherwise the request is passed to the proxied object.
+ */
+class JdbcWrappers {
+
+    static <T> T unwrap(Wrapper proxy, Wrapper delegate, Class<T> iface) throws SQLException {
+        if (iface.isInstance(proxy)) {
+            return iface.cast(proxy);
+        } else if (iface.isInstance(delegate)) {
+            return iface.cast(delegate);
+        }
+
+        return delegate.unwrap(iface);
+    }
+
+    static boolean isWrapperFor(Wrapper proxy, Wrapper delegate, Class<?> iface) throws SQLException {
+        return iface.isInstance(proxy) || iface.isInstance(delegate) || delegate.isWrapperFor(iface);
+    }
+}
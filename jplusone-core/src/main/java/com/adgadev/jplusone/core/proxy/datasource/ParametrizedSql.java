@@ -16,70 +16,105 @@
 
 package com.adgadev.jplusone.core.proxy.datasource;
 
+import com.adgadev.jplusone.core.proxy.SqlParameters;
+import com.adgadev.jplusone.core.proxy.SqlStatement;
+import com.adgadev.jplusone.core.sql.StatementTemplate;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Parameters bound to prepared statement, tracked alongside the statement for its whole lifetime. Number of
+ * parameters is taken from statement template, so that statements prepared repeatedly (i.e. by driver or pool
+ * statement cache misses) don't scan the SQL again.
+ */
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 class ParametrizedSql {
 
-    private static final char PARAMETER_SYMBOL = '?';
+    static final int MAX_CAPTURED_BATCH_ROWS = 10;
+
+    private final StatementTemplate statementTemplate;
+
+    private final SqlParameters parameters;
 
-    private final String sql;
+    private final List<SqlParameters> batchParameters = new ArrayList<>();
 
-    private final String[] parameters;
+    private int batchSize;
 
     static ParametrizedSql forSql(String sql) {
-        return new ParametrizedSql(sql, new String[countParameters(sql)]);
+        return forTemplate(StatementTemplate.parse(sql));
     }
 
-    private static int countParameters(String sql) {
-        return (int) sql.chars()
-                .filter(character -> character == PARAMETER_SYMBOL)
-                .count();
+    static ParametrizedSql forTemplate(StatementTemplate statementTemplate) {
+        return new ParametrizedSql(statementTemplate, SqlParameters.ofSize(statementTemplate.getParametersCount()));
     }
 
     void clearParameters() {
-        Arrays.fill(parameters, null);
+        parameters.clear();
+    }
+
+    void setNull(int parameterIndex) {
+        parameters.setNull(parameterIndex);
+    }
+
+    void setBoolean(int parameterIndex, boolean value) {
+        parameters.setBoolean(parameterIndex, value);
     }
 
     void setInt(int parameterIndex, int value) {
-        parameters[parameterIndex - 1] = String.valueOf(value);
+        parameters.setLong(parameterIndex, value);
     }
 
     void setLong(int parameterIndex, long value) {
-        parameters[parameterIndex - 1] = String.valueOf(value);
+        parameters.setLong(parameterIndex, value);
     }
 
-    void setString(int parameterIndex, String value) {
-        parameters[parameterIndex - 1] = "'" + value + "'";
+    void setFloat(int parameterIndex, float value) {
+        parameters.setFloat(parameterIndex, value);
     }
 
-    String getSqlWithParameters() {
-        StringBuilder builder = new StringBuilder();
-        int parameterIndex = 0;
-        int startIndex = 0;
-        int endIndex = -1;
+    void setDouble(int parameterIndex, double value) {
+        parameters.setDouble(parameterIndex, value);
+    }
+
+    void setString(int parameterIndex, String value) {
+        parameters.setObject(parameterIndex, value);
+    }
 
-        for (int i = 0; i < sql.length(); i++) {
-            if (sql.charAt(i) == PARAMETER_SYMBOL) {
-                endIndex = i;
+    void setObject(int parameterIndex, Object value) {
+        parameters.setObject(parameterIndex, value);
+    }
 
-                if (startIndex < endIndex) {
-                    builder.append(sql, startIndex, endIndex);
-                }
+    void setDescription(int parameterIndex, String description) {
+        parameters.setDescription(parameterIndex, description);
+    }
 
-                String parameterValue = parameters[parameterIndex++];
-                builder.append(parameterValue != null ? parameterValue : PARAMETER_SYMBOL);
-                startIndex = i + 1;
-            }
+    void addBatch() {
+        if (batchParameters.size() < MAX_CAPTURED_BATCH_ROWS) {
+            batchParameters.add(parameters.snapshot());
         }
 
-        if (startIndex < sql.length()) {
-            builder.append(sql, startIndex, sql.length());
-        }
+        batchSize++;
+    }
+
+    boolean isBatchEmpty() {
+        return batchSize == 0;
+    }
+
+    void clearBatch() {
+        batchParameters.clear();
+        batchSize = 0;
+    }
+
+    SqlStatement toSqlStatement() {
+        return SqlStatement.withParameters(statementTemplate, parameters);
+    }
 
-        return builder.toString();
+    SqlStatement toBatchSqlStatement() {
+        SqlStatement sqlStatement = SqlStatement.ofBatch(statementTemplate, new ArrayList<>(batchParameters), batchSize);
+        clearBatch();
+        return sqlStatement;
     }
 }
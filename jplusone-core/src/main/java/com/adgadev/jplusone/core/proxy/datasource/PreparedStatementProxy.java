@@ -16,29 +16,65 @@
 
 package com.adgadev.jplusone.core.proxy.datasource;
 
+import com.adgadev.jplusone.core.proxy.Identifier;
+import com.adgadev.jplusone.core.proxy.SqlStatement;
 import com.adgadev.jplusone.core.proxy.StateListener;
+import com.adgadev.jplusone.core.sql.StatementTemplate;
 import lombok.experimental.Delegate;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.NClob;
 import java.sql.PreparedStatement;
+import java.sql.Ref;
 import java.sql.ResultSet;
+import java.sql.RowId;
 import java.sql.SQLException;
+import java.sql.SQLType;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
 import java.sql.Wrapper;
+import java.util.Calendar;
 
 @Slf4j
 class PreparedStatementProxy implements PreparedStatement {
 
+    private static final String STREAM_PARAMETER = "<STREAM>";
+
+    private static final String LOB_PARAMETER = "<LOB>";
+
+    private static final String ARRAY_PARAMETER = "<ARRAY>";
+
+    private static final String OTHER_PARAMETER = "<OTHER>";
+
     @Delegate(types = {PreparedStatement.class, Wrapper.class}, excludes = PreparedStatementOverwrite.class)
     private final PreparedStatement delegate;
 
+    private final Connection connection;
+
     private final StateListener stateListener;
 
+    private final Identifier entityManagerId;
+
     private final ParametrizedSql parametrizedSql;
 
-    PreparedStatementProxy(PreparedStatement delegate, StateListener stateListener, String sql) {
+    private SqlStatement executedSqlStatement;
+
+    PreparedStatementProxy(PreparedStatement delegate, Connection connection, StateListener stateListener, Identifier entityManagerId, StatementTemplate statementTemplate) {
         this.delegate = delegate;
+        this.connection = connection;
         this.stateListener = stateListener;
-        this.parametrizedSql = ParametrizedSql.forSql(sql);
+        this.entityManagerId = entityManagerId;
+        this.parametrizedSql = ParametrizedSql.forTemplate(statementTemplate);
     }
 
     @Override
@@ -47,6 +83,36 @@ class PreparedStatementProxy implements PreparedStatement {
         delegate.clearParameters();
     }
 
+    @Override
+    public void setNull(int parameterIndex, int sqlType) throws SQLException {
+        parametrizedSql.setNull(parameterIndex);
+        delegate.setNull(parameterIndex, sqlType);
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+        parametrizedSql.setNull(parameterIndex);
+        delegate.setNull(parameterIndex, sqlType, typeName);
+    }
+
+    @Override
+    public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+        parametrizedSql.setBoolean(parameterIndex, x);
+        delegate.setBoolean(parameterIndex, x);
+    }
+
+    @Override
+    public void setByte(int parameterIndex, byte x) throws SQLException {
+        parametrizedSql.setInt(parameterIndex, x);
+        delegate.setByte(parameterIndex, x);
+    }
+
+    @Override
+    public void setShort(int parameterIndex, short x) throws SQLException {
+        parametrizedSql.setInt(parameterIndex, x);
+        delegate.setShort(parameterIndex, x);
+    }
+
     @Override
     public void setInt(int parameterIndex, int x) throws SQLException {
         parametrizedSql.setInt(parameterIndex, x);
@@ -59,52 +125,352 @@ class PreparedStatementProxy implements PreparedStatement {
         delegate.setLong(parameterIndex, x);
     }
 
+    @Override
+    public void setFloat(int parameterIndex, float x) throws SQLException {
+        parametrizedSql.setFloat(parameterIndex, x);
+        delegate.setFloat(parameterIndex, x);
+    }
+
+    @Override
+    public void setDouble(int parameterIndex, double x) throws SQLException {
+        parametrizedSql.setDouble(parameterIndex, x);
+        delegate.setDouble(parameterIndex, x);
+    }
+
+    @Override
+    public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+        parametrizedSql.setObject(parameterIndex, x);
+        delegate.setBigDecimal(parameterIndex, x);
+    }
+
     @Override
     public void setString(int parameterIndex, String x) throws SQLException {
         parametrizedSql.setString(parameterIndex, x);
         delegate.setString(parameterIndex, x);
     }
 
+    @Override
+    public void setNString(int parameterIndex, String value) throws SQLException {
+        parametrizedSql.setString(parameterIndex, value);
+        delegate.setNString(parameterIndex, value);
+    }
+
+    @Override
+    public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+        parametrizedSql.setObject(parameterIndex, x);
+        delegate.setBytes(parameterIndex, x);
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x) throws SQLException {
+        parametrizedSql.setObject(parameterIndex, x);
+        delegate.setDate(parameterIndex, x);
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+        parametrizedSql.setObject(parameterIndex, x);
+        delegate.setDate(parameterIndex, x, cal);
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x) throws SQLException {
+        parametrizedSql.setObject(parameterIndex, x);
+        delegate.setTime(parameterIndex, x);
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+        parametrizedSql.setObject(parameterIndex, x);
+        delegate.setTime(parameterIndex, x, cal);
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+        parametrizedSql.setObject(parameterIndex, x);
+        delegate.setTimestamp(parameterIndex, x);
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+        parametrizedSql.setObject(parameterIndex, x);
+        delegate.setTimestamp(parameterIndex, x, cal);
+    }
+
+    @Override
+    public void setURL(int parameterIndex, URL x) throws SQLException {
+        parametrizedSql.setObject(parameterIndex, x);
+        delegate.setURL(parameterIndex, x);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x) throws SQLException {
+        parametrizedSql.setObject(parameterIndex, x);
+        delegate.setObject(parameterIndex, x);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+        parametrizedSql.setObject(parameterIndex, x);
+        delegate.setObject(parameterIndex, x, targetSqlType);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+        parametrizedSql.setObject(parameterIndex, x);
+        delegate.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, SQLType targetSqlType) throws SQLException {
+        parametrizedSql.setObject(parameterIndex, x);
+        delegate.setObject(parameterIndex, x, targetSqlType);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
+        parametrizedSql.setObject(parameterIndex, x);
+        delegate.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+        parametrizedSql.setDescription(parameterIndex, STREAM_PARAMETER);
+        delegate.setAsciiStream(parameterIndex, x);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        parametrizedSql.setDescription(parameterIndex, STREAM_PARAMETER);
+        delegate.setAsciiStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        parametrizedSql.setDescription(parameterIndex, STREAM_PARAMETER);
+        delegate.setAsciiStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+        parametrizedSql.setDescription(parameterIndex, STREAM_PARAMETER);
+        delegate.setBinaryStream(parameterIndex, x);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        parametrizedSql.setDescription(parameterIndex, STREAM_PARAMETER);
+        delegate.setBinaryStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        parametrizedSql.setDescription(parameterIndex, STREAM_PARAMETER);
+        delegate.setBinaryStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+        parametrizedSql.setDescription(parameterIndex, STREAM_PARAMETER);
+        delegate.setCharacterStream(parameterIndex, reader);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
+        parametrizedSql.setDescription(parameterIndex, STREAM_PARAMETER);
+        delegate.setCharacterStream(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+        parametrizedSql.setDescription(parameterIndex, STREAM_PARAMETER);
+        delegate.setCharacterStream(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value) throws SQLException {
+        parametrizedSql.setDescription(parameterIndex, STREAM_PARAMETER);
+        delegate.setNCharacterStream(parameterIndex, value);
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value, long length) throws SQLException {
+        parametrizedSql.setDescription(parameterIndex, STREAM_PARAMETER);
+        delegate.setNCharacterStream(parameterIndex, value, length);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, Blob x) throws SQLException {
+        parametrizedSql.setDescription(parameterIndex, LOB_PARAMETER);
+        delegate.setBlob(parameterIndex, x);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
+        parametrizedSql.setDescription(parameterIndex, LOB_PARAMETER);
+        delegate.setBlob(parameterIndex, inputStream);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+        parametrizedSql.setDescription(parameterIndex, LOB_PARAMETER);
+        delegate.setBlob(parameterIndex, inputStream, length);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Clob x) throws SQLException {
+        parametrizedSql.setDescription(parameterIndex, LOB_PARAMETER);
+        delegate.setClob(parameterIndex, x);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader) throws SQLException {
+        parametrizedSql.setDescription(parameterIndex, LOB_PARAMETER);
+        delegate.setClob(parameterIndex, reader);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        parametrizedSql.setDescription(parameterIndex, LOB_PARAMETER);
+        delegate.setClob(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, NClob value) throws SQLException {
+        parametrizedSql.setDescription(parameterIndex, LOB_PARAMETER);
+        delegate.setNClob(parameterIndex, value);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader) throws SQLException {
+        parametrizedSql.setDescription(parameterIndex, LOB_PARAMETER);
+        delegate.setNClob(parameterIndex, reader);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        parametrizedSql.setDescription(parameterIndex, LOB_PARAMETER);
+        delegate.setNClob(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setArray(int parameterIndex, Array x) throws SQLException {
+        parametrizedSql.setDescription(parameterIndex, ARRAY_PARAMETER);
+        delegate.setArray(parameterIndex, x);
+    }
+
+    @Override
+    public void setRef(int parameterIndex, Ref x) throws SQLException {
+        parametrizedSql.setDescription(parameterIndex, OTHER_PARAMETER);
+        delegate.setRef(parameterIndex, x);
+    }
+
+    @Override
+    public void setRowId(int parameterIndex, RowId x) throws SQLException {
+        parametrizedSql.setDescription(parameterIndex, OTHER_PARAMETER);
+        delegate.setRowId(parameterIndex, x);
+    }
+
+    @Override
+    public void setSQLXML(int parameterIndex, SQLXML xmlObject) throws SQLException {
+        parametrizedSql.setDescription(parameterIndex, OTHER_PARAMETER);
+        delegate.setSQLXML(parameterIndex, xmlObject);
+    }
+
     @Override
     public boolean execute() throws SQLException {
-        trackStatementExecution();
-        return delegate.execute();
+        SqlStatement sqlStatement = trackStatementExecution();
+        return TimedExecution.execute(sqlStatement, delegate::execute);
     }
 
     @Override
     public ResultSet executeQuery() throws SQLException {
-        trackStatementExecution();
-        return delegate.executeQuery();
+        SqlStatement sqlStatement = trackStatementExecution();
+        ResultSet resultSet = TimedExecution.execute(sqlStatement, delegate::executeQuery);
+        return ResultSetProxy.wrap(resultSet, this, sqlStatement.getMetrics());
     }
 
     @Override
     public int executeUpdate() throws SQLException {
-        trackStatementExecution();
-        return delegate.executeUpdate();
+        SqlStatement sqlStatement = trackStatementExecution();
+        return TimedExecution.execute(sqlStatement, delegate::executeUpdate);
     }
 
     @Override
     public long executeLargeUpdate() throws SQLException {
-        trackStatementExecution();
-        return delegate.executeLargeUpdate();
+        SqlStatement sqlStatement = trackStatementExecution();
+        return TimedExecution.execute(sqlStatement, delegate::executeLargeUpdate);
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        parametrizedSql.addBatch();
+        delegate.addBatch();
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        parametrizedSql.clearBatch();
+        delegate.clearBatch();
     }
 
     @Override
     public int[] executeBatch() throws SQLException {
-        trackStatementExecution();
-        return delegate.executeBatch();
+        if (parametrizedSql.isBatchEmpty()) {
+            executedSqlStatement = null;
+            return delegate.executeBatch();
+        }
+
+        SqlStatement sqlStatement = trackBatchExecution();
+        return TimedExecution.execute(sqlStatement, delegate::executeBatch);
     }
 
     @Override
     public long[] executeLargeBatch() throws SQLException {
-        trackStatementExecution();
-        return delegate.executeLargeBatch();
+        if (parametrizedSql.isBatchEmpty()) {
+            executedSqlStatement = null;
+            return delegate.executeLargeBatch();
+        }
+
+        SqlStatement sqlStatement = trackBatchExecution();
+        return TimedExecution.execute(sqlStatement, delegate::executeLargeBatch);
     }
 
     // TODO: what with other execute* methods inherited from Statement, not PreparedStatement?
 
-    private void trackStatementExecution() {
-        stateListener.statementExecuted(parametrizedSql::getSqlWithParameters);
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        ResultSet resultSet = delegate.getResultSet();
+        return executedSqlStatement != null ? ResultSetProxy.wrap(resultSet, this, executedSqlStatement.getMetrics()) : resultSet;
+    }
+
+    @Override
+    public Connection getConnection() {
+        return connection;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return JdbcWrappers.unwrap(this, delegate, iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return JdbcWrappers.isWrapperFor(this, delegate, iface);
+    }
+
+    private SqlStatement trackStatementExecution() {
+        SqlStatement sqlStatement = parametrizedSql.toSqlStatement();
+        stateListener.statementExecuted(sqlStatement, entityManagerId);
+        executedSqlStatement = sqlStatement;
+        return sqlStatement;
+    }
+
+    private SqlStatement trackBatchExecution() {
+        SqlStatement sqlStatement = parametrizedSql.toBatchSqlStatement();
+        stateListener.statementExecuted(sqlStatement, entityManagerId);
+        executedSqlStatement = null;
+        return sqlStatement;
     }
 
     private interface PreparedStatementOverwrite {
@@ -113,21 +479,123 @@ class PreparedStatementProxy implements PreparedStatement {
 
         ResultSet executeQuery() throws SQLException;
 
+        ResultSet getResultSet() throws SQLException;
+
         int executeUpdate() throws SQLException;
 
         long executeLargeUpdate() throws SQLException;
 
+        void addBatch() throws SQLException;
+
+        void clearBatch() throws SQLException;
+
         int[] executeBatch() throws SQLException;
 
         long[] executeLargeBatch() throws SQLException;
 
-        void setString(int parameterIndex, String x) throws SQLException;
+        Connection getConnection() throws SQLException;
+
+        <T> T unwrap(Class<T> iface) throws SQLException;
+
+        boolean isWrapperFor(Class<?> iface) throws SQLException;
+
+        void setNull(int parameterIndex, int sqlType) throws SQLException;
+
+        void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException;
+
+        void setBoolean(int parameterIndex, boolean x) throws SQLException;
+
+        void setByte(int parameterIndex, byte x) throws SQLException;
+
+        void setShort(int parameterIndex, short x) throws SQLException;
 
         void setInt(int parameterIndex, int x) throws SQLException;
 
         void setLong(int parameterIndex, long x) throws SQLException;
 
-        // TODO: implement other setXXX
+        void setFloat(int parameterIndex, float x) throws SQLException;
+
+        void setDouble(int parameterIndex, double x) throws SQLException;
+
+        void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException;
+
+        void setString(int parameterIndex, String x) throws SQLException;
+
+        void setNString(int parameterIndex, String value) throws SQLException;
+
+        void setBytes(int parameterIndex, byte[] x) throws SQLException;
+
+        void setDate(int parameterIndex, Date x) throws SQLException;
+
+        void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException;
+
+        void setTime(int parameterIndex, Time x) throws SQLException;
+
+        void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException;
+
+        void setTimestamp(int parameterIndex, Timestamp x) throws SQLException;
+
+        void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException;
+
+        void setURL(int parameterIndex, URL x) throws SQLException;
+
+        void setObject(int parameterIndex, Object x) throws SQLException;
+
+        void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException;
+
+        void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException;
+
+        void setObject(int parameterIndex, Object x, SQLType targetSqlType) throws SQLException;
+
+        void setObject(int parameterIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException;
+
+        void setAsciiStream(int parameterIndex, InputStream x) throws SQLException;
+
+        void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException;
+
+        void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException;
+
+        void setBinaryStream(int parameterIndex, InputStream x) throws SQLException;
+
+        void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException;
+
+        void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException;
+
+        void setCharacterStream(int parameterIndex, Reader reader) throws SQLException;
+
+        void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException;
+
+        void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException;
+
+        void setNCharacterStream(int parameterIndex, Reader value) throws SQLException;
+
+        void setNCharacterStream(int parameterIndex, Reader value, long length) throws SQLException;
+
+        void setBlob(int parameterIndex, Blob x) throws SQLException;
+
+        void setBlob(int parameterIndex, InputStream inputStream) throws SQLException;
+
+        void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException;
+
+        void setClob(int parameterIndex, Clob x) throws SQLException;
+
+        void setClob(int parameterIndex, Reader reader) throws SQLException;
+
+        void setClob(int parameterIndex, Reader reader, long length) throws SQLException;
+
+        void setNClob(int parameterIndex, NClob value) throws SQLException;
+
+        void setNClob(int parameterIndex, Reader reader) throws SQLException;
+
+        void setNClob(int parameterIndex, Reader reader, long length) throws SQLException;
+
+        void setArray(int parameterIndex, Array x) throws SQLException;
+
+        void setRef(int parameterIndex, Ref x) throws SQLException;
+
+        void setRowId(int parameterIndex, RowId x) throws SQLException;
+
+        void setSQLXML(int parameterIndex, SQLXML xmlObject) throws SQLException;
 
         void clearParameters() throws SQLException;
 
@@ -0,0 +1,397 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.proxy.datasource;
+
+import com.adgadev.jplusone.core.proxy.StatementMetrics;
+import lombok.experimental.Delegate;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+
+/**
+ * Counts rows consumed from the result set and estimates size of values read from it. Collected values are
+ * recorded in {@link StatementMetrics} of the statement which produced the result set, when the result set is
+ * consumed or closed, so that plain fields are sufficient while the result set is being read. Failure to record
+ * them is logged and never affects reading or closing the result set.
+ */
+@Slf4j
+class ResultSetProxy implements ResultSet {
+
+    private static final int OBJECT_SIZE_ESTIMATE = 16;
+
+    @Delegate(excludes = ResultSetOverwrite.class)
+    private final ResultSet delegate;
+
+    private final Statement statement;
+
+    private final StatementMetrics statementMetrics;
+
+    private int rowsCount;
+
+    private long estimatedBytes;
+
+    ResultSetProxy(ResultSet delegate, Statement statement, StatementMetrics statementMetrics) {
+        this.delegate = delegate;
+        this.statement = statement;
+        this.statementMetrics = statementMetrics;
+    }
+
+    static ResultSet wrap(ResultSet resultSet, Statement statement, StatementMetrics statementMetrics) {
+        return resultSet != null && !(resultSet instanceof ResultSetProxy)
+                ? new ResultSetProxy(resultSet, statement, statementMetrics)
+                : resultSet;
+    }
+
+    @Override
+    public boolean next() throws SQLException {
+        boolean hasNext = delegate.next();
+
+        if (hasNext) {
+            rowsCount++;
+        } else {
+            recordMetrics();
+        }
+
+        return hasNext;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            recordMetrics();
+        } finally {
+            delegate.close();
+        }
+    }
+
+    @Override
+    public Statement getStatement() {
+        return statement;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return JdbcWrappers.unwrap(this, delegate, iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return JdbcWrappers.isWrapperFor(this, delegate, iface);
+    }
+
+    @Override
+    public String getString(int columnIndex) throws SQLException {
+        String value = delegate.getString(columnIndex);
+        estimatedBytes += value != null ? 2L * value.length() : 0;
+        return value;
+    }
+
+    @Override
+    public String getString(String columnLabel) throws SQLException {
+        String value = delegate.getString(columnLabel);
+        estimatedBytes += value != null ? 2L * value.length() : 0;
+        return value;
+    }
+
+    @Override
+    public byte[] getBytes(int columnIndex) throws SQLException {
+        byte[] value = delegate.getBytes(columnIndex);
+        estimatedBytes += value != null ? value.length : 0;
+        return value;
+    }
+
+    @Override
+    public byte[] getBytes(String columnLabel) throws SQLException {
+        byte[] value = delegate.getBytes(columnLabel);
+        estimatedBytes += value != null ? value.length : 0;
+        return value;
+    }
+
+    @Override
+    public boolean getBoolean(int columnIndex) throws SQLException {
+        boolean value = delegate.getBoolean(columnIndex);
+        estimatedBytes += 1;
+        return value;
+    }
+
+    @Override
+    public boolean getBoolean(String columnLabel) throws SQLException {
+        boolean value = delegate.getBoolean(columnLabel);
+        estimatedBytes += 1;
+        return value;
+    }
+
+    @Override
+    public byte getByte(int columnIndex) throws SQLException {
+        byte value = delegate.getByte(columnIndex);
+        estimatedBytes += 1;
+        return value;
+    }
+
+    @Override
+    public byte getByte(String columnLabel) throws SQLException {
+        byte value = delegate.getByte(columnLabel);
+        estimatedBytes += 1;
+        return value;
+    }
+
+    @Override
+    public short getShort(int columnIndex) throws SQLException {
+        short value = delegate.getShort(columnIndex);
+        estimatedBytes += 2;
+        return value;
+    }
+
+    @Override
+    public short getShort(String columnLabel) throws SQLException {
+        short value = delegate.getShort(columnLabel);
+        estimatedBytes += 2;
+        return value;
+    }
+
+    @Override
+    public int getInt(int columnIndex) throws SQLException {
+        int value = delegate.getInt(columnIndex);
+        estimatedBytes += 4;
+        return value;
+    }
+
+    @Override
+    public int getInt(String columnLabel) throws SQLException {
+        int value = delegate.getInt(columnLabel);
+        estimatedBytes += 4;
+        return value;
+    }
+
+    @Override
+    public long getLong(int columnIndex) throws SQLException {
+        long value = delegate.getLong(columnIndex);
+        estimatedBytes += 8;
+        return value;
+    }
+
+    @Override
+    public long getLong(String columnLabel) throws SQLException {
+        long value = delegate.getLong(columnLabel);
+        estimatedBytes += 8;
+        return value;
+    }
+
+    @Override
+    public float getFloat(int columnIndex) throws SQLException {
+        float value = delegate.getFloat(columnIndex);
+        estimatedBytes += 4;
+        return value;
+    }
+
+    @Override
+    public float getFloat(String columnLabel) throws SQLException {
+        float value = delegate.getFloat(columnLabel);
+        estimatedBytes += 4;
+        return value;
+    }
+
+    @Override
+    public double getDouble(int columnIndex) throws SQLException {
+        double value = delegate.getDouble(columnIndex);
+        estimatedBytes += 8;
+        return value;
+    }
+
+    @Override
+    public double getDouble(String columnLabel) throws SQLException {
+        double value = delegate.getDouble(columnLabel);
+        estimatedBytes += 8;
+        return value;
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
+        BigDecimal value = delegate.getBigDecimal(columnIndex);
+        estimatedBytes += estimateSize(value);
+        return value;
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(String columnLabel) throws SQLException {
+        BigDecimal value = delegate.getBigDecimal(columnLabel);
+        estimatedBytes += estimateSize(value);
+        return value;
+    }
+
+    @Override
+    public Date getDate(int columnIndex) throws SQLException {
+        Date value = delegate.getDate(columnIndex);
+        estimatedBytes += 8;
+        return value;
+    }
+
+    @Override
+    public Date getDate(String columnLabel) throws SQLException {
+        Date value = delegate.getDate(columnLabel);
+        estimatedBytes += 8;
+        return value;
+    }
+
+    @Override
+    public Time getTime(int columnIndex) throws SQLException {
+        Time value = delegate.getTime(columnIndex);
+        estimatedBytes += 8;
+        return value;
+    }
+
+    @Override
+    public Time getTime(String columnLabel) throws SQLException {
+        Time value = delegate.getTime(columnLabel);
+        estimatedBytes += 8;
+        return value;
+    }
+
+    @Override
+    public Timestamp getTimestamp(int columnIndex) throws SQLException {
+        Timestamp value = delegate.getTimestamp(columnIndex);
+        estimatedBytes += 8;
+        return value;
+    }
+
+    @Override
+    public Timestamp getTimestamp(String columnLabel) throws SQLException {
+        Timestamp value = delegate.getTimestamp(columnLabel);
+        estimatedBytes += 8;
+        return value;
+    }
+
+    @Override
+    public Object getObject(int columnIndex) throws SQLException {
+        Object value = delegate.getObject(columnIndex);
+        estimatedBytes += estimateSize(value);
+        return value;
+    }
+
+    @Override
+    public Object getObject(String columnLabel) throws SQLException {
+        Object value = delegate.getObject(columnLabel);
+        estimatedBytes += estimateSize(value);
+        return value;
+    }
+
+    private void recordMetrics() {
+        try {
+            int fetchSize = delegate.isClosed() ? 0 : delegate.getFetchSize();
+            statementMetrics.recordResultSet(rowsCount, fetchSize, estimatedBytes);
+        } catch (Exception e) {
+            log.warn("JPlusOne failed to record metrics of result set", e);
+        }
+    }
+
+    private static long estimateSize(BigDecimal value) {
+        return value != null ? (value.unscaledValue().bitLength() >> 3) + 1 + 4 : 0;
+    }
+
+    private static long estimateSize(Object value) {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof String) {
+            return 2L * ((String) value).length();
+        } else if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        } else if (value instanceof BigDecimal) {
+            return estimateSize((BigDecimal) value);
+        } else if (value instanceof Integer || value instanceof Float) {
+            return 4;
+        } else if (value instanceof Number || value instanceof java.util.Date) {
+            return 8;
+        } else {
+            return OBJECT_SIZE_ESTIMATE;
+        }
+    }
+
+    private interface ResultSetOverwrite {
+
+        boolean next() throws SQLException;
+
+        void close() throws SQLException;
+
+        Statement getStatement() throws SQLException;
+
+        <T> T unwrap(Class<T> iface) throws SQLException;
+
+        boolean isWrapperFor(Class<?> iface) throws SQLException;
+
+        String getString(int columnIndex) throws SQLException;
+
+        String getString(String columnLabel) throws SQLException;
+
+        byte[] getBytes(int columnIndex) throws SQLException;
+
+        byte[] getBytes(String columnLabel) throws SQLException;
+
+        boolean getBoolean(int columnIndex) throws SQLException;
+
+        boolean getBoolean(String columnLabel) throws SQLException;
+
+        byte getByte(int columnIndex) throws SQLException;
+
+        byte getByte(String columnLabel) throws SQLException;
+
+        short getShort(int columnIndex) throws SQLException;
+
+        short getShort(String columnLabel) throws SQLException;
+
+        int getInt(int columnIndex) throws SQLException;
+
+        int getInt(String columnLabel) throws SQLException;
+
+        long getLong(int columnIndex) throws SQLException;
+
+        long getLong(String columnLabel) throws SQLException;
+
+        float getFloat(int columnIndex) throws SQLException;
+
+        float getFloat(String columnLabel) throws SQLException;
+
+        double getDouble(int columnIndex) throws SQLException;
+
+        double getDouble(String columnLabel) throws SQLException;
+
+        BigDecimal getBigDecimal(int columnIndex) throws SQLException;
+
+        BigDecimal getBigDecimal(String columnLabel) throws SQLException;
+
+        Date getDate(int columnIndex) throws SQLException;
+
+        Date getDate(String columnLabel) throws SQLException;
+
+        Time getTime(int columnIndex) throws SQLException;
+
+        Time getTime(String columnLabel) throws SQLException;
+
+        Timestamp getTimestamp(int columnIndex) throws SQLException;
+
+        Timestamp getTimestamp(String columnLabel) throws SQLException;
+
+        Object getObject(int columnIndex) throws SQLException;
+
+        Object getObject(String columnLabel) throws SQLException;
+    }
+}
@@ -16,11 +16,14 @@
 
 package com.adgadev.jplusone.core.proxy.datasource;
 
+import com.adgadev.jplusone.core.proxy.Identifier;
+import com.adgadev.jplusone.core.proxy.SqlStatement;
 import com.adgadev.jplusone.core.proxy.StateListener;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.Delegate;
 import lombok.extern.slf4j.Slf4j;
 
+import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -34,86 +37,116 @@ class StatementProxy implements Statement {
     @Delegate(excludes = StatementOverwrite.class)
     private final Statement delegate;
 
+    private final Connection connection;
+
     private final StateListener stateListener;
 
+    private final Identifier entityManagerId;
+
     private final List<String> batchSql = new ArrayList<>();
 
+    private SqlStatement executedSqlStatement;
+
     @Override
     public boolean execute(String sql) throws SQLException {
-        stateListener.statementExecuted(sql);
-        return delegate.execute(sql);
+        SqlStatement sqlStatement = SqlStatement.of(sql);
+        executedSqlStatement = sqlStatement;
+        stateListener.statementExecuted(sqlStatement, entityManagerId);
+        return TimedExecution.execute(sqlStatement, () -> delegate.execute(sql));
     }
 
     @Override
     public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
-        stateListener.statementExecuted(sql);
-        return delegate.execute(sql, autoGeneratedKeys);
+        SqlStatement sqlStatement = SqlStatement.of(sql);
+        executedSqlStatement = sqlStatement;
+        stateListener.statementExecuted(sqlStatement, entityManagerId);
+        return TimedExecution.execute(sqlStatement, () -> delegate.execute(sql, autoGeneratedKeys));
     }
 
     @Override
     public boolean execute(String sql, int[] columnIndexes) throws SQLException {
-        stateListener.statementExecuted(sql);
-        return delegate.execute(sql, columnIndexes);
+        SqlStatement sqlStatement = SqlStatement.of(sql);
+        executedSqlStatement = sqlStatement;
+        stateListener.statementExecuted(sqlStatement, entityManagerId);
+        return TimedExecution.execute(sqlStatement, () -> delegate.execute(sql, columnIndexes));
     }
 
     @Override
     public boolean execute(String sql, String[] columnNames) throws SQLException {
-        stateListener.statementExecuted(sql);
-        return delegate.execute(sql, columnNames);
+        SqlStatement sqlStatement = SqlStatement.of(sql);
+        executedSqlStatement = sqlStatement;
+        stateListener.statementExecuted(sqlStatement, entityManagerId);
+        return TimedExecution.execute(sqlStatement, () -> delegate.execute(sql, columnNames));
     }
 
     @Override
     public ResultSet executeQuery(String sql) throws SQLException {
-        stateListener.statementExecuted(sql);
-        return delegate.executeQuery(sql);
+        SqlStatement sqlStatement = SqlStatement.of(sql);
+        stateListener.statementExecuted(sqlStatement, entityManagerId);
+        ResultSet resultSet = TimedExecution.execute(sqlStatement, () -> delegate.executeQuery(sql));
+        return ResultSetProxy.wrap(resultSet, this, sqlStatement.getMetrics());
     }
 
     @Override
     public int executeUpdate(String sql) throws SQLException {
-        stateListener.statementExecuted(sql);
-        return delegate.executeUpdate(sql);
+        SqlStatement sqlStatement = SqlStatement.of(sql);
+        stateListener.statementExecuted(sqlStatement, entityManagerId);
+        return TimedExecution.execute(sqlStatement, () -> delegate.executeUpdate(sql));
     }
 
     @Override
     public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
-        stateListener.statementExecuted(sql);
-        return delegate.executeUpdate(sql, autoGeneratedKeys);
+        SqlStatement sqlStatement = SqlStatement.of(sql);
+        stateListener.statementExecuted(sqlStatement, entityManagerId);
+        return TimedExecution.execute(sqlStatement, () -> delegate.executeUpdate(sql, autoGeneratedKeys));
     }
 
     @Override
     public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
-        stateListener.statementExecuted(sql);
-        return delegate.executeUpdate(sql, columnIndexes);
+        SqlStatement sqlStatement = SqlStatement.of(sql);
+        stateListener.statementExecuted(sqlStatement, entityManagerId);
+        return TimedExecution.execute(sqlStatement, () -> delegate.executeUpdate(sql, columnIndexes));
     }
 
     @Override
     public int executeUpdate(String sql, String[] columnNames) throws SQLException {
-        stateListener.statementExecuted(sql);
-        return delegate.executeUpdate(sql, columnNames);
+        SqlStatement sqlStatement = SqlStatement.of(sql);
+        stateListener.statementExecuted(sqlStatement, entityManagerId);
+        return TimedExecution.execute(sqlStatement, () -> delegate.executeUpdate(sql, columnNames));
     }
 
     @Override
     public long executeLargeUpdate(String sql) throws SQLException {
-        stateListener.statementExecuted(sql);
-        return delegate.executeLargeUpdate(sql);
+        SqlStatement sqlStatement = SqlStatement.of(sql);
+        stateListener.statementExecuted(sqlStatement, entityManagerId);
+        return TimedExecution.execute(sqlStatement, () -> delegate.executeLargeUpdate(sql));
     }
 
     @Override
     public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
-        stateListener.statementExecuted(sql);
-        return delegate.executeLargeUpdate(sql, autoGeneratedKeys);
+        SqlStatement sqlStatement = SqlStatement.of(sql);
+        stateListener.statementExecuted(sqlStatement, entityManagerId);
+        return TimedExecution.execute(sqlStatement, () -> delegate.executeLargeUpdate(sql, autoGeneratedKeys));
     }
 
     @Override
     public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
-        stateListener.statementExecuted(sql);
-        return delegate.executeLargeUpdate(sql, columnIndexes);
+        SqlStatement sqlStatement = SqlStatement.of(sql);
+        stateListener.statementExecuted(sqlStatement, entityManagerId);
+        return TimedExecution.execute(sqlStatement, () -> delegate.executeLargeUpdate(sql, columnIndexes));
     }
 
     @Override
     public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
-        stateListener.statementExecuted(sql);
-        return delegate.executeLargeUpdate(sql, columnNames);
+        SqlStatement sqlStatement = SqlStatement.of(sql);
+        stateListener.statementExecuted(sqlStatement, entityManagerId);
+        return TimedExecution.execute(sqlStatement, () -> delegate.executeLargeUpdate(sql, columnNames));
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        ResultSet resultSet = delegate.getResultSet();
+        return executedSqlStatement != null ? ResultSetProxy.wrap(resultSet, this, executedSqlStatement.getMetrics()) : resultSet;
     }
 
     @Override
@@ -130,20 +163,57 @@ class StatementProxy implements Statement {
 
     @Override
     public int[] executeBatch() throws SQLException {
-        batchSql.forEach(stateListener::statementExecuted);
-        return delegate.executeBatch();
+        List<SqlStatement> sqlStatements = trackBatchExecution();
+        return TimedExecution.executeBatch(sqlStatements, delegate::executeBatch);
     }
 
     @Override
     public long[] executeLargeBatch() throws SQLException {
-        batchSql.forEach(stateListener::statementExecuted);
-        return delegate.executeLargeBatch();
+        List<SqlStatement> sqlStatements = trackBatchExecution();
+        return TimedExecution.executeBatch(sqlStatements, delegate::executeLargeBatch);
+    }
+
+    @Override
+    public Connection getConnection() {
+        return connection;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return JdbcWrappers.unwrap(this, delegate, iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return JdbcWrappers.isWrapperFor(this, delegate, iface);
+    }
+
+    /**
+     * Consecutive identical SQL statements added to the batch are tracked as a single batched statement.
+     */
+    private List<SqlStatement> trackBatchExecution() {
+        List<SqlStatement> sqlStatements = new ArrayList<>();
+        int runStart = 0;
+
+        for (int i = 1; i <= batchSql.size(); i++) {
+            if (i == batchSql.size() || !batchSql.get(i).equals(batchSql.get(runStart))) {
+                sqlStatements.add(SqlStatement.ofBatch(batchSql.get(runStart), i - runStart));
+                runStart = i;
+            }
+        }
+
+        batchSql.clear();
+        executedSqlStatement = null;
+        sqlStatements.forEach(sqlStatement -> stateListener.statementExecuted(sqlStatement, entityManagerId));
+        return sqlStatements;
     }
 
     private interface StatementOverwrite {
 
         ResultSet executeQuery(String sql) throws SQLException;
 
+        ResultSet getResultSet() throws SQLException;
+
         boolean execute(String sql) throws SQLException;
 
         boolean execute(String sql, int autoGeneratedKeys) throws SQLException;
@@ -176,5 +246,11 @@ class StatementProxy implements Statement {
 
         long[] executeLargeBatch() throws SQLException;
 
+        Connection getConnection() throws SQLException;
+
+        <T> T unwrap(Class<T> iface) throws SQLException;
+
+        boolean isWrapperFor(Class<?> iface) throws SQLException;
+
     }
 }
\ No newline at end of file
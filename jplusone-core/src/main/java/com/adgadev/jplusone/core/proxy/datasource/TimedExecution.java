@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.proxy.datasource;
+
+import com.adgadev.jplusone.core.proxy.SqlStatement;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Executes JDBC calls measuring their execution time, which is recorded in metrics of executed statements,
+ * also when the call fails.
+ */
+final class TimedExecution {
+
+    @FunctionalInterface
+    interface JdbcCall<T> {
+
+        T execute() throws SQLException;
+    }
+
+    private TimedExecution() {
+    }
+
+    static <T> T execute(SqlStatement sqlStatement, JdbcCall<T> call) throws SQLException {
+        long start = System.nanoTime();
+
+        try {
+            return call.execute();
+        } finally {
+            sqlStatement.getMetrics().recordExecutionTime(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Execution time of the whole batch is split evenly between all statements of the batch.
+     */
+    static <T> T executeBatch(List<SqlStatement> sqlStatements, JdbcCall<T> call) throws SQLException {
+        long start = System.nanoTime();
+
+        try {
+            return call.execute();
+        } finally {
+            if (!sqlStatements.isEmpty()) {
+                long executionTimeNanos = (System.nanoTime() - start) / sqlStatements.size();
+                sqlStatements.forEach(sqlStatement -> sqlStatement.getMetrics().recordExecutionTime(executionTimeNanos));
+            }
+        }
+    }
+}
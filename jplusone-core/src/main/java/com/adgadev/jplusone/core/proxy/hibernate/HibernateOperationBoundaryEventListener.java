@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.proxy.hibernate;
+
+import com.adgadev.jplusone.core.registry.OperationType;
+import com.adgadev.jplusone.core.tracking.OperationTypeTracker;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.HibernateException;
+import org.hibernate.event.service.spi.EventListenerGroup;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEvent;
+import org.hibernate.event.spi.LoadEventListener;
+import org.hibernate.internal.SessionFactoryImpl;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Marks boundaries of operations performed by hibernate (lazy initialisation of collections and proxies, flush)
+ * in {@link OperationTypeTracker}. Listeners of each event group are replaced by a single listener delegating
+ * to them, which enters the operation before and exits it after the delegates are invoked, also when one of them
+ * throws, so that the operation depth stays balanced. Listeners appended to the groups afterwards are not wrapped,
+ * hence it has to be created after {@link HibernateCollectionInitialisationEventListener}.
+ */
+public class HibernateOperationBoundaryEventListener {
+
+    public HibernateOperationBoundaryEventListener(EntityManagerFactory entityManagerFactory, OperationTypeTracker operationTypeTracker) {
+        SessionFactoryImpl sessionFactory = entityManagerFactory.unwrap(SessionFactoryImpl.class);
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+
+        wrapListeners(registry.getEventListenerGroup(EventType.INIT_COLLECTION),
+                listeners -> new InitializeCollectionBoundaryListener(listeners, operationTypeTracker));
+        wrapListeners(registry.getEventListenerGroup(EventType.LOAD),
+                listeners -> new LoadBoundaryListener(listeners, operationTypeTracker));
+        wrapListeners(registry.getEventListenerGroup(EventType.FLUSH),
+                listeners -> new FlushBoundaryListener(listeners, operationTypeTracker));
+    }
+
+    // EventListenerGroup.listeners() is deprecated since hibernate 5.3, but kept for compatibility with hibernate 5.2
+    @SuppressWarnings("deprecation")
+    private static <T> void wrapListeners(EventListenerGroup<T> group, Function<List<T>, T> boundaryListenerFactory) {
+        List<T> listeners = new ArrayList<>();
+        group.listeners().forEach(listeners::add);
+        group.clear();
+        group.appendListener(boundaryListenerFactory.apply(listeners));
+    }
+
+    private static boolean isProxyInitialisation(LoadEventListener.LoadType loadType) {
+        return loadType == LoadEventListener.IMMEDIATE_LOAD;
+    }
+
+    @RequiredArgsConstructor
+    static class InitializeCollectionBoundaryListener implements InitializeCollectionEventListener {
+
+        private final List<InitializeCollectionEventListener> delegates;
+
+        private final OperationTypeTracker operationTypeTracker;
+
+        @Override
+        public void onInitializeCollection(InitializeCollectionEvent event) throws HibernateException {
+            operationTypeTracker.enter(OperationType.IMPLICIT);
+
+            try {
+                for (InitializeCollectionEventListener delegate : delegates) {
+                    delegate.onInitializeCollection(event);
+                }
+            } finally {
+                operationTypeTracker.exit(OperationType.IMPLICIT);
+            }
+        }
+    }
+
+    @RequiredArgsConstructor
+    static class LoadBoundaryListener implements LoadEventListener {
+
+        private final List<LoadEventListener> delegates;
+
+        private final OperationTypeTracker operationTypeTracker;
+
+        @Override
+        public void onLoad(LoadEvent event, LoadType loadType) throws HibernateException {
+            if (!isProxyInitialisation(loadType)) {
+                invokeDelegates(event, loadType);
+                return;
+            }
+
+            operationTypeTracker.enter(OperationType.IMPLICIT);
+
+            try {
+                invokeDelegates(event, loadType);
+            } finally {
+                operationTypeTracker.exit(OperationType.IMPLICIT);
+            }
+        }
+
+        private void invokeDelegates(LoadEvent event, LoadType loadType) {
+            for (LoadEventListener delegate : delegates) {
+                delegate.onLoad(event, loadType);
+            }
+        }
+    }
+
+    @RequiredArgsConstructor
+    static class FlushBoundaryListener implements FlushEventListener {
+
+        private final List<FlushEventListener> delegates;
+
+        private final OperationTypeTracker operationTypeTracker;
+
+        @Override
+        public void onFlush(FlushEvent event) throws HibernateException {
+            operationTypeTracker.enter(OperationType.COMMIT);
+
+            try {
+                for (FlushEventListener delegate : delegates) {
+                    delegate.onFlush(event);
+                }
+            } finally {
+                operationTypeTracker.exit(OperationType.COMMIT);
+            }
+        }
+    }
+}
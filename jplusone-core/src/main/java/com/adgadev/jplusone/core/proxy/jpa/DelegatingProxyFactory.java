@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.adgadev.jplusone.core.proxy.jpa;
+
+import org.springframework.cglib.proxy.Callback;
+import org.springframework.cglib.proxy.Dispatcher;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.Factory;
+import org.springframework.cglib.proxy.MethodInterceptor;
+import org.springframework.cglib.proxy.NoOp;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+
+/**
+ * Creates cglib proxies delegating to a target object and implementing all its interfaces, as JPA provider specific
+ * interfaces (i.e. hibernate's Session) are accessed by Spring via proxied objects too. Interceptor of each method
+ * is resolved by its name once, when proxy class is generated, methods which aren't intercepted are dispatched
+ * straight to the target, so neither reflective invocation nor check of method name happens per call. Proxies are
+ * equal only to themselves.
+ *
+ * Proxy class is generated once per target class. Prototypes of proxies are cached in {@link ClassValue}, so that
+ * classes of redeployed applications are not retained by the cache.
+ */
+class DelegatingProxyFactory {
+
+    static final int DISPATCH_TO_TARGET = -1;
+
+    private static final int DISPATCHER_INDEX = 0;
+
+    private static final int IDENTITY_INDEX = 1;
+
+    private static final int FIRST_INTERCEPTOR_INDEX = 2;
+
+    private final ClassValue<Factory> proxyPrototypes = new ClassValue<>() {
+        @Override
+        protected Factory computeValue(Class<?> clazz) {
+            return createProxyPrototype(clazz);
+        }
+    };
+
+    private final int interceptorsCount;
+
+    private final ToIntFunction<String> interceptorIndexResolver;
+
+    /**
+     * @param interceptorIndexResolver resolves index of interceptor, passed to {@link #createProxy}, handling method
+     *                                 of given name, or {@link #DISPATCH_TO_TARGET} if method is not intercepted
+     */
+    DelegatingProxyFactory(int interceptorsCount, ToIntFunction<String> interceptorIndexResolver) {
+        this.interceptorsCount = interceptorsCount;
+        this.interceptorIndexResolver = interceptorIndexResolver;
+    }
+
+    @SuppressWarnings("unchecked")
+    <P> P createProxy(Object target, MethodInterceptor... interceptors) {
+        Dispatcher dispatcher = () -> target;
+        return (P) proxyPrototypes.get(target.getClass()).newInstance(callbacks(dispatcher, interceptors));
+    }
+
+    private Factory createProxyPrototype(Class<?> targetClass) {
+        MethodInterceptor[] interceptors = new MethodInterceptor[interceptorsCount];
+        Arrays.fill(interceptors, (MethodInterceptor) (proxy, method, args, methodProxy) -> null);
+
+        Enhancer enhancer = new Enhancer();
+        enhancer.setClassLoader(targetClass.getClassLoader());
+        enhancer.setInterfaces(ClassUtils.getAllInterfacesForClass(targetClass, targetClass.getClassLoader()));
+        enhancer.setCallbackFilter(this::resolveCallbackIndex);
+        // callbacks of the prototype are never invoked, proxies are created by the prototype with their own callbacks
+        enhancer.setCallbacks(callbacks(() -> null, interceptors));
+        return (Factory) enhancer.create();
+    }
+
+    private Callback[] callbacks(Dispatcher dispatcher, MethodInterceptor[] interceptors) {
+        Callback[] callbacks = new Callback[FIRST_INTERCEPTOR_INDEX + interceptors.length];
+        callbacks[DISPATCHER_INDEX] = dispatcher;
+        callbacks[IDENTITY_INDEX] = NoOp.INSTANCE;
+        System.arraycopy(interceptors, 0, callbacks, FIRST_INTERCEPTOR_INDEX, interceptors.length);
+        return callbacks;
+    }
+
+    private int resolveCallbackIndex(Method method) {
+        if (isEquals(method) || isHashCode(method)) {
+            return IDENTITY_INDEX;
+        }
+
+        int interceptorIndex = interceptorIndexResolver.applyAsInt(method.getName());
+        return interceptorIndex == DISPATCH_TO_TARGET ? DISPATCHER_INDEX : FIRST_INTERCEPTOR_INDEX + interceptorIndex;
+    }
+
+    private static boolean isEquals(Method method) {
+        return method.getName().equals("equals") && method.getParameterCount() == 1 && method.getParameterTypes()[0] == Object.class;
+    }
+
+    private static boolean isHashCode(Method method) {
+        return method.getName().equals("hashCode") && method.getParameterCount() == 0;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.proxy.jpa;
+
+import com.adgadev.jplusone.core.proxy.Identifier;
+import com.adgadev.jplusone.core.proxy.StateListener;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cglib.proxy.MethodProxy;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.lang.reflect.Method;
+
+@Slf4j
+public class EntityManagerFactoryProxyFactory {
+
+    private static final int CREATE_ENTITY_MANAGER_INTERCEPTOR = 0;
+
+    private static final int GET_NATIVE_ENTITY_MANAGER_FACTORY_INTERCEPTOR = 1;
+
+    private static final DelegatingProxyFactory PROXY_FACTORY =
+            new DelegatingProxyFactory(2, EntityManagerFactoryProxyFactory::resolveInterceptor);
+
+    public static EntityManagerFactory createProxy(EntityManagerFactory target, StateListener stateListener) {
+        // proxy is needed to enhance EntityManagerFactory with interface EntityManagerFactoryInfo
+        EntityManagerFactoryInterceptors interceptors = new EntityManagerFactoryInterceptors(target, stateListener);
+        return PROXY_FACTORY.createProxy(target, interceptors::createEntityManager, interceptors::getNativeEntityManagerFactory);
+    }
+
+    private static int resolveInterceptor(String methodName) {
+        switch (methodName) {
+            case "createEntityManager":
+                return CREATE_ENTITY_MANAGER_INTERCEPTOR;
+            case "getNativeEntityManagerFactory":
+                return GET_NATIVE_ENTITY_MANAGER_FACTORY_INTERCEPTOR;
+            default:
+                return DelegatingProxyFactory.DISPATCH_TO_TARGET;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class EntityManagerFactoryInterceptors {
+
+        private final EntityManagerFactory target;
+
+        private final StateListener stateListener;
+
+        Object createEntityManager(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
+            log.trace("Returning wrapped entityManager");
+            return wrapEntityManager((EntityManager) methodProxy.invoke(target, args));
+        }
+
+        Object getNativeEntityManagerFactory(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
+            log.trace("Returning wrapped nativeEntityManagerFactory");
+            return wrapEntityManagerFactory((EntityManagerFactory) methodProxy.invoke(target, args));
+        }
+
+        private EntityManager wrapEntityManager(EntityManager entityManager) {
+            Identifier entityManagerIdentifier = Identifier.nextEntityManagerIdentifier();
+            log.trace("EntityManager {} is associated with object {}", entityManagerIdentifier.toString(), entityManager.toString());
+            EntityManager entityManagerProxy = EntityManagerProxyFactory.createProxy(entityManager, stateListener, entityManagerIdentifier);
+            stateListener.entityManagerCreated(entityManagerIdentifier);
+            return entityManagerProxy;
+        }
+
+        private EntityManagerFactory wrapEntityManagerFactory(EntityManagerFactory entityManagerFactory) {
+            return EntityManagerFactoryProxyFactory.createProxy(entityManagerFactory, stateListener);
+        }
+    }
+}
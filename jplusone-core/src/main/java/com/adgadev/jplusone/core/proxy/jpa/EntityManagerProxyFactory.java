@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.proxy.jpa;
+
+import com.adgadev.jplusone.core.proxy.Identifier;
+import com.adgadev.jplusone.core.proxy.StateListener;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cglib.proxy.MethodProxy;
+import org.springframework.util.ClassUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+import java.lang.reflect.Method;
+
+/**
+ * Proxies entity manager, so that its closing and commits of its transactions are reported to {@link StateListener},
+ * and it's marked as {@link InvokedEntityManager invoked} during calls which may acquire JDBC connection. Methods
+ * which never access the database are dispatched straight to the entity manager.
+ */
+@Slf4j
+public class EntityManagerProxyFactory {
+
+    private static final boolean SPRING_TRANSACTIONS_PRESENT = ClassUtils.isPresent(
+            "org.springframework.transaction.support.TransactionSynchronizationManager", EntityManagerProxyFactory.class.getClassLoader());
+
+    private static final int CLOSE_INTERCEPTOR = 0;
+
+    private static final int GET_TRANSACTION_INTERCEPTOR = 1;
+
+    private static final int INVOCATION_INTERCEPTOR = 2;
+
+    private static final int BEGIN_INTERCEPTOR = 0;
+
+    private static final int COMMIT_INTERCEPTOR = 1;
+
+    private static final DelegatingProxyFactory ENTITY_MANAGER_PROXY_FACTORY =
+            new DelegatingProxyFactory(3, EntityManagerProxyFactory::resolveEntityManagerInterceptor);
+
+    private static final DelegatingProxyFactory TRANSACTION_PROXY_FACTORY =
+            new DelegatingProxyFactory(2, EntityManagerProxyFactory::resolveTransactionInterceptor);
+
+    public static EntityManager createProxy(EntityManager target, StateListener stateListener, Identifier identifier) {
+        if (SPRING_TRANSACTIONS_PRESENT) {
+            TransactionCommitSynchronization.registerIfActive(stateListener, identifier);
+        }
+
+        EntityManagerInterceptors interceptors = new EntityManagerInterceptors(target, stateListener, identifier);
+        return ENTITY_MANAGER_PROXY_FACTORY.createProxy(target, interceptors::close, interceptors::getTransaction, interceptors::invoke);
+    }
+
+    private static int resolveEntityManagerInterceptor(String methodName) {
+        switch (methodName) {
+            case "close":
+                return CLOSE_INTERCEPTOR;
+            case "getTransaction":
+                return GET_TRANSACTION_INTERCEPTOR;
+            case "isOpen":
+            case "isJoinedToTransaction":
+            case "contains":
+            case "getDelegate":
+            case "unwrap":
+            case "getProperties":
+            case "setProperty":
+            case "getFlushMode":
+            case "setFlushMode":
+            case "getCriteriaBuilder":
+            case "getMetamodel":
+            case "getEntityManagerFactory":
+            case "createEntityGraph":
+            case "getEntityGraph":
+            case "getEntityGraphs":
+            case "toString":
+                return DelegatingProxyFactory.DISPATCH_TO_TARGET;
+            default:
+                return INVOCATION_INTERCEPTOR;
+        }
+    }
+
+    private static int resolveTransactionInterceptor(String methodName) {
+        switch (methodName) {
+            case "begin":
+                return BEGIN_INTERCEPTOR;
+            case "commit":
+                return COMMIT_INTERCEPTOR;
+            default:
+                return DelegatingProxyFactory.DISPATCH_TO_TARGET;
+        }
+    }
+
+    private static Object invokeMarked(Object target, Identifier identifier, Object[] args, MethodProxy methodProxy) throws Throwable {
+        Identifier previousEntityManagerId = InvokedEntityManager.push(identifier);
+
+        try {
+            return methodProxy.invoke(target, args);
+        } finally {
+            InvokedEntityManager.pop(previousEntityManagerId);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class EntityManagerInterceptors {
+
+        private final EntityManager target;
+
+        private final StateListener stateListener;
+
+        private final Identifier identifier;
+
+        private EntityTransaction transaction;
+
+        private EntityTransaction transactionProxy;
+
+        Object close(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
+            Object result = methodProxy.invoke(target, args);
+            stateListener.entityManagerClosed(identifier);
+            return result;
+        }
+
+        Object getTransaction(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
+            return wrapTransaction((EntityTransaction) methodProxy.invoke(target, args));
+        }
+
+        Object invoke(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
+            return invokeMarked(target, identifier, args, methodProxy);
+        }
+
+        private EntityTransaction wrapTransaction(EntityTransaction transaction) {
+            if (transaction != this.transaction) {
+                EntityTransactionInterceptors interceptors = new EntityTransactionInterceptors(transaction, stateListener, identifier);
+                this.transactionProxy = TRANSACTION_PROXY_FACTORY.createProxy(transaction, interceptors::begin, interceptors::commit);
+                this.transaction = transaction;
+            }
+
+            return transactionProxy;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class EntityTransactionInterceptors {
+
+        private final EntityTransaction target;
+
+        private final StateListener stateListener;
+
+        private final Identifier identifier;
+
+        Object begin(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
+            return invokeMarked(target, identifier, args, methodProxy);
+        }
+
+        Object commit(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
+            stateListener.transactionCommitStarted(identifier);
+
+            try {
+                return invokeMarked(target, identifier, args, methodProxy);
+            } finally {
+                stateListener.transactionCommitFinished(identifier);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.adgadev.jplusone.core.proxy.jpa;
+
+import com.adgadev.jplusone.core.proxy.Identifier;
+
+/**
+ * Entity manager being invoked on current thread via its proxy, so that connection acquired during the invocation
+ * is attributed to it, regardless of the thread on which the entity manager has been created. Entity managers
+ * invoked by other entity managers' invocations are stacked, previous one is restored when the invocation ends.
+ */
+public final class InvokedEntityManager {
+
+    private static final ThreadLocal<Identifier> INVOKED_ENTITY_MANAGER = new ThreadLocal<>();
+
+    private InvokedEntityManager() {
+    }
+
+    /**
+     * @return identifier of entity manager being invoked on current thread, or null if none is invoked
+     */
+    public static Identifier current() {
+        return INVOKED_ENTITY_MANAGER.get();
+    }
+
+    /**
+     * @return identifier of previously invoked entity manager, which has to be passed to {@link #pop(Identifier)}
+     */
+    static Identifier push(Identifier entityManagerId) {
+        Identifier previousEntityManagerId = INVOKED_ENTITY_MANAGER.get();
+        INVOKED_ENTITY_MANAGER.set(entityManagerId);
+        return previousEntityManagerId;
+    }
+
+    static void pop(Identifier previousEntityManagerId) {
+        if (previousEntityManagerId != null) {
+            INVOKED_ENTITY_MANAGER.set(previousEntityManagerId);
+        } else {
+            INVOKED_ENTITY_MANAGER.remove();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.proxy.jpa;
+
+import com.adgadev.jplusone.core.proxy.Identifier;
+import com.adgadev.jplusone.core.proxy.StateListener;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Marks commit of Spring managed transaction in which entity manager has been created, for transactions which
+ * are not committed via {@link javax.persistence.EntityTransaction}, i.e. JTA transactions, where hibernate flushes
+ * the session before completion of the transaction. Commit is marked from {@link #beforeCommit(boolean)}
+ * until {@link #afterCommit()}, or until completion of the transaction if it's rolled back.
+ */
+@RequiredArgsConstructor
+class TransactionCommitSynchronization extends TransactionSynchronizationAdapter {
+
+    private final StateListener stateListener;
+
+    private final Identifier identifier;
+
+    private boolean commitStarted;
+
+    static void registerIfActive(StateListener stateListener, Identifier identifier) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionCommitSynchronization(stateListener, identifier));
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        // commit must be marked before other synchronizations, i.e. the one flushing transactional entity manager
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public void beforeCommit(boolean readOnly) {
+        commitStarted = true;
+        stateListener.transactionCommitStarted(identifier);
+    }
+
+    @Override
+    public void afterCommit() {
+        // invoked before after commit callbacks of other synchronizations, i.e. AFTER_COMMIT transactional event
+        // listeners, so that statements they execute are not considered part of the commit
+        finishCommit();
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+        // after commit callback is not invoked if commit fails, i.e. when transaction is rolled back by flush failure
+        if (status != STATUS_COMMITTED) {
+            finishCommit();
+        }
+    }
+
+    private void finishCommit() {
+        if (commitStarted) {
+            commitStarted = false;
+            stateListener.transactionCommitFinished(identifier);
+        }
+    }
+}
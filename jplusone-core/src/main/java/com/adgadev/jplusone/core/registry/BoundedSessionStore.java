@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.registry;
+
+import lombok.RequiredArgsConstructor;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Session store keeping the most recently closed sessions only. Sessions are evicted, oldest first,
+ * when amount of stored sessions exceeds the limit or when they are stored longer than time-to-live.
+ * Limit or time-to-live equal to zero means no limit.
+ *
+ * Store is lock-free, sessions can be added by many threads while others read them. Returned list of sessions
+ * is an immutable snapshot, in order in which sessions were added.
+ */
+public class BoundedSessionStore implements SessionStore {
+
+    private final int maxSessions;
+
+    private final Duration timeToLive;
+
+    private final SessionRetentionMode retentionMode;
+
+    private final Clock clock;
+
+    private final Deque<StoredSession> sessions = new ConcurrentLinkedDeque<>();
+
+    private final AtomicInteger sessionsCount = new AtomicInteger();
+
+    private final LongAdder evictedSessionsCount = new LongAdder();
+
+    private final LongAdder rejectedSessionsCount = new LongAdder();
+
+    public BoundedSessionStore(int maxSessions, Duration timeToLive, SessionRetentionMode retentionMode) {
+        this(maxSessions, timeToLive, retentionMode, Clock.systemUTC());
+    }
+
+    BoundedSessionStore(int maxSessions, Duration timeToLive, SessionRetentionMode retentionMode, Clock clock) {
+        this.maxSessions = maxSessions > 0 ? maxSessions : Integer.MAX_VALUE;
+        this.timeToLive = timeToLive != null && !timeToLive.isZero() && !timeToLive.isNegative() ? timeToLive : null;
+        this.retentionMode = retentionMode;
+        this.clock = clock;
+    }
+
+    @Override
+    public void add(SessionNode session) {
+        if (!retentionMode.isRetained(session)) {
+            rejectedSessionsCount.increment();
+            return;
+        }
+
+        Instant now = clock.instant();
+        evictExpiredSessions(now);
+
+        sessions.addLast(new StoredSession(session, now));
+
+        if (sessionsCount.incrementAndGet() > maxSessions) {
+            evictOldestSession();
+        }
+    }
+
+    @Override
+    public List<SessionNode> getSessions() {
+        evictExpiredSessions(clock.instant());
+
+        List<SessionNode> snapshot = new ArrayList<>(Math.max(sessionsCount.get(), 0));
+
+        for (StoredSession storedSession : sessions) {
+            snapshot.add(storedSession.session);
+        }
+
+        return Collections.unmodifiableList(snapshot);
+    }
+
+    @Override
+    public long getEvictedSessionsCount() {
+        return evictedSessionsCount.sum();
+    }
+
+    @Override
+    public long getRejectedSessionsCount() {
+        return rejectedSessionsCount.sum();
+    }
+
+    private void evictOldestSession() {
+        if (sessions.pollFirst() != null) {
+            sessionsCount.decrementAndGet();
+            evictedSessionsCount.increment();
+        }
+    }
+
+    private void evictExpiredSessions(Instant now) {
+        if (timeToLive != null) {
+            Instant expirationThreshold = now.minus(timeToLive);
+            StoredSession oldestSession;
+
+            while ((oldestSession = sessions.peekFirst()) != null
+                    && oldestSession.storedAt.isBefore(expirationThreshold)
+                    && sessions.removeFirstOccurrence(oldestSession)) {
+                sessionsCount.decrementAndGet();
+                evictedSessionsCount.increment();
+            }
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class StoredSession {
+
+        private final SessionNode session;
+
+        private final Instant storedAt;
+    }
+}
@@ -17,68 +17,112 @@
 package com.adgadev.jplusone.core.registry;
 
 import com.adgadev.jplusone.core.frame.FrameExtract;
-import lombok.EqualsAndHashCode;
-import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.ListIterator;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
+/**
+ * Immutable call frame stack, represented as a path between two nodes of the {@link FrameStackNode} trie:
+ * frames below the base node (exclusive) down to the leaf node (inclusive). Stacks interned in the same
+ * {@link FrameStackTrie} share the same nodes, so comparing them is a matter of comparing node references.
+ * Stacks from different tries are compared frame by frame.
+ */
 @Slf4j
-@Getter
-@EqualsAndHashCode
-@RequiredArgsConstructor
 public class FrameStack {
 
-    private final List<FrameExtract> callFrames;
+    private final FrameStackNode base;
+
+    private final FrameStackNode leaf;
+
+    private List<FrameExtract> callFrames;
+
+    private int hashCode;
+
+    /**
+     * Creates stack which doesn't share nodes with any other stack.
+     */
+    public FrameStack(List<FrameExtract> callFrames) {
+        this(FrameStackNode.newRoot(), callFrames);
+    }
+
+    private FrameStack(FrameStackNode root, List<FrameExtract> callFrames) {
+        this(root, root.intern(callFrames, new AtomicInteger()));
+    }
+
+    FrameStack(FrameStackNode base, FrameStackNode leaf) {
+        this.base = base;
+        this.leaf = leaf;
+    }
+
+    public List<FrameExtract> getCallFrames() {
+        List<FrameExtract> frames = callFrames;
+
+        if (frames == null) {
+            FrameExtract[] framesArray = new FrameExtract[size()];
+            FrameStackNode node = leaf;
+
+            for (int i = framesArray.length - 1; i >= 0; i--) {
+                framesArray[i] = node.getFrame();
+                node = node.getParent();
+            }
+
+            frames = Collections.unmodifiableList(Arrays.asList(framesArray));
+            callFrames = frames;
+        }
+
+        return frames;
+    }
+
+    public int size() {
+        return leaf.getDepth() - base.getDepth();
+    }
 
     public FrameStack intersect(FrameStack otherFramesStack) {
+        if (base == otherFramesStack.base) {
+            return new FrameStack(base, leaf.commonAncestor(otherFramesStack.leaf));
+        }
+
+        List<FrameExtract> frames = getCallFrames();
+        List<FrameExtract> otherFrames = otherFramesStack.getCallFrames();
         int endIndex = 0;
-        Iterator<FrameExtract> framesIterator = callFrames.iterator();
-        Iterator<FrameExtract> otherFramesIterator = otherFramesStack.callFrames.iterator();
 
-        while (framesIterator.hasNext() && otherFramesIterator.hasNext()
-                && Objects.equals(framesIterator.next(), otherFramesIterator.next())) {
+        while (endIndex < frames.size() && endIndex < otherFrames.size()
+                && frames.get(endIndex).equals(otherFrames.get(endIndex))) {
             endIndex++;
         }
 
-        return new FrameStack(callFrames.subList(0, endIndex));
+        return new FrameStack(base, leaf.ancestorAtDepth(base.getDepth() + endIndex));
     }
 
     public FrameStack subtract(FrameStack otherFramesStack) {
-        if (otherFramesStack.callFrames.size() > callFrames.size()) {
+        if (otherFramesStack.size() > size()) {
             return handleInvalidSubtraction(otherFramesStack);
         }
 
-        Iterator<FrameExtract> framesIterator = callFrames.iterator();
-        Iterator<FrameExtract> otherFramesIterator = otherFramesStack.callFrames.iterator();
+        if (base == otherFramesStack.base) {
+            return leaf.isDescendantOrSelfOf(otherFramesStack.leaf)
+                    ? new FrameStack(otherFramesStack.leaf, leaf)
+                    : handleInvalidSubtraction(otherFramesStack);
+        }
 
-        while (otherFramesIterator.hasNext()) {
-            FrameExtract frameExtract = framesIterator.next();
-            FrameExtract otherFrameExtract = otherFramesIterator.next();
+        List<FrameExtract> frames = getCallFrames();
+        List<FrameExtract> otherFrames = otherFramesStack.getCallFrames();
 
-            if (!frameExtract.equals(otherFrameExtract)) {
-                return handleInvalidSubtraction(otherFramesStack);
-            }
+        if (!frames.subList(0, otherFrames.size()).equals(otherFrames)) {
+            return handleInvalidSubtraction(otherFramesStack);
         }
 
-        List<FrameExtract> remainingFrames = new ArrayList<>(callFrames.size() - otherFramesStack.callFrames.size());
-        framesIterator.forEachRemaining(remainingFrames::add);
-
-        return new FrameStack(remainingFrames);
+        return new FrameStack(leaf.ancestorAtDepth(base.getDepth() + otherFrames.size()), leaf);
     }
 
     public Optional<FrameExtract> findLastMatchingFrame(Predicate<FrameExtract> predicate) {
-        ListIterator<FrameExtract> iterator = callFrames.listIterator(callFrames.size());
-
-        while (iterator.hasPrevious()) {
-            FrameExtract frame = iterator.previous();
+        for (FrameStackNode node = leaf; node != base; node = node.getParent()) {
+            FrameExtract frame = node.getFrame();
 
             if (predicate.test(frame)) {
                 return Optional.ofNullable(frame);
@@ -90,14 +134,14 @@ public class FrameStack {
 
     private FrameStack handleInvalidSubtraction(FrameStack otherFramesStack) {
         log.warn("Fail to subtract frame call stack from other frame call stack");
-        printStackTrace(callFrames, "Minuend");
-        printStackTrace(otherFramesStack.callFrames, "Subtrahend");
+        printStackTrace(getCallFrames(), "Minuend");
+        printStackTrace(otherFramesStack.getCallFrames(), "Subtrahend");
 
         return this;
     }
 
     public void printStackTrace(String description) {
-        printStackTrace(callFrames, description);
+        printStackTrace(getCallFrames(), description);
     }
 
     private void printStackTrace(List<FrameExtract> callFrames, String label) {
@@ -112,4 +156,32 @@ public class FrameStack {
         log.debug(builder.toString());
     }
 
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        } else if (!(object instanceof FrameStack)) {
+            return false;
+        }
+
+        FrameStack otherFrameStack = (FrameStack) object;
+
+        if (base == otherFrameStack.base) {
+            return leaf == otherFrameStack.leaf;
+        } else {
+            return size() == otherFrameStack.size() && getCallFrames().equals(otherFrameStack.getCallFrames());
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = hashCode;
+
+        if (hash == 0) {
+            hash = getCallFrames().hashCode();
+            hashCode = hash;
+        }
+
+        return hash;
+    }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.registry;
+
+import com.adgadev.jplusone.core.frame.FrameExtract;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Node of a trie of captured call frame stacks, ordered from the outermost frame. Within one trie identical stacks
+ * are represented by the very same node and stacks sharing a common prefix share the nodes of that prefix.
+ */
+@Getter(AccessLevel.PACKAGE)
+final class FrameStackNode {
+
+    private final FrameStackNode parent;
+
+    private final FrameExtract frame;
+
+    private final int depth;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<FrameExtract, FrameStackNode> children = new ConcurrentHashMap<>();
+
+    private FrameStackNode(FrameStackNode parent, FrameExtract frame) {
+        this.parent = parent;
+        this.frame = frame;
+        this.depth = parent != null ? parent.depth + 1 : 0;
+    }
+
+    static FrameStackNode newRoot() {
+        return new FrameStackNode(null, null);
+    }
+
+    /**
+     * @param createdNodesCount incremented by the number of nodes added to the trie
+     */
+    FrameStackNode intern(List<FrameExtract> callFrames, AtomicInteger createdNodesCount) {
+        FrameStackNode node = this;
+
+        for (FrameExtract frame : callFrames) {
+            node = node.child(frame, createdNodesCount);
+        }
+
+        return node;
+    }
+
+    boolean isDescendantOrSelfOf(FrameStackNode ancestor) {
+        return ancestor.depth <= depth && ancestorAtDepth(ancestor.depth) == ancestor;
+    }
+
+    FrameStackNode ancestorAtDepth(int ancestorDepth) {
+        FrameStackNode node = this;
+
+        while (node.depth > ancestorDepth) {
+            node = node.parent;
+        }
+
+        return node;
+    }
+
+    FrameStackNode commonAncestor(FrameStackNode other) {
+        FrameStackNode node = ancestorAtDepth(other.depth);
+        FrameStackNode otherNode = other.ancestorAtDepth(depth);
+
+        while (node != otherNode) {
+            node = node.parent;
+            otherNode = otherNode.parent;
+        }
+
+        return node;
+    }
+
+    private FrameStackNode child(FrameExtract frame, AtomicInteger createdNodesCount) {
+        FrameStackNode child = children.get(frame);
+
+        return child != null
+                ? child
+                : children.computeIfAbsent(frame, childFrame -> {
+                    createdNodesCount.incrementAndGet();
+                    return new FrameStackNode(this, childFrame);
+                });
+    }
+}
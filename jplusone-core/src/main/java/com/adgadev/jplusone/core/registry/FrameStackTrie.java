@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.registry;
+
+import com.adgadev.jplusone.core.frame.FrameExtract;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Trie in which captured call frame stacks are interned, so that identical stacks share nodes. Once the trie
+ * holds the max number of nodes it is replaced by an empty one. Nodes of the replaced trie remain reachable only
+ * from stacks of recorded sessions and are released together with them.
+ */
+public class FrameStackTrie {
+
+    public static final int DEFAULT_MAX_NODES = 65536;
+
+    private final int maxNodes;
+
+    private final AtomicInteger nodesCount = new AtomicInteger();
+
+    private volatile FrameStackNode root = FrameStackNode.newRoot();
+
+    public FrameStackTrie() {
+        this(DEFAULT_MAX_NODES);
+    }
+
+    public FrameStackTrie(int maxNodes) {
+        this.maxNodes = maxNodes;
+    }
+
+    public FrameStack intern(List<FrameExtract> callFrames) {
+        FrameStackNode currentRoot = root;
+
+        if (nodesCount.get() >= maxNodes) {
+            currentRoot = replaceRoot(currentRoot);
+        }
+
+        return new FrameStack(currentRoot, currentRoot.intern(callFrames, nodesCount));
+    }
+
+    private synchronized FrameStackNode replaceRoot(FrameStackNode fullRoot) {
+        if (root == fullRoot) {
+            root = FrameStackNode.newRoot();
+            nodesCount.set(0);
+        }
+
+        return root;
+    }
+}
@@ -17,6 +17,7 @@
 package com.adgadev.jplusone.core.registry;
 
 import com.adgadev.jplusone.core.frame.FrameExtract;
+import com.adgadev.jplusone.core.proxy.SqlStatement;
 import com.adgadev.jplusone.core.registry.LazyInitialisation.LazyInitialisationType;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
@@ -24,12 +25,15 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.persistence.Entity;
-import javax.persistence.EntityTransaction;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
 import static java.util.Objects.nonNull;
 
+/**
+ * Not thread-safe on its own, it's mutated only by owning {@link SessionNode}, which guards all its mutations.
+ */
 @Slf4j
 @Getter
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
@@ -43,9 +47,8 @@ public class OperationNode implements OperationNodeView {
 
     private List<LazyInitialisation> lazyInitialisations;
 
-    public OperationNode(FrameStack callFramesStack) {
+    public OperationNode(FrameStack callFramesStack, boolean transactionCommitOperation) {
         LazyInitialisation lazyInitialisation = resolveLazyInitialisationDetails(callFramesStack);
-        boolean transactionCommitOperation = isTransactionCommitOperation(callFramesStack);
 
         this.statements = new ArrayList<>();
         this.lazyInitialisations = new ArrayList<>();
@@ -57,9 +60,10 @@ public class OperationNode implements OperationNodeView {
         }
     }
 
-    void addStatement(String sql) {
+    StatementNode addStatement(SqlStatement sql) {
         StatementNode statement = StatementNode.fromSql(sql);
         statements.add(statement);
+        return statement;
     }
 
     void addLazyInitialisation(LazyInitialisation lazyInitialisation) {
@@ -80,6 +84,13 @@ public class OperationNode implements OperationNodeView {
         }
     }
 
+    @Override
+    public Duration getExecutionTime() {
+        return statements.stream()
+                .map(StatementNode::getExecutionTime)
+                .reduce(Duration.ZERO, Duration::plus);
+    }
+
     OperationNode close(FrameStack sessionFrameStack) {
         FrameStack operationSubFramesStack = callFramesStack.subtract(sessionFrameStack);
 
@@ -90,12 +101,6 @@ public class OperationNode implements OperationNodeView {
         return this.callFramesStack.equals(callFramesStack);
     }
 
-    private boolean isTransactionCommitOperation(FrameStack callFramesStack) {
-        // TODO: proxy EntityTransaction instead of walking whole frame stack toimprove performance
-        return callFramesStack.findLastMatchingFrame(frameExtract -> frameExtract.matchesMethodInvocation(EntityTransaction.class, "commit"))
-                .isPresent();
-    }
-
     private LazyInitialisation resolveLazyInitialisationDetails(FrameStack callFramesStack) {
         return callFramesStack.findLastMatchingFrame(FrameExtract::isNotThirdPartyClass)
                 .map(frameExtract -> frameExtract.getClazz())
@@ -16,6 +16,7 @@
 
 package com.adgadev.jplusone.core.registry;
 
+import java.time.Duration;
 import java.util.List;
 
 public interface OperationNodeView {
@@ -27,4 +28,6 @@ public interface OperationNodeView {
     OperationType getOperationType();
 
     List<LazyInitialisation> getLazyInitialisations();
+
+    Duration getExecutionTime();
 }
@@ -16,18 +16,49 @@
 
 package com.adgadev.jplusone.core.registry;
 
-import lombok.Getter;
-
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
-@Getter
+import static java.util.Collections.emptyList;
+
 public class RootNode implements RootNodeView {
 
-    private final List<SessionNode> sessions = new ArrayList<>();
+    private final SessionStore sessionStore;
+
+    private final List<RecordedSessionListener> recordedSessionListeners;
+
+    public RootNode() {
+        this(new BoundedSessionStore(0, Duration.ZERO, SessionRetentionMode.ALL_SESSIONS));
+    }
+
+    public RootNode(SessionStore sessionStore) {
+        this(sessionStore, emptyList());
+    }
+
+    public RootNode(SessionStore sessionStore, List<RecordedSessionListener> recordedSessionListeners) {
+        this.sessionStore = sessionStore;
+        this.recordedSessionListeners = new ArrayList<>(recordedSessionListeners);
+    }
 
     public void addSession(SessionNode session) {
-        sessions.add(session);
+        sessionStore.add(session);
+
+        for (RecordedSessionListener listener : recordedSessionListeners) {
+            listener.sessionRecorded(session);
+        }
+    }
+
+    @Override
+    public List<SessionNode> getSessions() {
+        return sessionStore.getSessions();
     }
 
+    public long getEvictedSessionsCount() {
+        return sessionStore.getEvictedSessionsCount();
+    }
+
+    public long getRejectedSessionsCount() {
+        return sessionStore.getRejectedSessionsCount();
+    }
 }
@@ -16,11 +16,13 @@
 
 package com.adgadev.jplusone.core.registry;
 
+import com.adgadev.jplusone.core.proxy.SqlStatement;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -29,6 +31,12 @@ import java.util.function.Consumer;
 import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toList;
 
+/**
+ * Session of entity manager. Statements of open session may be recorded from several threads (i.e. when entity manager
+ * is used by asynchronous task), hence all its mutations, including mutations of its operations and statement counters,
+ * are guarded by the session itself. Statements recorded after the session is closed are ignored, so that the closed
+ * session, which shares statement counters with the open one, is never modified after it has been published.
+ */
 @Slf4j
 @Getter
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
@@ -38,21 +46,68 @@ public class SessionNode implements SessionNodeView {
 
     private final FrameStack sessionFrameStack;
 
+    private final SessionTrackingMode trackingMode;
+
+    private final StatementCounters statementCounters;
+
+    @Getter(AccessLevel.NONE)
+    private boolean closed;
+
     public static SessionNode create() {
-        return new SessionNode(new ArrayList<>(), null);
+        return create(SessionTrackingMode.FULL);
+    }
+
+    public static SessionNode create(SessionTrackingMode trackingMode) {
+        return new SessionNode(new ArrayList<>(), null, trackingMode, new StatementCounters());
+    }
+
+    public void addStatement(SqlStatement sql, FrameStack operationFramesStack) {
+        addStatement(sql, operationFramesStack, false);
     }
 
-    public void addStatement(String sql, FrameStack operationFramesStack) {
+    public synchronized void addStatement(SqlStatement sql, FrameStack operationFramesStack, boolean transactionCommitInProgress) {
+        if (isClosed()) {
+            return;
+        }
+
         getLastOperationNode()
                 .filter(operationNode -> operationNode.hasCallFramesStack(operationFramesStack))
                 .ifPresentOrElse(
                         addStatementToLastOperation(sql),
-                        addStatementToNewOperation(sql, operationFramesStack));
+                        addStatementToNewOperation(sql, operationFramesStack, transactionCommitInProgress));
+    }
+
+    public synchronized void countStatement(SqlStatement sql, OperationType operationType) {
+        if (isClosed()) {
+            return;
+        }
+
+        statementCounters.countStatement(sql.getStatementTemplate().getStatementType(), operationType, sql.getExecutionsCount());
     }
 
-    public void addLazyCollectionInitialisation(LazyInitialisation lazyInitialisation) {
+    public synchronized void addLazyCollectionInitialisation(LazyInitialisation lazyInitialisation) {
+        if (isClosed()) {
+            return;
+        }
+
         getLastOperationNode()
                 .ifPresent(operationNode -> operationNode.addLazyInitialisation(lazyInitialisation));
+        statementCounters.countLazyInitialisation();
+    }
+
+    public synchronized void countLazyCollectionInitialisation() {
+        if (isClosed()) {
+            return;
+        }
+
+        statementCounters.countLazyInitialisation();
+    }
+
+    @Override
+    public Duration getExecutionTime() {
+        return operations.stream()
+                .map(OperationNode::getExecutionTime)
+                .reduce(Duration.ZERO, Duration::plus);
     }
 
     private Optional<OperationNode> getLastOperationNode() {
@@ -61,22 +116,28 @@ public class SessionNode implements SessionNodeView {
                 : Optional.of(operations.get(operations.size() - 1));
     }
 
-    private Consumer<OperationNode> addStatementToLastOperation(String sql) {
-        return operationNode -> operationNode.addStatement(sql);
+    private Consumer<OperationNode> addStatementToLastOperation(SqlStatement sql) {
+        return operationNode -> updateCounters(operationNode.addStatement(sql));
     }
 
-    private Runnable addStatementToNewOperation(String sql, FrameStack operationFrameStack) {
+    private Runnable addStatementToNewOperation(SqlStatement sql, FrameStack operationFrameStack, boolean transactionCommitInProgress) {
         return () -> {
-            OperationNode operationNode = new OperationNode(operationFrameStack);
+            OperationNode operationNode = new OperationNode(operationFrameStack, transactionCommitInProgress);
             operations.add(operationNode);
-            operationNode.addStatement(sql);
+            updateCounters(operationNode.addStatement(sql));
         };
     }
 
-    public SessionNode close(FrameStack completeSessionFrameStack) {
+    private void updateCounters(StatementNode statementNode) {
+        statementCounters.countStatement(statementNode.getStatementType(), statementNode.getExecutionsCount());
+    }
+
+    public synchronized SessionNode close(FrameStack completeSessionFrameStack) {
+        closed = true;
+
         if (operations.isEmpty()) {
             log.trace("Closing empty SessionNode");
-            return new SessionNode(emptyList(), sessionFrameStack);
+            return new SessionNode(emptyList(), sessionFrameStack, trackingMode, statementCounters);
 
         } else {
             OperationNode firstOperationNode = operations.iterator().next();
@@ -87,7 +148,25 @@ public class SessionNode implements SessionNodeView {
                     .map(operationNode -> operationNode.close(sessionFrameStack))
                     .collect(toList());
 
-            return new SessionNode(closedOperations, sessionFrameStack);
+            // operation type may change until the operation is complete, hence counted on close
+            closedOperations.forEach(operationNode -> statementCounters.countOperationStatements(
+                    operationNode.getOperationType(), countExecutions(operationNode.getStatements())));
+
+            return new SessionNode(closedOperations, sessionFrameStack, trackingMode, statementCounters);
+        }
+    }
+
+    private boolean isClosed() {
+        if (closed) {
+            log.trace("Ignoring event of closed SessionNode");
         }
+
+        return closed;
+    }
+
+    private static int countExecutions(List<StatementNode> statements) {
+        return statements.stream()
+                .mapToInt(StatementNode::getExecutionsCount)
+                .sum();
     }
-}
\ No newline at end of file
+}
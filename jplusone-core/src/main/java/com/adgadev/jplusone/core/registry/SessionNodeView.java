@@ -16,6 +16,7 @@
 
 package com.adgadev.jplusone.core.registry;
 
+import java.time.Duration;
 import java.util.List;
 
 public interface SessionNodeView {
@@ -23,4 +24,10 @@ public interface SessionNodeView {
     List<? extends OperationNodeView> getOperations();
 
     FrameStack getSessionFrameStack();
+
+    SessionTrackingMode getTrackingMode();
+
+    StatementCounters getStatementCounters();
+
+    Duration getExecutionTime();
 }
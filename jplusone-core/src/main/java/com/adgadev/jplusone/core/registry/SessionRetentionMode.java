@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.registry;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+import java.util.function.Predicate;
+
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public enum SessionRetentionMode {
+    ALL_SESSIONS(session -> true),
+    IMPLICIT_OPERATIONS_ONLY(SessionRetentionMode::hasImplicitOperations);
+
+    private final Predicate<SessionNodeView> retentionCondition;
+
+    boolean isRetained(SessionNodeView session) {
+        return retentionCondition.test(session);
+    }
+
+    private static boolean hasImplicitOperations(SessionNodeView session) {
+        if (session.getTrackingMode() == SessionTrackingMode.COUNTERS_ONLY) {
+            return session.getStatementCounters().getLazyInitialisationsCount() > 0;
+        }
+
+        return session.getOperations().stream()
+                .anyMatch(operation -> operation.getOperationType() == OperationType.IMPLICIT);
+    }
+}
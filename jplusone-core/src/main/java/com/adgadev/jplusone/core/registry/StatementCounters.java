@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.registry;
+
+import com.adgadev.jplusone.core.sql.StatementType;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Not thread-safe on its own, it's mutated only by owning {@link SessionNode}, which guards all its mutations.
+ */
+public class StatementCounters {
+
+    private final int[] statementsCountByType = new int[StatementType.values().length];
+
+    private final int[] statementsCountByOperationType = new int[OperationType.values().length];
+
+    @Getter
+    private int lazyInitialisationsCount;
+
+    void countStatement(StatementType statementType, int executionsCount) {
+        statementsCountByType[statementType.ordinal()] += executionsCount;
+    }
+
+    void countStatement(StatementType statementType, OperationType operationType, int executionsCount) {
+        statementsCountByType[statementType.ordinal()] += executionsCount;
+        statementsCountByOperationType[operationType.ordinal()] += executionsCount;
+    }
+
+    void countOperationStatements(OperationType operationType, int statementsCount) {
+        statementsCountByOperationType[operationType.ordinal()] += statementsCount;
+    }
+
+    void countLazyInitialisation() {
+        lazyInitialisationsCount++;
+    }
+
+    public int getStatementsCount(StatementType statementType) {
+        return statementsCountByType[statementType.ordinal()];
+    }
+
+    public int getStatementsCount(OperationType operationType) {
+        return statementsCountByOperationType[operationType.ordinal()];
+    }
+
+    public int getStatementsCount() {
+        return Arrays.stream(statementsCountByType).sum();
+    }
+
+    @Override
+    public String toString() {
+        String statementsCountByOperationTypeSummary = Arrays.stream(OperationType.values())
+                .map(operationType -> operationType + " OPERATIONS: " + getStatementsCount(operationType))
+                .collect(joining(", "));
+
+        return Arrays.stream(StatementType.values())
+                .map(statementType -> statementType + ": " + getStatementsCount(statementType))
+                .collect(joining(", ", "", ", " + statementsCountByOperationTypeSummary + ", LAZY INITIALISATIONS: " + lazyInitialisationsCount));
+    }
+}
@@ -16,61 +16,84 @@
 
 package com.adgadev.jplusone.core.registry;
 
+import com.adgadev.jplusone.core.proxy.SqlParameters;
+import com.adgadev.jplusone.core.proxy.SqlStatement;
+import com.adgadev.jplusone.core.proxy.StatementMetrics;
+import com.adgadev.jplusone.core.sql.StatementTemplate;
+import com.adgadev.jplusone.core.sql.StatementType;
 import lombok.AccessLevel;
-import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
-import static com.adgadev.jplusone.core.registry.StatementType.*;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
 
-@Getter
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public class StatementNode implements StatementNodeView {
 
-    public static final String COLUMN_LIST_SUBSTITUTE = "#SELECT_COLUMNS_LIST";
+    public static final String COLUMN_LIST_SUBSTITUTE = StatementTemplate.COLUMN_LIST_SUBSTITUTE;
 
-    private static final String COMMENT_START_TOKEN = "/* ";
+    private final SqlStatement sqlStatement;
 
-    private static final String COMMENT_END_TOKEN = " */ ";
+    private final StatementTemplate statementTemplate;
 
-    private static final String SELECT_CLAUSE = "select ";
+    public static StatementNode fromSql(SqlStatement sqlStatement) {
+        return new StatementNode(sqlStatement, sqlStatement.getStatementTemplate());
+    }
 
-    private static final String FROM_CLAUSE = " from ";
+    @Override
+    public String getSql() {
+        return sqlStatement.render(statementTemplate.getFormattedSql(), statementTemplate.getSkippedParametersCount());
+    }
 
-    private final String sql;
+    @Override
+    public String getSqlTemplate() {
+        return sqlStatement.getSqlTemplate();
+    }
+
+    @Override
+    public SqlParameters getParameters() {
+        return sqlStatement.getParameters();
+    }
 
-    private final StatementType statementType;
+    @Override
+    public StatementType getStatementType() {
+        return statementTemplate.getStatementType();
+    }
 
-    public static StatementNode fromSql(String sql) {
-        String sqlWithoutComments = stripComments(sql);
-        StatementType type = StatementType.resolveStatementType(sqlWithoutComments);
-        return new StatementNode(formatSql(sqlWithoutComments, type), type);
+    @Override
+    public Duration getExecutionTime() {
+        return sqlStatement.getMetrics().getExecutionTime();
     }
 
-    private static String stripComments(String sql) {
-        if (sql.startsWith(COMMENT_START_TOKEN)) {
-            int commentEndIndex = sql.indexOf(COMMENT_END_TOKEN);
+    @Override
+    public OptionalInt getRowsCount() {
+        StatementMetrics metrics = sqlStatement.getMetrics();
+        return metrics.isResultSetRead() ? OptionalInt.of(metrics.getRowsCount()) : OptionalInt.empty();
+    }
 
-            if (commentEndIndex > 0 && commentEndIndex + COMMENT_END_TOKEN.length() < sql.length()) {
-                return sql.substring(commentEndIndex + COMMENT_END_TOKEN.length());
-            }
-        }
+    @Override
+    public OptionalInt getBatchSize() {
+        return sqlStatement.isBatch() ? OptionalInt.of(sqlStatement.getBatchSize()) : OptionalInt.empty();
+    }
 
-        return sql;
+    @Override
+    public List<String> getBatchParameters() {
+        return sqlStatement.renderBatchParameters();
     }
 
-    private static String formatSql(String sql, StatementType type) {
-        if (type == SELECT) {
-            int index = sql.indexOf(FROM_CLAUSE);
+    public OptionalInt getFetchSize() {
+        StatementMetrics metrics = sqlStatement.getMetrics();
+        return metrics.isResultSetRead() ? OptionalInt.of(metrics.getFetchSize()) : OptionalInt.empty();
+    }
 
-            if (index >= 0) {
-                return new StringBuilder()
-                        .append(SELECT_CLAUSE)
-                        .append(COLUMN_LIST_SUBSTITUTE)
-                        .append(sql.substring(index))
-                        .toString();
-            }
-        }
+    public OptionalLong getEstimatedResultSetBytes() {
+        StatementMetrics metrics = sqlStatement.getMetrics();
+        return metrics.isResultSetRead() ? OptionalLong.of(metrics.getEstimatedResultSetBytes()) : OptionalLong.empty();
+    }
 
-        return sql;
+    public List<String> getTableNames() {
+        return statementTemplate.getTableNames();
     }
 }
@@ -16,10 +16,39 @@
 
 package com.adgadev.jplusone.core.registry;
 
+import com.adgadev.jplusone.core.proxy.SqlParameters;
+import com.adgadev.jplusone.core.sql.StatementType;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalInt;
+
 public interface StatementNodeView {
 
     String getSql();
 
+    String getSqlTemplate();
+
+    /**
+     * Returns parameters bound to SQL template, or null if they are not available.
+     */
+    SqlParameters getParameters();
+
     StatementType getStatementType();
 
+    Duration getExecutionTime();
+
+    OptionalInt getRowsCount();
+
+    OptionalInt getBatchSize();
+
+    /**
+     * Returns how many times the statement was executed, i.e. amount of rows if it was executed as JDBC batch.
+     */
+    default int getExecutionsCount() {
+        return getBatchSize().orElse(1);
+    }
+
+    List<String> getBatchParameters();
+
 }
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.report;
+
+import com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneReportProperties;
+import com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneReportProperties.JPlusOneAsyncReportProperties.OverflowPolicy;
+import com.adgadev.jplusone.core.registry.SessionNodeView;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Report generator which renders reports on a dedicated worker thread, so that closing entity manager does not
+ * include report rendering. Recorded sessions are passed to the worker via bounded queue. When the queue is full
+ * sessions are dropped ({@link OverflowPolicy#DROP}) or the closing thread waits ({@link OverflowPolicy#BLOCK}).
+ * With {@link OverflowPolicy#SAMPLE} sessions start to be dropped randomly once the queue is half full,
+ * with probability growing along with the queue depth.
+ *
+ * The worker thread is started when the first report is queued. Once the generator is closed reports are generated
+ * on the closing thread; sessions queued by threads racing with {@link #close()} are still generated by the worker
+ * before it stops. Threads handling sessions are registered as parties of a {@link Phaser}, along with the generator
+ * itself, so that {@link #close()} waits until the phaser terminates, i.e. until all of them have left.
+ */
+@Slf4j
+public class AsyncReportGenerator extends ReportGenerator implements AutoCloseable {
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private static final long CLOSE_TIMEOUT_MILLIS = 5000;
+
+    private final boolean enabled;
+
+    private final int queueCapacity;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final BlockingQueue<SessionNodeView> queue;
+
+    private final LongAdder droppedReportsCount = new LongAdder();
+
+    private final LongAdder generatedReportsCount = new LongAdder();
+
+    // registered party of the generator itself is deregistered on close, terminating the phaser once all threads
+    // handling sessions deregister too
+    private final Phaser enqueuingThreads = new Phaser(1);
+
+    private volatile Thread worker;
+
+    private volatile boolean running = true;
+
+    public AsyncReportGenerator(JPlusOneReportProperties reportProperties) {
+        super(reportProperties);
+        this.enabled = reportProperties.isEnabled();
+        this.queueCapacity = Math.max(1, reportProperties.getAsync().getQueueCapacity());
+        this.overflowPolicy = reportProperties.getAsync().getOverflowPolicy();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @Override
+    public void handleRecordedSession(SessionNodeView session) {
+        if (!enabled) {
+            return;
+        }
+
+        // has no effect once the phaser is terminated, in which case the generator is not running anymore
+        enqueuingThreads.register();
+
+        try {
+            if (!running) {
+                generateReport(session);
+            } else if (!enqueue(session)) {
+                if (droppedReportsCount.sum() == 0) {
+                    log.warn("JPlusOne report queue is full, reports of some sessions will be dropped");
+                }
+
+                droppedReportsCount.increment();
+            }
+
+        } finally {
+            enqueuingThreads.arriveAndDeregister();
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getDroppedReportsCount() {
+        return droppedReportsCount.sum();
+    }
+
+    public long getGeneratedReportsCount() {
+        return generatedReportsCount.sum();
+    }
+
+    boolean isWorkerStarted() {
+        return worker != null;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!running) {
+            return;
+        }
+
+        running = false;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CLOSE_TIMEOUT_MILLIS);
+
+        try {
+            // threads which observed the generator running may still queue sessions, the worker must outlive them
+            int phase = enqueuingThreads.arriveAndDeregister();
+            enqueuingThreads.awaitAdvanceInterruptibly(phase, CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+            Thread currentWorker = worker;
+
+            if (currentWorker != null) {
+                currentWorker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            }
+
+        } catch (TimeoutException e) {
+            log.warn("JPlusOne report generator closed while sessions are still being handled");
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (!queue.isEmpty()) {
+            log.warn("JPlusOne report generator closed, {} queued reports have not been generated", queue.size());
+        }
+    }
+
+    private boolean enqueue(SessionNodeView session) {
+        if (worker == null) {
+            startWorker();
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    queue.put(session);
+                    return true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            case SAMPLE:
+                return isAcceptedBySampling() && queue.offer(session);
+            default:
+                return queue.offer(session);
+        }
+    }
+
+    private boolean isAcceptedBySampling() {
+        int queueDepth = queue.size();
+        int samplingThreshold = queueCapacity / 2;
+
+        if (queueDepth < samplingThreshold) {
+            return true;
+        }
+
+        double acceptanceProbability = (double) (queueCapacity - queueDepth) / (queueCapacity - samplingThreshold);
+        return ThreadLocalRandom.current().nextDouble() < acceptanceProbability;
+    }
+
+    private synchronized void startWorker() {
+        if (worker == null) {
+            Thread newWorker = new Thread(this::generateQueuedReports, "jplusone-report-generator");
+            newWorker.setDaemon(true);
+            newWorker.start();
+            worker = newWorker;
+        }
+    }
+
+    private void generateQueuedReports() {
+        while (!enqueuingThreads.isTerminated() || !queue.isEmpty()) {
+            try {
+                SessionNodeView session = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+                if (session != null) {
+                    generateReport(session);
+                }
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void generateReport(SessionNodeView session) {
+        try {
+            super.handleRecordedSession(session);
+            generatedReportsCount.increment();
+
+        } catch (RuntimeException e) {
+            log.warn("Unable to generate JPlusOne report", e);
+        }
+    }
+}
@@ -16,6 +16,10 @@
 
 package com.adgadev.jplusone.core.report;
 
+import com.adgadev.jplusone.core.analysis.DuplicateSelectStatements;
+import com.adgadev.jplusone.core.analysis.DuplicateSelectStatementsDetector;
+import com.adgadev.jplusone.core.analysis.UnbatchedWriteStatements;
+import com.adgadev.jplusone.core.analysis.UnbatchedWriteStatementsDetector;
 import com.adgadev.jplusone.core.frame.FrameExtract;
 import com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneReportProperties;
 import com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneReportProperties.Output;
@@ -23,11 +27,14 @@ import com.adgadev.jplusone.core.registry.LazyInitialisation;
 import com.adgadev.jplusone.core.registry.OperationNodeView;
 import com.adgadev.jplusone.core.registry.OperationType;
 import com.adgadev.jplusone.core.registry.SessionNodeView;
+import com.adgadev.jplusone.core.registry.SessionTrackingMode;
 import com.adgadev.jplusone.core.registry.StatementNodeView;
-import com.adgadev.jplusone.core.registry.StatementType;
+import com.adgadev.jplusone.core.sql.StatementType;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -49,13 +56,19 @@ public class ReportGenerator {
             4, INDENT + INDENT + INDENT + INDENT,
             5, INDENT + INDENT + INDENT + INDENT + INDENT,
             6, INDENT + INDENT + INDENT + INDENT + INDENT + INDENT,
-            7, INDENT + INDENT + INDENT + INDENT + INDENT + INDENT + INDENT
+            7, INDENT + INDENT + INDENT + INDENT + INDENT + INDENT + INDENT,
+            8, INDENT + INDENT + INDENT + INDENT + INDENT + INDENT + INDENT + INDENT
     );
 
     private final JPlusOneReportProperties reportProperties;
 
+    private final UnbatchedWriteStatementsDetector unbatchedWriteStatementsDetector;
+
+    private final DuplicateSelectStatementsDetector duplicateSelectStatementsDetector = new DuplicateSelectStatementsDetector();
+
     public ReportGenerator(JPlusOneReportProperties reportProperties) {
         this.reportProperties = reportProperties;
+        this.unbatchedWriteStatementsDetector = new UnbatchedWriteStatementsDetector(reportProperties.getUnbatchedWriteStatementsThreshold());
 
         if (!reportProperties.isEnabled()) {
             log.debug("JPlusOne report generation is disabled");
@@ -63,7 +76,10 @@ public class ReportGenerator {
     }
 
     public void handleRecordedSession(SessionNodeView session) {
-        if (reportProperties.isEnabled()) {
+        if (reportProperties.isEnabled() && session.getTrackingMode() == SessionTrackingMode.COUNTERS_ONLY) {
+            log.trace("Session not sampled for detailed tracking, statements executed: {}", session.getStatementCounters());
+
+        } else if (reportProperties.isEnabled()) {
             Set<OperationType> visibleOperationsType = reportProperties.getOperationFilteringMode().getOperationTypes();
             Set<StatementType> visibleStatementsType = reportProperties.getStatementFilteringMode().getStatementTypes();
 
@@ -73,8 +89,11 @@ public class ReportGenerator {
                     .filter(statementNode -> visibleStatementsType.contains(statementNode.getStatementType()))
                     .count() > 0;
 
-            if (matchedStatementAndOperationFound) {
-                printLog(sessionToString(session, visibleOperationsType, visibleStatementsType));
+            List<UnbatchedWriteStatements> unbatchedWriteStatements = unbatchedWriteStatementsDetector.detect(session);
+            List<DuplicateSelectStatements> duplicateSelectStatements = duplicateSelectStatementsDetector.detect(session);
+
+            if (matchedStatementAndOperationFound || !unbatchedWriteStatements.isEmpty() || !duplicateSelectStatements.isEmpty()) {
+                printLog(sessionToString(session, visibleOperationsType, visibleStatementsType, unbatchedWriteStatements, duplicateSelectStatements));
             } else {
                 printLog("No operations / statements matching report criteria found");
             }
@@ -82,6 +101,13 @@ public class ReportGenerator {
     }
 
     public String sessionToString(SessionNodeView session, Set<OperationType> visibleOperationsType, Set<StatementType> visibleStatementsType) {
+        return sessionToString(session, visibleOperationsType, visibleStatementsType,
+                unbatchedWriteStatementsDetector.detect(session), duplicateSelectStatementsDetector.detect(session));
+    }
+
+    private String sessionToString(SessionNodeView session, Set<OperationType> visibleOperationsType, Set<StatementType> visibleStatementsType,
+                                   List<UnbatchedWriteStatements> unbatchedWriteStatements,
+                                   List<DuplicateSelectStatements> duplicateSelectStatements) {
         StringBuilder builder = new StringBuilder();
         builder.append(NEWLINE + INDENTS.get(1) + "ROOT");
 
@@ -94,13 +120,13 @@ public class ReportGenerator {
             }
         }
 
-        builder.append(NEWLINE + INDENTS.get(3) + "SESSION BOUNDARY");
+        builder.append(NEWLINE + INDENTS.get(3) + "SESSION BOUNDARY " + formatExecutionTime(session.getExecutionTime()));
 
         for (OperationNodeView operation : session.getOperations()) {
             if (visibleOperationsType.contains(operation.getOperationType())
                     && containsAnyVisibleStatements(operation, visibleStatementsType)) {
 
-                builder.append(NEWLINE + INDENTS.get(4) + "OPERATION [" + operation.getOperationType() + "]");
+                builder.append(NEWLINE + INDENTS.get(4) + "OPERATION [" + operation.getOperationType() + "] " + formatExecutionTime(operation.getExecutionTime()));
                 List<FrameExtract> operationCallFrames = operation.getCallFramesStack().getCallFrames();
 
                 for (FrameExtract frame : filterApplicationCallFrames(operationCallFrames, reportProperties.isProxyCallFramesHidden())) {
@@ -116,16 +142,51 @@ public class ReportGenerator {
 
                 for (StatementNodeView statement : operation.getStatements()) {
                     if (visibleStatementsType.contains(statement.getStatementType())) {
-                        builder.append(NEWLINE + INDENTS.get(6) + "STATEMENT [" + statement.getStatementType().getStatementGroupType() + "]");
+                        builder.append(NEWLINE + INDENTS.get(6) + "STATEMENT [" + statement.getStatementType().getStatementGroupType() + "] " + formatExecutionTime(statement.getExecutionTime()));
+                        statement.getRowsCount().ifPresent(rowsCount -> builder.append(" [ROWS: " + rowsCount + "]"));
+                        statement.getBatchSize().ifPresent(batchSize -> builder.append(" [BATCH: " + batchSize + "]"));
                         builder.append(ReportSqlFormatter.formatSql(INDENTS.get(7), statement.getSql()));
+                        appendBatchParameters(builder, statement);
                     }
                 }
             }
         }
 
+        for (UnbatchedWriteStatements finding : unbatchedWriteStatements) {
+            builder.append(NEWLINE + INDENTS.get(3) + "FINDING [UNBATCHED WRITES] " + finding);
+            Optional.ofNullable(finding.getOriginatingFrame())
+                    .ifPresent(frame -> builder.append(NEWLINE + INDENTS.get(4) + frame.format()));
+            builder.append(ReportSqlFormatter.formatSql(INDENTS.get(5), finding.getSqlTemplate()));
+        }
+
+        for (DuplicateSelectStatements finding : duplicateSelectStatements) {
+            builder.append(NEWLINE + INDENTS.get(3) + "FINDING [DUPLICATE SELECTS] " + finding);
+            finding.getCallSites().forEach(frame -> builder.append(NEWLINE + INDENTS.get(4) + frame.format()));
+            builder.append(ReportSqlFormatter.formatSql(INDENTS.get(5), finding.getSql()));
+        }
+
         return builder.toString();
     }
 
+    private void appendBatchParameters(StringBuilder builder, StatementNodeView statement) {
+        List<String> batchParameters = statement.getBatchParameters();
+
+        if (batchParameters.size() > 1) {
+            builder.append(NEWLINE + INDENTS.get(7) + "BATCH PARAMETERS:");
+            batchParameters.forEach(rowParameters -> builder.append(NEWLINE + INDENTS.get(8) + "(" + rowParameters + ")"));
+
+            int notCapturedRowsCount = statement.getBatchSize().orElse(0) - batchParameters.size();
+
+            if (notCapturedRowsCount > 0) {
+                builder.append(NEWLINE + INDENTS.get(8) + "... " + notCapturedRowsCount + " more");
+            }
+        }
+    }
+
+    private String formatExecutionTime(Duration executionTime) {
+        return String.format(Locale.ROOT, "[%.3f ms]", executionTime.toNanos() / 1_000_000.0);
+    }
+
     private boolean containsAnyVisibleStatements(OperationNodeView operation, Set<StatementType> visibleStatementsType) {
         return operation.getStatements().stream()
                 .filter(statementNode -> visibleStatementsType.contains(statementNode.getStatementType()))
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.sql;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.adgadev.jplusone.core.sql.StatementType.SELECT;
+
+/**
+ * Template of SQL statement. Templates of prepared statements are resolved once per prepared statement via
+ * {@link StatementTemplateCache}, but only number of parameters is resolved up front. The template is parsed
+ * when its details are accessed for the first time, so that statements which are never recorded (i.e. executed
+ * in ignored sessions) are not parsed.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class StatementTemplate {
+
+    public static final String COLUMN_LIST_SUBSTITUTE = "#SELECT_COLUMNS_LIST";
+
+    private static final char PARAMETER_SYMBOL = '?';
+
+    private static final String COMMENT_START_TOKEN = "/* ";
+
+    private static final String COMMENT_END_TOKEN = " */ ";
+
+    private static final String SELECT_CLAUSE = "select ";
+
+    private static final String FROM_CLAUSE = " from ";
+
+    private static final Pattern TABLE_NAME_PATTERN = Pattern.compile("\\b(?:from|join|update|into)\\s+([\\w.$\"`]+)", Pattern.CASE_INSENSITIVE);
+
+    @Getter
+    private final String sqlTemplate;
+
+    @Getter
+    private final int parametersCount;
+
+    // parsing is idempotent, hence template parsed concurrently by several threads is just replaced with equal one
+    private volatile ParsedTemplate parsedTemplate;
+
+    public static StatementTemplate parse(String sqlTemplate) {
+        return new StatementTemplate(sqlTemplate, countParameters(sqlTemplate, 0, sqlTemplate.length()));
+    }
+
+    public StatementType getStatementType() {
+        return parsedTemplate().statementType;
+    }
+
+    public String getSqlWithoutComments() {
+        return parsedTemplate().sqlWithoutComments;
+    }
+
+    public String getFormattedSql() {
+        return parsedTemplate().formattedSql;
+    }
+
+    public int getSkippedParametersCount() {
+        return parsedTemplate().skippedParametersCount;
+    }
+
+    public List<String> getTableNames() {
+        return parsedTemplate().tableNames;
+    }
+
+    public static int countParameters(String sql, int beginIndex, int endIndex) {
+        int count = 0;
+
+        for (int i = beginIndex; i < endIndex; i++) {
+            if (sql.charAt(i) == PARAMETER_SYMBOL) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    private ParsedTemplate parsedTemplate() {
+        ParsedTemplate template = parsedTemplate;
+
+        if (template == null) {
+            template = new ParsedTemplate(sqlTemplate);
+            parsedTemplate = template;
+        }
+
+        return template;
+    }
+
+    private static String stripComments(String sql) {
+        if (sql.startsWith(COMMENT_START_TOKEN)) {
+            int commentEndIndex = sql.indexOf(COMMENT_END_TOKEN);
+
+            if (commentEndIndex > 0 && commentEndIndex + COMMENT_END_TOKEN.length() < sql.length()) {
+                return sql.substring(commentEndIndex + COMMENT_END_TOKEN.length());
+            }
+        }
+
+        return sql;
+    }
+
+    private static String formatSql(String sql, StatementType type) {
+        if (type == SELECT) {
+            int index = sql.indexOf(FROM_CLAUSE);
+
+            if (index >= 0) {
+                return new StringBuilder()
+                        .append(SELECT_CLAUSE)
+                        .append(COLUMN_LIST_SUBSTITUTE)
+                        .append(sql.substring(index))
+                        .toString();
+            }
+        }
+
+        return sql;
+    }
+
+    private static int countSkippedParameters(String sqlTemplate, String formattedSql) {
+        int retainedSuffixLength = formattedSql.startsWith(SELECT_CLAUSE + COLUMN_LIST_SUBSTITUTE)
+                ? formattedSql.length() - SELECT_CLAUSE.length() - COLUMN_LIST_SUBSTITUTE.length()
+                : formattedSql.length();
+
+        return countParameters(sqlTemplate, 0, sqlTemplate.length() - retainedSuffixLength);
+    }
+
+    private static List<String> resolveTableNames(String sql) {
+        Set<String> tableNames = new LinkedHashSet<>();
+        Matcher matcher = TABLE_NAME_PATTERN.matcher(sql);
+
+        while (matcher.find()) {
+            tableNames.add(matcher.group(1));
+        }
+
+        return Collections.unmodifiableList(new ArrayList<>(tableNames));
+    }
+
+    private static class ParsedTemplate {
+
+        private final StatementType statementType;
+
+        private final String sqlWithoutComments;
+
+        private final String formattedSql;
+
+        private final int skippedParametersCount;
+
+        private final List<String> tableNames;
+
+        private ParsedTemplate(String sqlTemplate) {
+            this.sqlWithoutComments = stripComments(sqlTemplate);
+            this.statementType = StatementType.resolveStatementType(sqlWithoutComments);
+            this.formattedSql = formatSql(sqlWithoutComments, statementType);
+            this.skippedParametersCount = countSkippedParameters(sqlTemplate, formattedSql);
+            this.tableNames = resolveTableNames(sqlWithoutComments);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.sql;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Bounded cache of parsed templates of prepared statements, so that statements prepared repeatedly are parsed once.
+ * SQL of statements executed without parameters usually has inlined literals, hence it is never cached. Once the
+ * cache is full, templates are evicted in order in which they were cached.
+ */
+public class StatementTemplateCache {
+
+    public static final int DEFAULT_MAX_TEMPLATES = 2048;
+
+    private final int maxTemplates;
+
+    private final Map<String, StatementTemplate> templates = new ConcurrentHashMap<>();
+
+    private final Queue<String> cachedTemplatesOrder = new ConcurrentLinkedQueue<>();
+
+    public StatementTemplateCache() {
+        this(DEFAULT_MAX_TEMPLATES);
+    }
+
+    public StatementTemplateCache(int maxTemplates) {
+        this.maxTemplates = maxTemplates;
+    }
+
+    public StatementTemplate get(String sqlTemplate) {
+        StatementTemplate statementTemplate = templates.get(sqlTemplate);
+
+        if (statementTemplate == null) {
+            statementTemplate = StatementTemplate.parse(sqlTemplate);
+            StatementTemplate cachedTemplate = templates.putIfAbsent(sqlTemplate, statementTemplate);
+
+            if (cachedTemplate != null) {
+                return cachedTemplate;
+            }
+
+            cachedTemplatesOrder.add(sqlTemplate);
+            evictOverflowingTemplates();
+        }
+
+        return statementTemplate;
+    }
+
+    int size() {
+        return templates.size();
+    }
+
+    private void evictOverflowingTemplates() {
+        while (templates.size() > maxTemplates) {
+            String oldestTemplate = cachedTemplatesOrder.poll();
+
+            if (oldestTemplate == null) {
+                return;
+            }
+
+            templates.remove(oldestTemplate);
+        }
+    }
+}
@@ -14,7 +14,7 @@
  * limitations under the License.
  */
 
-package com.adgadev.jplusone.core.registry;
+package com.adgadev.jplusone.core.sql;
 
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -17,12 +17,11 @@
 package com.adgadev.jplusone.core.tracking;
 
 import com.adgadev.jplusone.core.proxy.Identifier;
+import com.adgadev.jplusone.core.proxy.SqlStatement;
 import com.adgadev.jplusone.core.proxy.StateListener;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.function.Supplier;
-
 @Slf4j
 @RequiredArgsConstructor
 public class ActivationStateListener implements StateListener {
@@ -46,16 +45,22 @@ public class ActivationStateListener implements StateListener {
     }
 
     @Override
-    public void statementExecuted(String sql) {
+    public Identifier connectionAcquired() {
         if (context.isRecordingEnabled()) {
-            executeSilently(() -> delegate.statementExecuted(sql));
+            try {
+                return delegate.connectionAcquired();
+            } catch (Exception e) {
+                log.warn("JPlusOne failed to handle JPA/hibernate event", e);
+            }
         }
+
+        return null;
     }
 
     @Override
-    public void statementExecuted(Supplier<String> sqlSupplier) {
+    public void statementExecuted(SqlStatement sqlStatement, Identifier entityManagerId) {
         if (context.isRecordingEnabled()) {
-            executeSilently(() -> delegate.statementExecuted(sqlSupplier));
+            executeSilently(() -> delegate.statementExecuted(sqlStatement, entityManagerId));
         }
     }
 
@@ -66,6 +71,45 @@ public class ActivationStateListener implements StateListener {
         }
     }
 
+    @Override
+    public Identifier taskSubmitted() {
+        if (context.isRecordingEnabled()) {
+            try {
+                return delegate.taskSubmitted();
+            } catch (Exception e) {
+                log.warn("JPlusOne failed to handle JPA/hibernate event", e);
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public void taskStarted(Identifier entityManagerId) {
+        if (context.isRecordingEnabled()) {
+            executeSilently(() -> delegate.taskStarted(entityManagerId));
+        }
+    }
+
+    @Override
+    public void taskFinished(Identifier entityManagerId) {
+        // executed regardless of recording state, so that session attached to the thread is never left behind
+        executeSilently(() -> delegate.taskFinished(entityManagerId));
+    }
+
+    @Override
+    public void transactionCommitStarted(Identifier entityManagerId) {
+        if (context.isRecordingEnabled()) {
+            executeSilently(() -> delegate.transactionCommitStarted(entityManagerId));
+        }
+    }
+
+    @Override
+    public void transactionCommitFinished(Identifier entityManagerId) {
+        // executed regardless of recording state, so that commit started while recording was enabled is always ended
+        executeSilently(() -> delegate.transactionCommitFinished(entityManagerId));
+    }
+
     private void executeSilently(Runnable eventHandlerAction) {
         try {
             eventHandlerAction.run();
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.tracking;
+
+import com.adgadev.jplusone.core.frame.FramesProvider;
+import com.adgadev.jplusone.core.proxy.Identifier;
+import com.adgadev.jplusone.core.proxy.SqlStatement;
+import com.adgadev.jplusone.core.proxy.StateListener;
+import com.adgadev.jplusone.core.registry.RootNode;
+import com.adgadev.jplusone.core.registry.SessionNode;
+import com.adgadev.jplusone.core.registry.SessionTrackingMode;
+import com.adgadev.jplusone.core.report.ReportGenerator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lightweight alternative to {@link TrackingStateListener}, which records only amount of SQL statements
+ * and lazy initialisations in each session. No call frames are captured, so operation type is resolved by
+ * {@link OperationTypeTracker}, and each SQL statement is attributed to the session of entity manager which acquired
+ * the connection. Statements executed on connections acquired outside of entity manager are ignored, same as
+ * in {@link TrackingStateListener}.
+ */
+@Slf4j
+public class CountingStateListener implements StateListener {
+
+    private final RootNode root;
+
+    private final ReportGenerator reportGenerator;
+
+    private final OperationTypeTracker operationTypeTracker;
+
+    private final OpenSessions openSessions;
+
+    public CountingStateListener(FramesProvider framesProvider, RootNode root, ReportGenerator reportGenerator,
+                                 OperationTypeTracker operationTypeTracker) {
+        this.root = root;
+        this.reportGenerator = reportGenerator;
+        this.operationTypeTracker = operationTypeTracker;
+        this.openSessions = new OpenSessions(framesProvider);
+    }
+
+    @Override
+    public void entityManagerCreated(Identifier entityManagerId) {
+        openSessions.open(entityManagerId, SessionNode.create(SessionTrackingMode.COUNTERS_ONLY));
+    }
+
+    @Override
+    public void entityManagerClosed(Identifier entityManagerId) {
+        SessionNode openSession = openSessions.close(entityManagerId);
+
+        if (openSession != null) {
+            SessionNode session = openSession.close(null);
+            root.addSession(session);
+            reportGenerator.handleRecordedSession(session);
+
+            if (openSessions.releaseThreadIfNoSessionsOpen()) {
+                operationTypeTracker.reset();
+            }
+
+        } else {
+            log.warn("Session has been closed already");
+        }
+    }
+
+    @Override
+    public Identifier connectionAcquired() {
+        return openSessions.getConnectionEntityManager();
+    }
+
+    @Override
+    public void statementExecuted(SqlStatement sqlStatement, Identifier entityManagerId) {
+        if (entityManagerId == null) {
+            // connection has been acquired outside of entity manager
+            return;
+        }
+
+        SessionNode session = openSessions.getSession(entityManagerId);
+
+        if (session != null) {
+            session.countStatement(sqlStatement, operationTypeTracker.getCurrentOperationType());
+        }
+    }
+
+    @Override
+    public void lazyCollectionInitialized(String entityClassName, String fieldName) {
+        SessionNode session = openSessions.getSession(null);
+
+        if (session != null) {
+            session.countLazyCollectionInitialisation();
+        } else {
+            log.warn("Session has been closed already");
+        }
+    }
+
+    @Override
+    public Identifier taskSubmitted() {
+        return openSessions.getCurrentEntityManager();
+    }
+
+    @Override
+    public void taskStarted(Identifier entityManagerId) {
+        openSessions.attach(entityManagerId);
+    }
+
+    @Override
+    public void taskFinished(Identifier entityManagerId) {
+        openSessions.detach(entityManagerId);
+
+        if (openSessions.releaseThreadIfNoSessionsOpen()) {
+            operationTypeTracker.reset();
+        }
+    }
+
+    @Override
+    public void transactionCommitStarted(Identifier entityManagerId) {
+        operationTypeTracker.enterTransactionCommit();
+    }
+
+    @Override
+    public void transactionCommitFinished(Identifier entityManagerId) {
+        operationTypeTracker.exitTransactionCommit();
+    }
+}
@@ -18,11 +18,10 @@ package com.adgadev.jplusone.core.tracking;
 
 import com.adgadev.jplusone.core.frame.FramesProvider;
 import com.adgadev.jplusone.core.proxy.Identifier;
+import com.adgadev.jplusone.core.proxy.SqlStatement;
 import com.adgadev.jplusone.core.proxy.StateListener;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.function.Supplier;
-
 @Slf4j
 public class LoggingStateListener implements StateListener {
 
@@ -32,10 +31,10 @@ public class LoggingStateListener implements StateListener {
 
     private final FramesProvider framesProvider;
 
-    public LoggingStateListener(TrackingContext context, StateListener stateListener) {
+    public LoggingStateListener(TrackingContext context, FramesProvider framesProvider, StateListener stateListener) {
         this.verbosityLevel = context.isDebugMode() ? context.getVerbosityLevel() : VerbosityLevel.V0;
         this.stateListener = stateListener;
-        this.framesProvider = new FramesProvider(context.getApplicationRootPackage());
+        this.framesProvider = framesProvider;
     }
 
     @Override
@@ -65,26 +64,26 @@ public class LoggingStateListener implements StateListener {
     }
 
     @Override
-    public void statementExecuted(String sql) {
+    public Identifier connectionAcquired() {
+        return stateListener.connectionAcquired();
+    }
+
+    @Override
+    public void statementExecuted(SqlStatement sqlStatement, Identifier entityManagerId) {
         if (verbosityLevel.isDebugModeEnabled()) {
             if (verbosityLevel.isSqlStatementStackVisible()) {
                 String label = verbosityLevel.isSqlStatementVisible()
-                    ? "SQL Statement executed, SQL: " + sql
+                    ? "SQL Statement executed, SQL: " + sqlStatement.getSql()
                     : "SQL Statement executed";
                 framesProvider.captureCallFrames().printStackTrace(label);
             } else if (verbosityLevel.isSqlStatementVisible()){
-                log.debug("SQL Statement executed, SQL: {}", sql);
+                log.debug("SQL Statement executed, SQL: {}", sqlStatement);
             } else {
                 log.debug("SQL Statement executed");
             }
         }
 
-        stateListener.statementExecuted(sql);
-    }
-
-    @Override
-    public void statementExecuted(Supplier<String> sqlSupplier) {
-        statementExecuted(sqlSupplier.get());
+        stateListener.statementExecuted(sqlStatement, entityManagerId);
     }
 
     @Override
@@ -95,4 +94,45 @@ public class LoggingStateListener implements StateListener {
 
         stateListener.lazyCollectionInitialized(entityClassName, fieldName);
     }
+
+    @Override
+    public Identifier taskSubmitted() {
+        return stateListener.taskSubmitted();
+    }
+
+    @Override
+    public void taskStarted(Identifier entityManagerId) {
+        if (verbosityLevel.isDebugModeEnabled()) {
+            log.debug("Asynchronous task started in session of EntityManager ID: {}", entityManagerId);
+        }
+
+        stateListener.taskStarted(entityManagerId);
+    }
+
+    @Override
+    public void taskFinished(Identifier entityManagerId) {
+        if (verbosityLevel.isDebugModeEnabled()) {
+            log.debug("Asynchronous task finished in session of EntityManager ID: {}", entityManagerId);
+        }
+
+        stateListener.taskFinished(entityManagerId);
+    }
+
+    @Override
+    public void transactionCommitStarted(Identifier entityManagerId) {
+        if (verbosityLevel.isDebugModeEnabled()) {
+            log.debug("JPA transaction commit started, EntityManager ID: {}", entityManagerId);
+        }
+
+        stateListener.transactionCommitStarted(entityManagerId);
+    }
+
+    @Override
+    public void transactionCommitFinished(Identifier entityManagerId) {
+        if (verbosityLevel.isDebugModeEnabled()) {
+            log.debug("JPA transaction commit finished, EntityManager ID: {}", entityManagerId);
+        }
+
+        stateListener.transactionCommitFinished(entityManagerId);
+    }
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.tracking;
+
+import com.adgadev.jplusone.core.frame.FramesProvider;
+import com.adgadev.jplusone.core.proxy.Identifier;
+import com.adgadev.jplusone.core.proxy.jpa.InvokedEntityManager;
+import com.adgadev.jplusone.core.registry.SessionNode;
+import lombok.RequiredArgsConstructor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sessions of entity managers which are open, indexed by entity manager identifier, so that SQL statement executed
+ * on a connection acquired by given entity manager can be attributed to its session on any thread. Entity managers
+ * opened on each thread are kept too, as hibernate events (i.e. lazy initialisations) are attributed to the innermost
+ * session open on the thread.
+ */
+@RequiredArgsConstructor
+class OpenSessions {
+
+    private final FramesProvider framesProvider;
+
+    private final Map<Identifier, SessionNode> sessions = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<Deque<Identifier>> threadEntityManagers = new ThreadLocal<>();
+
+    /**
+     * @return true if the session is nested in another session open on current thread
+     */
+    boolean open(Identifier entityManagerId, SessionNode session) {
+        Deque<Identifier> entityManagers = getOrCreateThreadEntityManagers();
+        boolean nested = getCurrentEntityManager(entityManagers) != null;
+
+        sessions.put(entityManagerId, session);
+        entityManagers.push(entityManagerId);
+        return nested;
+    }
+
+    SessionNode close(Identifier entityManagerId) {
+        detach(entityManagerId);
+        return sessions.remove(entityManagerId);
+    }
+
+    /**
+     * Makes already open session the innermost session of current thread, i.e. in thread executing asynchronous task.
+     */
+    void attach(Identifier entityManagerId) {
+        if (sessions.containsKey(entityManagerId)) {
+            getOrCreateThreadEntityManagers().push(entityManagerId);
+        }
+    }
+
+    void detach(Identifier entityManagerId) {
+        Deque<Identifier> entityManagers = threadEntityManagers.get();
+
+        if (entityManagers != null) {
+            entityManagers.removeFirstOccurrence(entityManagerId);
+        }
+    }
+
+    /**
+     * Releases state of current thread if there are no more sessions open on it.
+     *
+     * @return true if there are no more sessions open on current thread
+     */
+    boolean releaseThreadIfNoSessionsOpen() {
+        if (getCurrentEntityManager(threadEntityManagers.get()) == null) {
+            threadEntityManagers.remove();
+            return true;
+        }
+
+        return false;
+    }
+
+    Identifier getCurrentEntityManager() {
+        return getCurrentEntityManager(threadEntityManagers.get());
+    }
+
+    /**
+     * Returns entity manager acquiring the connection. Connection acquired during invocation of an entity manager
+     * proxy is attributed to the {@link InvokedEntityManager invoked entity manager}, on any thread. Otherwise (i.e.
+     * connection acquired by hibernate query or by Spring on unwrapped session) it's innermost entity manager open
+     * on current thread, if the connection is acquired by an entity manager or its transaction, and not i.e. by
+     * JdbcTemplate. It's resolved once per connection, so that statements executed on connections acquired outside
+     * of entity manager are ignored without walking the stack per statement.
+     */
+    Identifier getConnectionEntityManager() {
+        Identifier invokedEntityManagerId = InvokedEntityManager.current();
+
+        if (invokedEntityManagerId != null) {
+            return sessions.containsKey(invokedEntityManagerId) ? invokedEntityManagerId : null;
+        }
+
+        Identifier entityManagerId = getCurrentEntityManager();
+        return entityManagerId != null && framesProvider.isInvokedBy(EntityManager.class, EntityTransaction.class) ? entityManagerId : null;
+    }
+
+    /**
+     * Returns session of given entity manager, or innermost session open on current thread if entity manager is not known.
+     */
+    SessionNode getSession(Identifier entityManagerId) {
+        Identifier sessionEntityManagerId = entityManagerId != null ? entityManagerId : getCurrentEntityManager();
+        return sessionEntityManagerId != null ? sessions.get(sessionEntityManagerId) : null;
+    }
+
+    private Deque<Identifier> getOrCreateThreadEntityManagers() {
+        Deque<Identifier> entityManagers = threadEntityManagers.get();
+
+        if (entityManagers == null) {
+            entityManagers = new ArrayDeque<>();
+            threadEntityManagers.set(entityManagers);
+        }
+
+        return entityManagers;
+    }
+
+    private Identifier getCurrentEntityManager(Deque<Identifier> entityManagers) {
+        if (entityManagers == null) {
+            return null;
+        }
+
+        // entity manager could have been closed by another thread
+        while (!entityManagers.isEmpty() && !sessions.containsKey(entityManagers.peek())) {
+            entityManagers.pop();
+        }
+
+        return entityManagers.peek();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.tracking;
+
+import com.adgadev.jplusone.core.registry.OperationType;
+
+/**
+ * Keeps track of the type of operation currently performed by hibernate on given thread, based on hibernate
+ * events marking start and end of the operation, so that it can be resolved without capturing call frames.
+ * Commit of JPA transaction is tracked separately, as it's marked by the proxy of the transaction,
+ * not by hibernate flush events which are also triggered by explicit flushes.
+ */
+public class OperationTypeTracker {
+
+    private static final int TRANSACTION_COMMIT = OperationType.values().length;
+
+    private final ThreadLocal<int[]> operationsDepth = ThreadLocal.withInitial(() -> new int[OperationType.values().length + 1]);
+
+    public void enter(OperationType operationType) {
+        operationsDepth.get()[operationType.ordinal()]++;
+    }
+
+    public void exit(OperationType operationType) {
+        int[] depth = operationsDepth.get();
+
+        if (depth[operationType.ordinal()] > 0) {
+            depth[operationType.ordinal()]--;
+        }
+    }
+
+    public void enterTransactionCommit() {
+        operationsDepth.get()[TRANSACTION_COMMIT]++;
+    }
+
+    public void exitTransactionCommit() {
+        int[] depth = operationsDepth.get();
+
+        if (depth[TRANSACTION_COMMIT] > 0) {
+            depth[TRANSACTION_COMMIT]--;
+        }
+    }
+
+    public boolean isTransactionCommitInProgress() {
+        return operationsDepth.get()[TRANSACTION_COMMIT] > 0;
+    }
+
+    public OperationType getCurrentOperationType() {
+        int[] depth = operationsDepth.get();
+
+        if (depth[OperationType.COMMIT.ordinal()] > 0 || depth[TRANSACTION_COMMIT] > 0) {
+            return OperationType.COMMIT;
+        } else if (depth[OperationType.IMPLICIT.ordinal()] > 0) {
+            return OperationType.IMPLICIT;
+        } else {
+            return OperationType.EXPLICIT;
+        }
+    }
+
+    public void reset() {
+        operationsDepth.remove();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.tracking;
+
+import com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneSamplingProperties;
+import com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneSamplingProperties.SamplingPolicy;
+import com.adgadev.jplusone.core.registry.SessionTrackingMode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides, when entity manager session is created, whether it should be tracked with full call frames,
+ * with statement counters only, or not at all.
+ *
+ * Adaptive policy keeps the time spent on tracking fully tracked sessions within given fraction
+ * of wall-clock time, measured in one second windows.
+ */
+@Slf4j
+public class SessionSampler {
+
+    private static final long ADAPTIVE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final SamplingPolicy policy;
+
+    private final double rate;
+
+    private final long fixedRateInterval;
+
+    private final long trackingCostBudgetPerWindowNanos;
+
+    private final double cpuBudget;
+
+    private final SessionTrackingMode unsampledSessionMode;
+
+    private final AtomicLong sessionsCounter = new AtomicLong();
+
+    private final LongAdder trackingCostNanos = new LongAdder();
+
+    private final AtomicLong windowStartNanos = new AtomicLong(System.nanoTime());
+
+    private volatile boolean overBudget;
+
+    public SessionSampler(JPlusOneSamplingProperties samplingProperties) {
+        this.policy = samplingProperties.getPolicy();
+        this.rate = samplingProperties.getRate();
+        this.fixedRateInterval = rate > 0 ? Math.max(1, Math.round(1 / rate)) : Long.MAX_VALUE;
+        this.cpuBudget = samplingProperties.getCpuBudget();
+        this.trackingCostBudgetPerWindowNanos = (long) (cpuBudget * ADAPTIVE_WINDOW_NANOS);
+        this.unsampledSessionMode = samplingProperties.getUnsampledSessionMode();
+
+        if (policy != SamplingPolicy.ALWAYS) {
+            log.debug("JPlusOne session sampling enabled, policy: {}, unsampled sessions mode: {}", policy, unsampledSessionMode);
+        }
+    }
+
+    public SessionTrackingMode nextSessionTrackingMode() {
+        return isSampled() ? SessionTrackingMode.FULL : unsampledSessionMode;
+    }
+
+    public void recordTrackingCost(long nanos) {
+        if (policy == SamplingPolicy.ADAPTIVE) {
+            trackingCostNanos.add(nanos);
+        }
+    }
+
+    private boolean isSampled() {
+        switch (policy) {
+            case FIXED_RATE:
+                return rate > 0 && sessionsCounter.getAndIncrement() % fixedRateInterval == 0;
+            case RANDOM:
+                return ThreadLocalRandom.current().nextDouble() < rate;
+            case ADAPTIVE:
+                return isWithinCpuBudget();
+            default:
+                return true;
+        }
+    }
+
+    private boolean isWithinCpuBudget() {
+        long now = System.nanoTime();
+        long windowStart = windowStartNanos.get();
+        long elapsed = now - windowStart;
+
+        if (elapsed >= ADAPTIVE_WINDOW_NANOS && windowStartNanos.compareAndSet(windowStart, now)) {
+            overBudget = trackingCostNanos.sumThenReset() > cpuBudget * elapsed;
+        }
+
+        return !overBudget && trackingCostNanos.sum() <= trackingCostBudgetPerWindowNanos;
+    }
+}
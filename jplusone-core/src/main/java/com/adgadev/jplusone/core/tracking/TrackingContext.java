@@ -50,6 +50,10 @@ public class TrackingContext implements ApplicationListener<ContextRefreshedEven
         recordingEnabledInCurrentThread.set(false);
     }
 
+    public boolean isRecordingEnabledInCurrentThread() {
+        return recordingEnabledInCurrentThread.get();
+    }
+
     public boolean isRecordingEnabled() {
         return recordingEnabledGlobally && recordingEnabledInCurrentThread.get();
     }
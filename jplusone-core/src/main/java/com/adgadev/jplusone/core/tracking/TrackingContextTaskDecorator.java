@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.adgadev.jplusone.core.tracking;
+
+import com.adgadev.jplusone.core.proxy.Identifier;
+import com.adgadev.jplusone.core.proxy.StateListener;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Propagates tracking context of the thread submitting a task to the thread executing it, so that recording state
+ * and the session open on the submitting thread (i.e. used for lazy loading of entities passed to the task) are
+ * respected by tasks run by Spring executors, i.e. by methods annotated with {@code @Async}. The context is captured
+ * once on submission and restored on the executing thread only for the duration of the task.
+ */
+@RequiredArgsConstructor
+public class TrackingContextTaskDecorator implements TaskDecorator {
+
+    private final TrackingContext trackingContext;
+
+    private final StateListener stateListener;
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        boolean recordingEnabled = trackingContext.isRecordingEnabledInCurrentThread();
+        Identifier entityManagerId = stateListener.taskSubmitted();
+
+        return () -> {
+            boolean executingThreadRecordingEnabled = trackingContext.isRecordingEnabledInCurrentThread();
+            setRecordingEnabled(recordingEnabled);
+
+            if (entityManagerId != null) {
+                stateListener.taskStarted(entityManagerId);
+            }
+
+            try {
+                runnable.run();
+
+            } finally {
+                if (entityManagerId != null) {
+                    stateListener.taskFinished(entityManagerId);
+                }
+
+                setRecordingEnabled(executingThreadRecordingEnabled);
+            }
+        };
+    }
+
+    private void setRecordingEnabled(boolean recordingEnabled) {
+        if (recordingEnabled) {
+            trackingContext.enableRecording();
+        } else {
+            trackingContext.disableRecording();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.tracking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Applies {@link TrackingContextTaskDecorator} to each {@link ThreadPoolTaskExecutor}, composed with task decorator
+ * already set on the executor, if any, so that application's own task decorator doesn't need to be replaced.
+ * Executor applies its task decorator on initialisation, hence it's set before the executor is initialised.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class TrackingContextTaskDecoratorBeanPostProcessor implements BeanPostProcessor {
+
+    private static final String TASK_DECORATOR_FIELD = "taskDecorator";
+
+    private final TrackingContextTaskDecorator trackingContextTaskDecorator;
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        if (bean instanceof ThreadPoolTaskExecutor) {
+            ThreadPoolTaskExecutor executor = (ThreadPoolTaskExecutor) bean;
+            TaskDecorator taskDecorator = (TaskDecorator) new DirectFieldAccessor(executor).getPropertyValue(TASK_DECORATOR_FIELD);
+
+            if (taskDecorator == null) {
+                log.debug("Tracking context task decorator set on executor {}", beanName);
+                executor.setTaskDecorator(trackingContextTaskDecorator);
+
+            } else if (!(taskDecorator instanceof TrackingContextTaskDecorator)) {
+                log.debug("Tracking context task decorator composed with task decorator of executor {}", beanName);
+                executor.setTaskDecorator(runnable -> trackingContextTaskDecorator.decorate(taskDecorator.decorate(runnable)));
+            }
+        }
+
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        return bean;
+    }
+}
@@ -18,21 +18,17 @@ package com.adgadev.jplusone.core.tracking;
 
 import com.adgadev.jplusone.core.frame.FramesProvider;
 import com.adgadev.jplusone.core.proxy.Identifier;
+import com.adgadev.jplusone.core.proxy.SqlStatement;
 import com.adgadev.jplusone.core.proxy.StateListener;
 import com.adgadev.jplusone.core.registry.FrameStack;
 import com.adgadev.jplusone.core.registry.LazyInitialisation;
 import com.adgadev.jplusone.core.registry.RootNode;
 import com.adgadev.jplusone.core.registry.SessionNode;
+import com.adgadev.jplusone.core.registry.SessionTrackingMode;
 import com.adgadev.jplusone.core.report.ReportGenerator;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import javax.persistence.EntityManager;
-import java.util.Stack;
-import java.util.function.Supplier;
-
 @Slf4j
-@RequiredArgsConstructor
 public class TrackingStateListener implements StateListener {
 
     private final RootNode root;
@@ -41,42 +37,45 @@ public class TrackingStateListener implements StateListener {
 
     private final ReportGenerator reportGenerator;
 
-    private final ThreadLocal<Stack<SessionNode>> currentSessionStack = ThreadLocal.withInitial(() -> new Stack<>());
+    private final SessionSampler sessionSampler;
+
+    private final OperationTypeTracker operationTypeTracker;
 
-    // TODO: verify content of non closed currentSessionStack after all session closed
+    private final OpenSessions openSessions;
 
-    public TrackingStateListener(TrackingContext context, ReportGenerator reportGenerator, RootNode root) {
+    public TrackingStateListener(FramesProvider framesProvider, ReportGenerator reportGenerator, SessionSampler sessionSampler,
+                                 OperationTypeTracker operationTypeTracker, RootNode root) {
         this.root = root;
         this.reportGenerator = reportGenerator;
-        this.framesProvider = new FramesProvider(context.getApplicationRootPackage());
+        this.sessionSampler = sessionSampler;
+        this.operationTypeTracker = operationTypeTracker;
+        this.framesProvider = framesProvider;
+        this.openSessions = new OpenSessions(framesProvider);
     }
 
     @Override
     public void entityManagerCreated(Identifier entityManagerId) {
-        SessionNode session = SessionNode.create();
-        Stack<SessionNode> sessionStack = currentSessionStack.get();
+        SessionNode session = SessionNode.create(sessionSampler.nextSessionTrackingMode());
 
-        if (!sessionStack.isEmpty()) {
+        if (openSessions.open(entityManagerId, session)) {
             log.debug("Entity manager session is nested in another entity manager session");
         }
-
-        sessionStack.push(session);
     }
 
     @Override
     public void entityManagerClosed(Identifier entityManagerId) {
-        Stack<SessionNode> sessionStack = currentSessionStack.get();
+        SessionNode session = openSessions.close(entityManagerId);
 
-        if (!sessionStack.empty()) {
-            SessionNode session = sessionStack.pop();
-            FrameStack frameStack = framesProvider.captureCallFrames();
-            SessionNode optimizedSession = session.close(frameStack);
-            root.addSession(optimizedSession);
+        if (session != null) {
+            if (session.getTrackingMode() != SessionTrackingMode.IGNORED) {
+                SessionNode optimizedSession = closeSession(session);
+                root.addSession(optimizedSession);
 
-            reportGenerator.handleRecordedSession(optimizedSession);
+                reportGenerator.handleRecordedSession(optimizedSession);
+            }
 
-            if (sessionStack.empty()) {
-                currentSessionStack.remove();
+            if (openSessions.releaseThreadIfNoSessionsOpen()) {
+                operationTypeTracker.reset();
             }
 
         } else {
@@ -85,41 +84,96 @@ public class TrackingStateListener implements StateListener {
     }
 
     @Override
-    public void statementExecuted(String sql) {
-        Stack<SessionNode> sessionStack = currentSessionStack.get();
-        FrameStack frameStack = framesProvider.captureCallFrames();
-
-        if (isExecutedByEntityManager(frameStack)) {
-            if (!sessionStack.empty()) {
-                SessionNode session = sessionStack.peek();
-                session.addStatement(sql, frameStack);
-            } else {
-                log.warn("Session has been closed already");
-            }
+    public Identifier connectionAcquired() {
+        return openSessions.getConnectionEntityManager();
+    }
+
+    private SessionNode closeSession(SessionNode session) {
+        if (session.getTrackingMode() == SessionTrackingMode.FULL) {
+            long start = System.nanoTime();
+            FrameStack frameStack = framesProvider.captureCallFrames();
+            SessionNode optimizedSession = session.close(frameStack);
+            sessionSampler.recordTrackingCost(System.nanoTime() - start);
+            return optimizedSession;
+
+        } else {
+            return session.close(null);
         }
     }
 
     @Override
-    public void statementExecuted(Supplier<String> sqlSupplier) {
-        statementExecuted(sqlSupplier.get());
+    public void statementExecuted(SqlStatement sqlStatement, Identifier entityManagerId) {
+        if (entityManagerId == null) {
+            // connection has been acquired outside of entity manager
+            return;
+        }
+
+        SessionNode session = openSessions.getSession(entityManagerId);
+
+        if (session != null) {
+            if (session.getTrackingMode() != SessionTrackingMode.IGNORED) {
+                trackStatement(session, sqlStatement);
+            }
+
+        } else {
+            log.warn("Session has been closed already");
+        }
+    }
+
+    private void trackStatement(SessionNode session, SqlStatement sqlStatement) {
+        if (session.getTrackingMode() == SessionTrackingMode.FULL) {
+            long start = System.nanoTime();
+            FrameStack frameStack = framesProvider.captureCallFrames();
+            session.addStatement(sqlStatement, frameStack, operationTypeTracker.isTransactionCommitInProgress());
+            sessionSampler.recordTrackingCost(System.nanoTime() - start);
+
+        } else {
+            session.countStatement(sqlStatement, operationTypeTracker.getCurrentOperationType());
+        }
     }
 
     @Override
     public void lazyCollectionInitialized(String entityClassName, String fieldName) {
-        Stack<SessionNode> sessionStack = currentSessionStack.get();
+        SessionNode session = openSessions.getSession(null);
 
-        if (!sessionStack.empty()) {
-            SessionNode session = sessionStack.peek();
-            session.addLazyCollectionInitialisation(LazyInitialisation.collectionLazyInitialisation(entityClassName, fieldName));
+        if (session != null) {
+            if (session.getTrackingMode() == SessionTrackingMode.FULL) {
+                session.addLazyCollectionInitialisation(LazyInitialisation.collectionLazyInitialisation(entityClassName, fieldName));
+            } else if (session.getTrackingMode() == SessionTrackingMode.COUNTERS_ONLY) {
+                session.countLazyCollectionInitialisation();
+            }
 
         } else {
             log.warn("Session has been closed already");
         }
     }
 
-    private boolean isExecutedByEntityManager(FrameStack frameStack) {
-        return frameStack
-                .findLastMatchingFrame(frameExtract -> EntityManager.class.isAssignableFrom(frameExtract.getClazz()))
-                .isPresent();
+    @Override
+    public Identifier taskSubmitted() {
+        return openSessions.getCurrentEntityManager();
+    }
+
+    @Override
+    public void taskStarted(Identifier entityManagerId) {
+        openSessions.attach(entityManagerId);
+    }
+
+    @Override
+    public void taskFinished(Identifier entityManagerId) {
+        openSessions.detach(entityManagerId);
+
+        if (openSessions.releaseThreadIfNoSessionsOpen()) {
+            operationTypeTracker.reset();
+        }
+    }
+
+    @Override
+    public void transactionCommitStarted(Identifier entityManagerId) {
+        operationTypeTracker.enterTransactionCommit();
+    }
+
+    @Override
+    public void transactionCommitFinished(Identifier entityManagerId) {
+        operationTypeTracker.exitTransactionCommit();
     }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.analysis;
+
+import com.adgadev.jplusone.core.frame.FrameClassKind;
+import com.adgadev.jplusone.core.frame.FrameExtract;
+import com.adgadev.jplusone.core.proxy.SqlParameters;
+import com.adgadev.jplusone.core.proxy.SqlStatement;
+import com.adgadev.jplusone.core.registry.FrameStack;
+import com.adgadev.jplusone.core.registry.SessionNode;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DuplicateSelectStatementsDetectorTest {
+
+    private static final String SELECT_BOOK_SQL = "select * from book where id = ?";
+
+    private static final FrameExtract ENTRY_POINT_FRAME = frame("com.example.BookController", "getBooks");
+
+    private static final FrameExtract BOOK_SERVICE_FRAME = frame("com.example.BookService", "findBook");
+
+    private static final FrameExtract AUTHOR_SERVICE_FRAME = frame("com.example.AuthorService", "findBookOfAuthor");
+
+    private final DuplicateSelectStatementsDetector detector = new DuplicateSelectStatementsDetector();
+
+    @Test
+    void shouldDetectDuplicateSelectsAcrossOperations() {
+        SessionNode session = SessionNode.create();
+        session.addStatement(selectBookStatement(1), new FrameStack(List.of(ENTRY_POINT_FRAME, BOOK_SERVICE_FRAME)));
+        session.addStatement(selectBookStatement(2), new FrameStack(List.of(ENTRY_POINT_FRAME, BOOK_SERVICE_FRAME)));
+        session.addStatement(selectBookStatement(1), new FrameStack(List.of(ENTRY_POINT_FRAME, AUTHOR_SERVICE_FRAME)));
+        session.addStatement(selectBookStatement(1), new FrameStack(List.of(ENTRY_POINT_FRAME, BOOK_SERVICE_FRAME)));
+
+        List<DuplicateSelectStatements> findings = detector.detect(session.close(new FrameStack(List.of(ENTRY_POINT_FRAME))));
+
+        assertEquals(1, findings.size());
+        assertEquals(3, findings.get(0).getCount());
+        assertEquals(2, findings.get(0).getRedundantCount());
+        assertEquals(List.of(BOOK_SERVICE_FRAME, AUTHOR_SERVICE_FRAME), findings.get(0).getCallSites());
+        assertTrue(findings.get(0).getSql().endsWith("id = 1"), findings.get(0).getSql());
+    }
+
+    @Test
+    void shouldIgnoreRepeatedWriteStatements() {
+        SessionNode session = SessionNode.create();
+        FrameStack operationFrameStack = new FrameStack(List.of(ENTRY_POINT_FRAME, BOOK_SERVICE_FRAME));
+        session.addStatement(SqlStatement.of("delete from book"), operationFrameStack);
+        session.addStatement(SqlStatement.of("delete from book"), operationFrameStack);
+
+        List<DuplicateSelectStatements> findings = detector.detect(session.close(new FrameStack(List.of(ENTRY_POINT_FRAME))));
+
+        assertTrue(findings.isEmpty());
+    }
+
+    @Test
+    void shouldCompareTypedParameterValues() {
+        SessionNode session = SessionNode.create();
+        FrameStack operationFrameStack = new FrameStack(List.of(ENTRY_POINT_FRAME, BOOK_SERVICE_FRAME));
+        SqlParameters doubleParameters = SqlParameters.ofSize(1);
+        doubleParameters.setDouble(1, 1.0);
+        SqlParameters decimalParameters = SqlParameters.ofSize(1);
+        decimalParameters.setObject(1, new BigDecimal("1.0"));
+        session.addStatement(SqlStatement.withParameters(SELECT_BOOK_SQL, doubleParameters), operationFrameStack);
+        session.addStatement(SqlStatement.withParameters(SELECT_BOOK_SQL, decimalParameters), operationFrameStack);
+
+        List<DuplicateSelectStatements> findings = detector.detect(session.close(new FrameStack(List.of(ENTRY_POINT_FRAME))));
+
+        assertTrue(findings.isEmpty());
+    }
+
+    @Test
+    void shouldIgnoreRepeatedSequenceSelects() {
+        SessionNode session = SessionNode.create();
+        FrameStack operationFrameStack = new FrameStack(List.of(ENTRY_POINT_FRAME, BOOK_SERVICE_FRAME));
+        session.addStatement(SqlStatement.of("select nextval ('hibernate_sequence')"), operationFrameStack);
+        session.addStatement(SqlStatement.of("select nextval ('hibernate_sequence')"), operationFrameStack);
+        session.addStatement(SqlStatement.of("select next value for book_seq from dual"), operationFrameStack);
+        session.addStatement(SqlStatement.of("select next value for book_seq from dual"), operationFrameStack);
+
+        List<DuplicateSelectStatements> findings = detector.detect(session.close(new FrameStack(List.of(ENTRY_POINT_FRAME))));
+
+        assertTrue(findings.isEmpty());
+    }
+
+    private static SqlStatement selectBookStatement(long id) {
+        SqlParameters parameters = SqlParameters.ofSize(1);
+        parameters.setLong(1, id);
+        return SqlStatement.withParameters(SELECT_BOOK_SQL, parameters);
+    }
+
+    private static FrameExtract frame(String className, String methodName) {
+        return new FrameExtract(FrameClassKind.APPLICATION_CLASS, DuplicateSelectStatementsDetectorTest.class, className, methodName, "Test.java", 1);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.analysis;
+
+import com.adgadev.jplusone.core.frame.FrameClassKind;
+import com.adgadev.jplusone.core.frame.FrameExtract;
+import com.adgadev.jplusone.core.proxy.SqlParameters;
+import com.adgadev.jplusone.core.proxy.SqlStatement;
+import com.adgadev.jplusone.core.registry.FrameStack;
+import com.adgadev.jplusone.core.registry.SessionNode;
+import com.adgadev.jplusone.core.sql.StatementType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UnbatchedWriteStatementsDetectorTest {
+
+    private static final String INSERT_BOOK_SQL = "insert into book (id, title) values (?, ?)";
+
+    private static final String INSERT_AUTHOR_SQL = "insert into author (id, name) values (?, ?)";
+
+    private static final FrameExtract ENTRY_POINT_FRAME = frame("com.example.BookController", "saveBooks");
+
+    private static final FrameExtract SERVICE_FRAME = frame("com.example.BookService", "saveBooks");
+
+    private final UnbatchedWriteStatementsDetector detector = new UnbatchedWriteStatementsDetector(3);
+
+    @Test
+    void shouldDetectRepeatedUnbatchedInserts() {
+        SessionNode session = SessionNode.create();
+        FrameStack operationFrameStack = new FrameStack(List.of(ENTRY_POINT_FRAME, SERVICE_FRAME));
+
+        for (int i = 1; i <= 3; i++) {
+            session.addStatement(insertStatement(INSERT_BOOK_SQL, i), operationFrameStack);
+            session.addStatement(insertStatement(INSERT_AUTHOR_SQL, i), operationFrameStack);
+        }
+
+        List<UnbatchedWriteStatements> findings = detector.detect(session.close(new FrameStack(List.of(ENTRY_POINT_FRAME))));
+
+        assertEquals(2, findings.size());
+        assertEquals(StatementType.INSERT, findings.get(0).getStatementType());
+        assertEquals(INSERT_BOOK_SQL, findings.get(0).getSqlTemplate());
+        assertEquals(3, findings.get(0).getCount());
+        assertEquals(SERVICE_FRAME, findings.get(0).getOriginatingFrame());
+        assertEquals(INSERT_AUTHOR_SQL, findings.get(1).getSqlTemplate());
+    }
+
+    @Test
+    void shouldIgnoreStatementsBelowThreshold() {
+        SessionNode session = SessionNode.create();
+        FrameStack operationFrameStack = new FrameStack(List.of(ENTRY_POINT_FRAME, SERVICE_FRAME));
+        session.addStatement(insertStatement(INSERT_BOOK_SQL, 1), operationFrameStack);
+        session.addStatement(insertStatement(INSERT_BOOK_SQL, 2), operationFrameStack);
+
+        List<UnbatchedWriteStatements> findings = detector.detect(session.close(new FrameStack(List.of(ENTRY_POINT_FRAME))));
+
+        assertTrue(findings.isEmpty());
+    }
+
+    @Test
+    void shouldIgnoreBatchedAndReadStatements() {
+        SessionNode session = SessionNode.create();
+        FrameStack operationFrameStack = new FrameStack(List.of(ENTRY_POINT_FRAME, SERVICE_FRAME));
+
+        for (int i = 1; i <= 3; i++) {
+            session.addStatement(SqlStatement.ofBatch(INSERT_BOOK_SQL, 10), operationFrameStack);
+            session.addStatement(SqlStatement.of("select * from book"), operationFrameStack);
+        }
+
+        List<UnbatchedWriteStatements> findings = detector.detect(session.close(new FrameStack(List.of(ENTRY_POINT_FRAME))));
+
+        assertTrue(findings.isEmpty());
+    }
+
+    private static SqlStatement insertStatement(String sql, int id) {
+        SqlParameters parameters = SqlParameters.ofSize(2);
+        parameters.setLong(1, id);
+        parameters.setObject(2, "Name " + id);
+        return SqlStatement.withParameters(sql, parameters);
+    }
+
+    private static FrameExtract frame(String className, String methodName) {
+        return new FrameExtract(FrameClassKind.APPLICATION_CLASS, UnbatchedWriteStatementsDetectorTest.class, className, methodName, "Test.java", 1);
+    }
+}
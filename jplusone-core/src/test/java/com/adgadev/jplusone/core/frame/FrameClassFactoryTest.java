@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.frame;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.StackWalker.StackFrame;
+
+import static java.lang.StackWalker.Option.RETAIN_CLASS_REFERENCE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class FrameClassFactoryTest {
+
+    private static final String[] PROXY_CLASS_NAME_MARKERS = {"$Proxy"};
+
+    @Test
+    void shouldClassifyFramesOncePerDeclaringClassAndMethod() {
+        FrameClassFactory factory = new FrameClassFactory("com.adgadev.jplusone.core", PROXY_CLASS_NAME_MARKERS);
+        StackFrame stackFrame = currentStackFrame();
+
+        FrameClass firstFrameClass = factory.createFrameClass(stackFrame);
+        FrameClass secondFrameClass = factory.createFrameClass(stackFrame);
+
+        assertEquals(FrameClassKind.APPLICATION_CLASS, firstFrameClass.getFrameClassKind());
+        assertEquals(FrameClassFactoryTest.class, firstFrameClass.getFrameClass());
+        assertEquals(FrameClassKind.APPLICATION_CLASS, secondFrameClass.getFrameClassKind());
+        assertEquals(new FrameClassificationCacheStatistics(1, 1), factory.getCacheStatistics());
+    }
+
+    @Test
+    void shouldReuseFrameExtractForTheSameFrameLocation() {
+        FrameClassFactory factory = new FrameClassFactory("com.adgadev.jplusone.core", PROXY_CLASS_NAME_MARKERS);
+        StackFrame stackFrame = currentStackFrame();
+
+        FrameExtract frameExtract = factory.createFrameExtract(stackFrame);
+
+        assertSame(frameExtract, factory.createFrameExtract(stackFrame));
+        assertEquals("shouldReuseFrameExtractForTheSameFrameLocation", frameExtract.getMethodName());
+        assertEquals(stackFrame.getLineNumber(), frameExtract.getLineNumber());
+    }
+
+    @Test
+    void shouldKeepSeparateFrameExtractPerLineNumber() {
+        FrameClassFactory factory = new FrameClassFactory("com.adgadev.jplusone.core", PROXY_CLASS_NAME_MARKERS);
+        StackFrame firstStackFrame = currentStackFrame();
+        StackFrame secondStackFrame = currentStackFrame();
+
+        FrameExtract secondFrameExtract = factory.createFrameExtract(secondStackFrame);
+        FrameExtract firstFrameExtract = factory.createFrameExtract(firstStackFrame);
+
+        assertNotSame(firstFrameExtract, secondFrameExtract);
+        assertSame(firstFrameExtract, factory.createFrameExtract(firstStackFrame));
+        assertSame(secondFrameExtract, factory.createFrameExtract(secondStackFrame));
+        assertEquals(firstStackFrame.getLineNumber(), firstFrameExtract.getLineNumber());
+        assertEquals(secondStackFrame.getLineNumber(), secondFrameExtract.getLineNumber());
+    }
+
+    @Test
+    void shouldClassifyFrameOutsideRootPackageAsThirdPartyClass() {
+        FrameClassFactory factory = new FrameClassFactory("com.sampleorganisation", PROXY_CLASS_NAME_MARKERS);
+
+        FrameClass frameClass = factory.createFrameClass(currentStackFrame());
+
+        assertEquals(FrameClassKind.THIRD_PARTY_CLASS, frameClass.getFrameClassKind());
+        assertEquals(0.0, factory.getCacheStatistics().getHitRate());
+    }
+
+    private static StackFrame currentStackFrame() {
+        return StackWalker.getInstance(RETAIN_CLASS_REFERENCE)
+                .walk(stream -> stream.skip(1).findFirst())
+                .get();
+    }
+}
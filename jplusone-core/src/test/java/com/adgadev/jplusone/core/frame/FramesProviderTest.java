@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.frame;
+
+import com.adgadev.jplusone.core.registry.FrameStack;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FramesProviderTest {
+
+    private static final int MAX_CALL_FRAMES_DEPTH = 3;
+
+    private final FramesProvider framesProvider = new FramesProvider("com.adgadev.jplusone.core", MAX_CALL_FRAMES_DEPTH);
+
+    @Test
+    void shouldDetectInvokingClassBeyondMaxCallFramesDepth() {
+        boolean invoked = OuterCaller.call(() -> nested(10, () -> framesProvider.isInvokedBy(OuterCaller.class)));
+
+        assertTrue(invoked);
+    }
+
+    @Test
+    void shouldNotDetectClassWhichIsNotOnCallStack() {
+        boolean invoked = nested(10, () -> framesProvider.isInvokedBy(OuterCaller.class));
+
+        assertFalse(invoked);
+    }
+
+    @Test
+    void shouldCaptureCallFramesUpToMaxCallFramesDepth() {
+        FrameStack frameStack = nested(10, framesProvider::captureCallFrames);
+
+        assertEquals(MAX_CALL_FRAMES_DEPTH, frameStack.size());
+        assertTrue(framesProvider.isTruncated(frameStack));
+    }
+
+    @Test
+    void shouldNotReportCompleteFrameStackAsTruncated() {
+        FramesProvider unlimitedFramesProvider = new FramesProvider("com.adgadev.jplusone.core");
+
+        FrameStack frameStack = unlimitedFramesProvider.captureCallFrames();
+
+        assertFalse(unlimitedFramesProvider.isTruncated(frameStack));
+    }
+
+    private static <T> T nested(int depth, Supplier<T> action) {
+        return depth > 0 ? nested(depth - 1, action) : action.get();
+    }
+
+    private static class OuterCaller {
+
+        static <T> T call(Supplier<T> action) {
+            return action.get();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.metrics;
+
+import com.adgadev.jplusone.core.frame.FrameClassKind;
+import com.adgadev.jplusone.core.frame.FrameExtract;
+import com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneReportProperties;
+import com.adgadev.jplusone.core.proxy.SqlStatement;
+import com.adgadev.jplusone.core.registry.FrameStack;
+import com.adgadev.jplusone.core.registry.LazyInitialisation;
+import com.adgadev.jplusone.core.registry.OperationType;
+import com.adgadev.jplusone.core.registry.SessionNode;
+import com.adgadev.jplusone.core.registry.SessionTrackingMode;
+import com.adgadev.jplusone.core.report.AsyncReportGenerator;
+import com.adgadev.jplusone.core.report.ReportGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.Entity;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JPlusOneMeterBinderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final JPlusOneMeterBinder meterBinder = new JPlusOneMeterBinder(1);
+
+    @BeforeEach
+    void setUp() {
+        meterBinder.bindTo(meterRegistry);
+    }
+
+    @Test
+    void shouldRecordSessionWithLazyLoading() {
+        meterBinder.sessionRecorded(sessionWithLazyLoading("BookController"));
+
+        assertEquals(1, meterRegistry.get("jplusone.session.statements").tag("tracking.mode", "FULL").summary().count());
+        assertEquals(2.0, meterRegistry.get("jplusone.session.statements").summary().totalAmount());
+        assertEquals(1.0, meterRegistry.get("jplusone.session.implicit.operations").summary().totalAmount());
+        assertEquals(1.0, meterRegistry.get("jplusone.n.plus.one.operations").tag("entry.point", "BookController.getBook").counter().count());
+        assertEquals(1.0, meterRegistry.get("jplusone.lazy.initialisations")
+                .tag("entity", Book.class.getCanonicalName())
+                .tag("field", "authors")
+                .counter().count());
+    }
+
+    @Test
+    void shouldBoundTagValues() {
+        meterBinder.sessionRecorded(sessionWithLazyLoading("BookController"));
+        meterBinder.sessionRecorded(sessionWithLazyLoading("AuthorController"));
+
+        assertEquals(1.0, meterRegistry.get("jplusone.n.plus.one.operations").tag("entry.point", "BookController.getBook").counter().count());
+        assertEquals(1.0, meterRegistry.get("jplusone.n.plus.one.operations").tag("entry.point", BoundedTagValues.OTHER_VALUE).counter().count());
+    }
+
+    @Test
+    void shouldBoundPairsOfEntityAndFieldTagValues() {
+        meterBinder.sessionRecorded(sessionWithLazyInitialisation("authors"));
+        meterBinder.sessionRecorded(sessionWithLazyInitialisation("reviews"));
+        meterBinder.sessionRecorded(sessionWithLazyInitialisation("authors"));
+
+        assertEquals(2.0, meterRegistry.get("jplusone.lazy.initialisations")
+                .tag("entity", Book.class.getCanonicalName())
+                .tag("field", "authors")
+                .counter().count());
+        assertEquals(1.0, meterRegistry.get("jplusone.lazy.initialisations")
+                .tag("entity", BoundedTagValues.OTHER_VALUE)
+                .tag("field", BoundedTagValues.OTHER_VALUE)
+                .counter().count());
+        assertEquals(2, meterRegistry.get("jplusone.lazy.initialisations").counters().size());
+    }
+
+    @Test
+    void shouldReuseMetersOfRecordedSessions() {
+        meterBinder.sessionRecorded(sessionWithLazyLoading("BookController"));
+        meterBinder.sessionRecorded(sessionWithLazyLoading("BookController"));
+
+        assertEquals(2, meterRegistry.get("jplusone.session.statements").tag("tracking.mode", "FULL").summary().count());
+        assertEquals(2.0, meterRegistry.get("jplusone.n.plus.one.operations").counter().count());
+        assertEquals(2.0, meterRegistry.get("jplusone.lazy.initialisations").counter().count());
+    }
+
+    @Test
+    void shouldRecordOnlyStatementsOfCountersOnlySession() {
+        SessionNode session = SessionNode.create(SessionTrackingMode.COUNTERS_ONLY);
+        session.countStatement(SqlStatement.of("select * from book"), OperationType.EXPLICIT);
+
+        meterBinder.sessionRecorded(session.close(null));
+
+        assertEquals(1.0, meterRegistry.get("jplusone.session.statements").tag("tracking.mode", "COUNTERS_ONLY").summary().totalAmount());
+        assertNull(meterRegistry.find("jplusone.session.implicit.operations").summary());
+    }
+
+    @Test
+    void shouldExportMetersOfAsyncReportGenerator() {
+        JPlusOneReportProperties reportProperties = new JPlusOneReportProperties();
+        reportProperties.getAsync().setEnabled(true);
+        AsyncReportGenerator reportGenerator = new AsyncReportGenerator(reportProperties);
+        new JPlusOneMeterBinder(1, reportGenerator).bindTo(meterRegistry);
+
+        reportGenerator.handleRecordedSession(SessionNode.create().close(null));
+        reportGenerator.close();
+
+        assertEquals(0.0, meterRegistry.get("jplusone.report.queue.depth").gauge().value());
+        assertEquals(1.0, meterRegistry.get("jplusone.report.generated").functionCounter().count());
+        assertEquals(0.0, meterRegistry.get("jplusone.report.dropped").functionCounter().count());
+    }
+
+    @Test
+    void shouldNotExportMetersOfSynchronousReportGenerator() {
+        new JPlusOneMeterBinder(1, new ReportGenerator(new JPlusOneReportProperties())).bindTo(meterRegistry);
+
+        assertNull(meterRegistry.find("jplusone.report.queue.depth").gauge());
+    }
+
+    private static SessionNode sessionWithLazyLoading(String controllerName) {
+        FrameExtract entryPointFrame = frame(JPlusOneMeterBinderTest.class, "com.example." + controllerName, "getBook");
+        FrameExtract serviceFrame = frame(JPlusOneMeterBinderTest.class, "com.example.BookService", "findBook");
+        FrameExtract entityFrame = frame(Book.class, Book.class.getCanonicalName(), "getAuthors");
+
+        SessionNode session = SessionNode.create();
+        session.addStatement(SqlStatement.of("select * from book"), new FrameStack(List.of(entryPointFrame, serviceFrame)));
+        session.addStatement(SqlStatement.of("select * from author"), new FrameStack(List.of(entryPointFrame, entityFrame)));
+        session.addLazyCollectionInitialisation(LazyInitialisation.collectionLazyInitialisation(Book.class.getCanonicalName(), "authors"));
+
+        return session.close(new FrameStack(List.of(entryPointFrame)));
+    }
+
+    private static SessionNode sessionWithLazyInitialisation(String fieldName) {
+        FrameExtract entryPointFrame = frame(JPlusOneMeterBinderTest.class, "com.example.BookController", "getBook");
+
+        SessionNode session = SessionNode.create();
+        session.addStatement(SqlStatement.of("select * from book"), new FrameStack(List.of(entryPointFrame)));
+        session.addLazyCollectionInitialisation(LazyInitialisation.collectionLazyInitialisation(Book.class.getCanonicalName(), fieldName));
+
+        return session.close(new FrameStack(List.of(entryPointFrame)));
+    }
+
+    private static FrameExtract frame(Class<?> clazz, String className, String methodName) {
+        return new FrameExtract(FrameClassKind.APPLICATION_CLASS, clazz, className, methodName, "Test.java", 1);
+    }
+
+    @Entity
+    static class Book {
+    }
+}
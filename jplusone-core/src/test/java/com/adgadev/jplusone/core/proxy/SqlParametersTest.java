@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.proxy;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SqlParametersTest {
+
+    @Test
+    void shouldRenderPrimitiveParameters() {
+        SqlParameters parameters = SqlParameters.ofSize(4);
+        parameters.setBoolean(1, true);
+        parameters.setLong(2, -42L);
+        parameters.setFloat(3, 1.1f);
+        parameters.setDouble(4, 2.5);
+
+        assertEquals("true", parameters.toLiteral(0));
+        assertEquals("-42", parameters.toLiteral(1));
+        assertEquals("1.1", parameters.toLiteral(2));
+        assertEquals("2.5", parameters.toLiteral(3));
+    }
+
+    @Test
+    void shouldRenderObjectParameters() {
+        UUID uuid = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+        SqlParameters parameters = SqlParameters.ofSize(6);
+        parameters.setObject(1, "O'Reilly");
+        parameters.setObject(2, new BigDecimal("1E+3"));
+        parameters.setObject(3, Timestamp.valueOf("2020-09-14 19:41:45.138"));
+        parameters.setObject(4, uuid);
+        parameters.setObject(5, new byte[] {0x0A, (byte) 0xFF});
+        parameters.setObject(6, null);
+
+        assertEquals("'O''Reilly'", parameters.toLiteral(0));
+        assertEquals("1000", parameters.toLiteral(1));
+        assertEquals("'2020-09-14 19:41:45.138'", parameters.toLiteral(2));
+        assertEquals("'123e4567-e89b-12d3-a456-426614174000'", parameters.toLiteral(3));
+        assertEquals("X'0AFF'", parameters.toLiteral(4));
+        assertEquals("NULL", parameters.toLiteral(5));
+    }
+
+    @Test
+    void shouldNotRenderUnboundParameters() {
+        SqlParameters parameters = SqlParameters.ofSize(2);
+        parameters.setLong(1, 1L);
+        parameters.clear();
+        parameters.setDescription(2, "<STREAM>");
+
+        assertNull(parameters.toLiteral(0));
+        assertEquals("<STREAM>", parameters.toLiteral(1));
+        assertNull(parameters.toLiteral(2));
+    }
+
+    @Test
+    void shouldIgnoreParameterIndexOutOfRange() {
+        SqlParameters parameters = SqlParameters.ofSize(1);
+        parameters.setLong(0, 1L);
+        parameters.setLong(2, 2L);
+
+        assertNull(parameters.toLiteral(0));
+    }
+
+    @Test
+    void shouldNotChangeSnapshotWhenParametersAreRebound() {
+        SqlParameters parameters = SqlParameters.ofSize(1);
+        parameters.setObject(1, "Godfather");
+        SqlParameters snapshot = parameters.snapshot();
+        parameters.setLong(1, 7L);
+
+        assertEquals("'Godfather'", snapshot.toLiteral(0));
+    }
+
+    @Test
+    void shouldNotChangeSnapshotWhenMutableValuesAreModified() {
+        Timestamp timestamp = Timestamp.valueOf("2020-09-14 19:41:45.138");
+        byte[] bytes = new byte[] {1, 2};
+        SqlParameters parameters = SqlParameters.ofSize(2);
+        parameters.setObject(1, timestamp);
+        parameters.setObject(2, bytes);
+        SqlParameters snapshot = parameters.snapshot();
+        timestamp.setTime(0);
+        bytes[0] = 0;
+
+        assertEquals("'2020-09-14 19:41:45.138'", snapshot.toLiteral(0));
+        assertEquals("X'0102'", snapshot.toLiteral(1));
+    }
+
+    @Test
+    void shouldRenderSnapshotOfLongBinaryValueAsTruncated() {
+        byte[] bytes = new byte[1024];
+        SqlParameters parameters = SqlParameters.ofSize(1);
+        parameters.setObject(1, bytes);
+
+        assertEquals(parameters.toLiteral(0), parameters.snapshot().toLiteral(0));
+    }
+
+    @Test
+    void shouldEqualParametersWithSameTypedValues() {
+        SqlParameters parameters = SqlParameters.ofSize(2);
+        parameters.setLong(1, 1L);
+        parameters.setObject(2, new byte[] {1, 2});
+        SqlParameters sameParameters = SqlParameters.ofSize(2);
+        sameParameters.setLong(1, 1L);
+        sameParameters.setObject(2, new byte[] {1, 2});
+        SqlParameters otherTypeParameters = SqlParameters.ofSize(2);
+        otherTypeParameters.setObject(1, 1L);
+        otherTypeParameters.setObject(2, new byte[] {1, 2});
+
+        assertEquals(parameters, sameParameters);
+        assertEquals(parameters.hashCode(), sameParameters.hashCode());
+        assertNotEquals(parameters, otherTypeParameters);
+    }
+}
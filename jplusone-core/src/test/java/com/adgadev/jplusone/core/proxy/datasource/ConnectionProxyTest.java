@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.proxy.datasource;
+
+import com.adgadev.jplusone.core.proxy.SqlStatement;
+import com.adgadev.jplusone.core.proxy.StateListener;
+import com.adgadev.jplusone.core.sql.StatementTemplateCache;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionProxyTest {
+
+    private final List<SqlStatement> executedStatements = new ArrayList<>();
+
+    private final StateListener stateListener = (StateListener) Proxy.newProxyInstance(
+            ConnectionProxyTest.class.getClassLoader(),
+            new Class<?>[] {StateListener.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("statementExecuted")) {
+                    executedStatements.add((SqlStatement) args[0]);
+                }
+
+                return null;
+            });
+
+    @Test
+    void shouldTrackCallableStatementExecution() throws SQLException {
+        Connection connection = new ConnectionProxy(jdbcObject(Connection.class), stateListener, null, new StatementTemplateCache());
+
+        CallableStatement statement = connection.prepareCall("{call archive_book(?)}");
+        statement.setLong(1, 7L);
+        statement.execute();
+
+        assertEquals(1, executedStatements.size());
+        assertEquals("{call archive_book(7)}", executedStatements.get(0).getSql());
+        assertSame(connection, statement.getConnection());
+    }
+
+    @Test
+    void shouldUnwrapToProxyWhenItImplementsRequestedInterface() throws SQLException {
+        Connection delegate = jdbcObject(Connection.class);
+        Connection connection = new ConnectionProxy(delegate, stateListener, null, new StatementTemplateCache());
+
+        assertSame(connection, connection.unwrap(Connection.class));
+        assertTrue(connection.isWrapperFor(Connection.class));
+        assertFalse(connection.isWrapperFor(DatabaseMetaData.class));
+    }
+
+    @Test
+    void shouldReturnConnectionProxyFromCreatedObjects() throws SQLException {
+        Connection connection = new ConnectionProxy(jdbcObject(Connection.class), stateListener, null, new StatementTemplateCache());
+
+        PreparedStatement statement = connection.prepareStatement("select * from book");
+
+        assertSame(connection, statement.getConnection());
+        assertSame(connection, connection.createStatement().getConnection());
+        assertSame(connection, connection.getMetaData().getConnection());
+        assertSame(statement, statement.unwrap(PreparedStatement.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T jdbcObject(Class<T> type) {
+        return (T) Proxy.newProxyInstance(
+                ConnectionProxyTest.class.getClassLoader(),
+                new Class<?>[] {type},
+                (proxy, method, args) -> {
+                    Class<?> returnType = method.getReturnType();
+
+                    if (returnType.isInterface() && returnType.getName().startsWith("java.sql.")) {
+                        return jdbcObject(returnType);
+                    }
+
+                    return returnType == boolean.class ? false : returnType == int.class ? 0 : null;
+                });
+    }
+}
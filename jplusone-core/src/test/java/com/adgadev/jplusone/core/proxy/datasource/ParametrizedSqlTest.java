@@ -16,6 +16,7 @@
 
 package com.adgadev.jplusone.core.proxy.datasource;
 
+import com.adgadev.jplusone.core.proxy.SqlStatement;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -29,7 +30,18 @@ class ParametrizedSqlTest {
         parametrizedSql.setInt(1, 100);
         parametrizedSql.setString(2, "abc");
 
-        assertEquals("SELECT id FROM table t WHERE t.int_column = 100 AND t.str_column = 'abc'", parametrizedSql.getSqlWithParameters());
+        assertEquals("SELECT id FROM table t WHERE t.int_column = 100 AND t.str_column = 'abc'", parametrizedSql.toSqlStatement().getSql());
+    }
+
+    @Test
+    void shouldSnapshotParametersBoundAtExecution() {
+        ParametrizedSql parametrizedSql = ParametrizedSql.forSql("SELECT id FROM table t WHERE t.int_column = ?");
+        parametrizedSql.setInt(1, 100);
+        SqlStatement sqlStatement = parametrizedSql.toSqlStatement();
+        parametrizedSql.setInt(1, 200);
+
+        assertEquals("SELECT id FROM table t WHERE t.int_column = 100", sqlStatement.getSql());
+        assertEquals("SELECT id FROM table t WHERE t.int_column = ?", sqlStatement.getSqlTemplate());
     }
 
 }
\ No newline at end of file
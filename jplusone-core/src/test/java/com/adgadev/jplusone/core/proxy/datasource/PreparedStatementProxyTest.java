@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.proxy.datasource;
+
+import com.adgadev.jplusone.core.proxy.Identifier;
+import com.adgadev.jplusone.core.proxy.SqlStatement;
+import com.adgadev.jplusone.core.proxy.StateListener;
+import com.adgadev.jplusone.core.sql.StatementTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PreparedStatementProxyTest {
+
+    private static final long EXECUTION_TIME_MILLIS = 5;
+
+    private final RecordingStateListener stateListener = new RecordingStateListener();
+
+    @Test
+    void shouldRecordExecutionTimeOfStatement() throws SQLException {
+        PreparedStatementProxy statement = new PreparedStatementProxy(preparedStatement(false), null, stateListener, null, StatementTemplate.parse("select * from book where id = ?"));
+        statement.setLong(1, 1L);
+
+        statement.executeQuery();
+
+        assertEquals(1, stateListener.executedStatements.size());
+        assertEquals("select * from book where id = 1", stateListener.executedStatements.get(0).getSql());
+        assertExecutionTimeRecorded(stateListener.executedStatements.get(0));
+    }
+
+    @Test
+    void shouldRecordExecutionTimeOfFailedStatement() {
+        PreparedStatementProxy statement = new PreparedStatementProxy(preparedStatement(true), null, stateListener, null, StatementTemplate.parse("delete from book"));
+
+        assertThrows(SQLException.class, statement::executeUpdate);
+
+        assertEquals(1, stateListener.executedStatements.size());
+        assertExecutionTimeRecorded(stateListener.executedStatements.get(0));
+    }
+
+    @Test
+    void shouldTrackBatchAsSingleStatement() throws SQLException {
+        PreparedStatementProxy statement = new PreparedStatementProxy(preparedStatement(false), null, stateListener, null, StatementTemplate.parse("insert into book (id, title) values (?, ?)"));
+
+        for (int i = 1; i <= ParametrizedSql.MAX_CAPTURED_BATCH_ROWS + 2; i++) {
+            statement.setInt(1, i);
+            statement.setString(2, "Book " + i);
+            statement.addBatch();
+        }
+
+        statement.executeBatch();
+
+        assertEquals(1, stateListener.executedStatements.size());
+        SqlStatement sqlStatement = stateListener.executedStatements.get(0);
+        assertEquals(ParametrizedSql.MAX_CAPTURED_BATCH_ROWS + 2, sqlStatement.getBatchSize());
+        assertEquals("insert into book (id, title) values (1, 'Book 1')", sqlStatement.getSql());
+        assertEquals(ParametrizedSql.MAX_CAPTURED_BATCH_ROWS, sqlStatement.renderBatchParameters().size());
+        assertEquals("2, 'Book 2'", sqlStatement.renderBatchParameters().get(1));
+        assertExecutionTimeRecorded(sqlStatement);
+    }
+
+    @Test
+    void shouldStartNewBatchAfterBatchExecution() throws SQLException {
+        PreparedStatementProxy statement = new PreparedStatementProxy(preparedStatement(false), null, stateListener, null, StatementTemplate.parse("delete from book where id = ?"));
+        statement.setInt(1, 1);
+        statement.addBatch();
+        statement.executeBatch();
+
+        statement.setInt(1, 2);
+        statement.addBatch();
+        statement.executeBatch();
+
+        assertEquals(2, stateListener.executedStatements.size());
+        assertEquals(1, stateListener.executedStatements.get(1).getBatchSize());
+        assertEquals("delete from book where id = 2", stateListener.executedStatements.get(1).getSql());
+    }
+
+    @Test
+    void shouldNotTrackEmptyBatch() throws SQLException {
+        PreparedStatementProxy statement = new PreparedStatementProxy(preparedStatement(false), null, stateListener, null, StatementTemplate.parse("delete from book where id = ?"));
+
+        statement.executeBatch();
+        statement.executeLargeBatch();
+
+        assertTrue(stateListener.executedStatements.isEmpty());
+    }
+
+    private static void assertExecutionTimeRecorded(SqlStatement sqlStatement) {
+        long executionTimeNanos = sqlStatement.getMetrics().getExecutionTime().toNanos();
+        assertTrue(executionTimeNanos >= TimeUnit.MILLISECONDS.toNanos(EXECUTION_TIME_MILLIS), "Execution time: " + executionTimeNanos);
+    }
+
+    private static PreparedStatement preparedStatement(boolean failing) {
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatementProxyTest.class.getClassLoader(),
+                new Class<?>[] {PreparedStatement.class},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("execute")) {
+                        Thread.sleep(EXECUTION_TIME_MILLIS);
+
+                        if (failing) {
+                            throw new SQLException("Statement failed");
+                        }
+                    }
+
+                    return method.getReturnType() == int.class ? 0 : null;
+                });
+    }
+
+    private static class RecordingStateListener implements StateListener {
+
+        private final List<SqlStatement> executedStatements = new ArrayList<>();
+
+        @Override
+        public void entityManagerCreated(Identifier entityManagerId) {
+        }
+
+        @Override
+        public void entityManagerClosed(Identifier entityManagerId) {
+        }
+
+        @Override
+        public Identifier connectionAcquired() {
+            return null;
+        }
+
+        @Override
+        public void statementExecuted(SqlStatement sqlStatement, Identifier entityManagerId) {
+            executedStatements.add(sqlStatement);
+        }
+
+        @Override
+        public void lazyCollectionInitialized(String entityClassName, String fieldName) {
+        }
+
+        @Override
+        public Identifier taskSubmitted() {
+            return null;
+        }
+
+        @Override
+        public void taskStarted(Identifier entityManagerId) {
+        }
+
+        @Override
+        public void taskFinished(Identifier entityManagerId) {
+        }
+
+        @Override
+        public void transactionCommitStarted(Identifier entityManagerId) {
+        }
+
+        @Override
+        public void transactionCommitFinished(Identifier entityManagerId) {
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.proxy.datasource;
+
+import com.adgadev.jplusone.core.proxy.StatementMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResultSetProxyTest {
+
+    private final StatementMetrics statementMetrics = new StatementMetrics();
+
+    @Test
+    void shouldRecordConsumedRowsWhenResultSetIsExhausted() throws SQLException {
+        ResultSet resultSet = ResultSetProxy.wrap(resultSet(3), null, statementMetrics);
+
+        while (resultSet.next()) {
+            resultSet.getLong(1);
+            resultSet.getString("title");
+        }
+
+        assertTrue(statementMetrics.isResultSetRead());
+        assertEquals(3, statementMetrics.getRowsCount());
+        assertEquals(50, statementMetrics.getFetchSize());
+        assertEquals(3 * (8 + 2 * "Godfather".length()), statementMetrics.getEstimatedResultSetBytes());
+    }
+
+    @Test
+    void shouldRecordConsumedRowsWhenResultSetIsClosed() throws SQLException {
+        ResultSet resultSet = ResultSetProxy.wrap(resultSet(3), null, statementMetrics);
+
+        resultSet.next();
+        resultSet.close();
+
+        assertTrue(statementMetrics.isResultSetRead());
+        assertEquals(1, statementMetrics.getRowsCount());
+    }
+
+    @Test
+    void shouldNotRecordResultSetWhichIsNotRead() throws SQLException {
+        ResultSetProxy.wrap(resultSet(3), null, statementMetrics);
+
+        assertFalse(statementMetrics.isResultSetRead());
+    }
+
+    @Test
+    void shouldReadAndCloseResultSetWhenMetricsCannotBeRecorded() throws SQLException {
+        AtomicBoolean closed = new AtomicBoolean();
+        ResultSet resultSet = ResultSetProxy.wrap(resultSet(1, true, closed), null, statementMetrics);
+
+        assertTrue(resultSet.next());
+        assertFalse(resultSet.next());
+        resultSet.close();
+
+        assertTrue(closed.get());
+        assertFalse(statementMetrics.isResultSetRead());
+    }
+
+    private static ResultSet resultSet(int rowsCount) {
+        return resultSet(rowsCount, false, new AtomicBoolean());
+    }
+
+    private static ResultSet resultSet(int rowsCount, boolean fetchSizeUnavailable, AtomicBoolean closed) {
+        AtomicInteger currentRow = new AtomicInteger();
+
+        return (ResultSet) Proxy.newProxyInstance(
+                ResultSetProxyTest.class.getClassLoader(),
+                new Class<?>[] {ResultSet.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next": return currentRow.incrementAndGet() <= rowsCount;
+                        case "getLong": return (long) currentRow.get();
+                        case "getString": return "Godfather";
+                        case "isClosed": return false;
+                        case "close": closed.set(true); return null;
+                        case "getFetchSize":
+                            if (fetchSizeUnavailable) {
+                                throw new SQLException("Fetch size unavailable");
+                            }
+                            return 50;
+                        default: return null;
+                    }
+                });
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.proxy.hibernate;
+
+import com.adgadev.jplusone.core.properties.JPlusOneProperties;
+import com.adgadev.jplusone.core.properties.JPlusOneProperties.TrackingMode;
+import com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneSamplingProperties.SamplingPolicy;
+import com.adgadev.jplusone.core.proxy.hibernate.HibernateOperationBoundaryEventListener.FlushBoundaryListener;
+import com.adgadev.jplusone.core.proxy.hibernate.HibernateOperationBoundaryEventListener.LoadBoundaryListener;
+import com.adgadev.jplusone.core.registry.OperationType;
+import com.adgadev.jplusone.core.registry.SessionTrackingMode;
+import com.adgadev.jplusone.core.tracking.OperationTypeTracker;
+import org.hibernate.HibernateException;
+import org.hibernate.event.spi.LoadEventListener;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HibernateOperationBoundaryEventListenerTest {
+
+    private final OperationTypeTracker operationTypeTracker = new OperationTypeTracker();
+
+    @Test
+    void shouldMarkOperationWhileDelegatesAreInvoked() {
+        List<OperationType> operationTypes = new ArrayList<>();
+        LoadBoundaryListener listener = new LoadBoundaryListener(List.of(
+                (event, loadType) -> operationTypes.add(operationTypeTracker.getCurrentOperationType()),
+                (event, loadType) -> operationTypes.add(operationTypeTracker.getCurrentOperationType())),
+                operationTypeTracker);
+
+        listener.onLoad(null, LoadEventListener.IMMEDIATE_LOAD);
+        listener.onLoad(null, LoadEventListener.GET);
+
+        assertEquals(List.of(OperationType.IMPLICIT, OperationType.IMPLICIT, OperationType.EXPLICIT, OperationType.EXPLICIT), operationTypes);
+        assertEquals(OperationType.EXPLICIT, operationTypeTracker.getCurrentOperationType());
+    }
+
+    @Test
+    void shouldExitOperationWhenDelegateThrows() {
+        FlushBoundaryListener listener = new FlushBoundaryListener(List.of(event -> {
+            throw new HibernateException("Flush failed");
+        }), operationTypeTracker);
+
+        assertThrows(HibernateException.class, () -> listener.onFlush(null));
+
+        assertEquals(OperationType.EXPLICIT, operationTypeTracker.getCurrentOperationType());
+    }
+
+    @Test
+    void shouldResolveWhetherCountersOnlyTrackingIsPossible() {
+        JPlusOneProperties properties = new JPlusOneProperties();
+        assertFalse(properties.isCountersOnlyTrackingPossible());
+
+        properties.getSampling().setPolicy(SamplingPolicy.RANDOM);
+        assertTrue(properties.isCountersOnlyTrackingPossible());
+
+        properties.getSampling().setUnsampledSessionMode(SessionTrackingMode.IGNORED);
+        assertFalse(properties.isCountersOnlyTrackingPossible());
+
+        properties.setTrackingMode(TrackingMode.COUNTERS_ONLY);
+        assertTrue(properties.isCountersOnlyTrackingPossible());
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.proxy.jpa;
+
+import com.adgadev.jplusone.core.proxy.Identifier;
+import com.adgadev.jplusone.core.proxy.SqlStatement;
+import com.adgadev.jplusone.core.proxy.StateListener;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EntityManagerProxyFactoryTest {
+
+    private final List<String> events = new ArrayList<>();
+
+    private final StateListener stateListener = new EventRecordingStateListener();
+
+    @Test
+    void shouldMarkTransactionCommit() {
+        EntityManager entityManager = EntityManagerProxyFactory.createProxy(
+                entityManager(), stateListener, Identifier.nextEntityManagerIdentifier());
+
+        EntityTransaction transaction = entityManager.getTransaction();
+        transaction.begin();
+        transaction.commit();
+        entityManager.close();
+
+        assertEquals(List.of("begin", "commitStarted", "commit", "commitFinished", "closed"), events);
+    }
+
+    @Test
+    void shouldReuseTransactionProxy() {
+        EntityManager entityManager = EntityManagerProxyFactory.createProxy(
+                entityManager(), stateListener, Identifier.nextEntityManagerIdentifier());
+
+        assertSame(entityManager.getTransaction(), entityManager.getTransaction());
+    }
+
+    @Test
+    void shouldDispatchNotInterceptedMethodsToTarget() {
+        EntityManager entityManager = EntityManagerProxyFactory.createProxy(
+                entityManager(), stateListener, Identifier.nextEntityManagerIdentifier());
+
+        assertTrue(entityManager.isOpen());
+        assertEquals(List.of(), events);
+    }
+
+    @Test
+    void shouldMarkEntityManagerInvokedDuringDelegatedCall() {
+        Identifier outerEntityManagerId = Identifier.nextEntityManagerIdentifier();
+        Identifier innerEntityManagerId = Identifier.nextEntityManagerIdentifier();
+        EntityManager innerEntityManager = EntityManagerProxyFactory.createProxy(
+                entityManagerExecuting(() -> events.add("inner:" + InvokedEntityManager.current())), stateListener, innerEntityManagerId);
+        EntityManager outerEntityManager = EntityManagerProxyFactory.createProxy(
+                entityManagerExecuting(() -> {
+                    innerEntityManager.flush();
+                    events.add("outer:" + InvokedEntityManager.current());
+                }), stateListener, outerEntityManagerId);
+
+        outerEntityManager.flush();
+
+        assertEquals(List.of("inner:" + innerEntityManagerId, "outer:" + outerEntityManagerId), events);
+        assertNull(InvokedEntityManager.current());
+    }
+
+    @Test
+    void shouldMarkEntityManagerInvokedDuringTransactionCommit() {
+        Identifier entityManagerId = Identifier.nextEntityManagerIdentifier();
+        EntityManager entityManager = EntityManagerProxyFactory.createProxy(
+                entityManager(() -> events.add("commit:" + InvokedEntityManager.current())), stateListener, entityManagerId);
+
+        entityManager.getTransaction().commit();
+
+        assertEquals(List.of("commitStarted", "commit:" + entityManagerId, "commitFinished"), events);
+        assertNull(InvokedEntityManager.current());
+    }
+
+    @Test
+    void shouldGenerateProxyClassOncePerTargetClass() {
+        EntityManager target = entityManager();
+        EntityManager firstProxy = EntityManagerProxyFactory.createProxy(target, stateListener, Identifier.nextEntityManagerIdentifier());
+        EntityManager secondProxy = EntityManagerProxyFactory.createProxy(target, stateListener, Identifier.nextEntityManagerIdentifier());
+
+        assertNotSame(firstProxy, secondProxy);
+        assertSame(firstProxy.getClass(), secondProxy.getClass());
+    }
+
+    @Test
+    void shouldImplementAllInterfacesOfTarget() {
+        EntityManager target = (EntityManager) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[] {ProviderEntityManager.class},
+                (proxy, method, args) -> null);
+
+        EntityManager entityManager = EntityManagerProxyFactory.createProxy(
+                target, stateListener, Identifier.nextEntityManagerIdentifier());
+
+        assertTrue(entityManager instanceof ProviderEntityManager);
+    }
+
+    @Test
+    void shouldBeEqualOnlyToItself() {
+        EntityManager target = entityManager();
+        EntityManager entityManager = EntityManagerProxyFactory.createProxy(
+                target, stateListener, Identifier.nextEntityManagerIdentifier());
+
+        assertEquals(entityManager, entityManager);
+        assertNotEquals(entityManager, target);
+        assertEquals(System.identityHashCode(entityManager), entityManager.hashCode());
+    }
+
+    private EntityManager entityManager() {
+        return entityManager(() -> events.add("commit"));
+    }
+
+    private EntityManager entityManager(Runnable commitAction) {
+        EntityTransaction transaction = (EntityTransaction) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[] {EntityTransaction.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("commit")) {
+                        commitAction.run();
+                    } else {
+                        events.add(method.getName());
+                    }
+                    return null;
+                });
+
+        return (EntityManager) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[] {EntityManager.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getTransaction": return transaction;
+                        case "isOpen": return true;
+                        default: return null;
+                    }
+                });
+    }
+
+    private static EntityManager entityManagerExecuting(Runnable action) {
+        return (EntityManager) Proxy.newProxyInstance(
+                EntityManager.class.getClassLoader(),
+                new Class<?>[] {EntityManager.class},
+                (proxy, method, args) -> {
+                    action.run();
+                    return null;
+                });
+    }
+
+    private interface ProviderEntityManager extends EntityManager {
+    }
+
+    private class EventRecordingStateListener implements StateListener {
+
+        @Override
+        public void entityManagerCreated(Identifier entityManagerId) {
+        }
+
+        @Override
+        public void entityManagerClosed(Identifier entityManagerId) {
+            events.add("closed");
+        }
+
+        @Override
+        public Identifier connectionAcquired() {
+            return null;
+        }
+
+        @Override
+        public void statementExecuted(SqlStatement sqlStatement, Identifier entityManagerId) {
+        }
+
+        @Override
+        public void lazyCollectionInitialized(String entityClassName, String fieldName) {
+        }
+
+        @Override
+        public Identifier taskSubmitted() {
+            return null;
+        }
+
+        @Override
+        public void taskStarted(Identifier entityManagerId) {
+        }
+
+        @Override
+        public void taskFinished(Identifier entityManagerId) {
+        }
+
+        @Override
+        public void transactionCommitStarted(Identifier entityManagerId) {
+            events.add("commitStarted");
+        }
+
+        @Override
+        public void transactionCommitFinished(Identifier entityManagerId) {
+            events.add("commitFinished");
+        }
+    }
+}
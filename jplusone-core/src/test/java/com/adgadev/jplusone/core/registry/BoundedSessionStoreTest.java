@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.registry;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BoundedSessionStoreTest {
+
+    @Test
+    void shouldEvictOldestSessionWhenMaxSessionsExceeded() {
+        BoundedSessionStore store = new BoundedSessionStore(2, Duration.ZERO, SessionRetentionMode.ALL_SESSIONS);
+        SessionNode session1 = closedSession();
+        SessionNode session2 = closedSession();
+        SessionNode session3 = closedSession();
+
+        store.add(session1);
+        store.add(session2);
+        store.add(session3);
+
+        assertEquals(List.of(session2, session3), store.getSessions());
+        assertEquals(1, store.getEvictedSessionsCount());
+    }
+
+    @Test
+    void shouldEvictExpiredSessions() {
+        MutableClock clock = new MutableClock();
+        BoundedSessionStore store = new BoundedSessionStore(0, Duration.ofMinutes(1), SessionRetentionMode.ALL_SESSIONS, clock);
+        SessionNode session1 = closedSession();
+        SessionNode session2 = closedSession();
+
+        store.add(session1);
+        clock.advance(Duration.ofSeconds(45));
+        store.add(session2);
+        clock.advance(Duration.ofSeconds(30));
+
+        assertEquals(List.of(session2), store.getSessions());
+        assertEquals(1, store.getEvictedSessionsCount());
+    }
+
+    @Test
+    void shouldRejectSessionsWithoutImplicitOperations() {
+        BoundedSessionStore store = new BoundedSessionStore(0, Duration.ZERO, SessionRetentionMode.IMPLICIT_OPERATIONS_ONLY);
+
+        store.add(closedSession());
+
+        assertEquals(List.of(), store.getSessions());
+        assertEquals(1, store.getRejectedSessionsCount());
+    }
+
+    private static SessionNode closedSession() {
+        return SessionNode.create().close(null);
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant = Instant.parse("2020-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.registry;
+
+import com.adgadev.jplusone.core.frame.FrameClassKind;
+import com.adgadev.jplusone.core.frame.FrameExtract;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class FrameStackTest {
+
+    private static final FrameExtract FRAME_A = frame("methodA", 10);
+
+    private static final FrameExtract FRAME_B = frame("methodB", 20);
+
+    private static final FrameExtract FRAME_C = frame("methodC", 30);
+
+    private static final FrameExtract FRAME_D = frame("methodD", 40);
+
+    @Test
+    void shouldShareNodesOfIdenticalStacks() {
+        FrameStackTrie trie = new FrameStackTrie();
+        FrameStack frameStack = trie.intern(List.of(FRAME_A, FRAME_B, FRAME_C));
+        FrameStack otherFrameStack = trie.intern(List.of(FRAME_A, FRAME_B, FRAME_C));
+
+        assertEquals(frameStack, otherFrameStack);
+        assertEquals(frameStack.hashCode(), otherFrameStack.hashCode());
+        assertNotEquals(frameStack, trie.intern(List.of(FRAME_A, FRAME_B)));
+    }
+
+    @Test
+    void shouldCompareStacksOfDifferentTries() {
+        FrameStack frameStack = new FrameStack(List.of(FRAME_A, FRAME_B, FRAME_C));
+        FrameStack otherFrameStack = new FrameStack(List.of(FRAME_A, FRAME_B, FRAME_C));
+
+        assertEquals(frameStack, otherFrameStack);
+        assertEquals(frameStack.hashCode(), otherFrameStack.hashCode());
+        assertNotEquals(frameStack, new FrameStack(List.of(FRAME_A, FRAME_B)));
+    }
+
+    @Test
+    void shouldReplaceTrieWhenMaxNodesReached() {
+        FrameStackTrie trie = new FrameStackTrie(3);
+        FrameStack frameStack = trie.intern(List.of(FRAME_A, FRAME_B, FRAME_C));
+
+        FrameStack otherFrameStack = trie.intern(List.of(FRAME_A, FRAME_B, FRAME_D));
+
+        assertEquals(List.of(FRAME_A, FRAME_B, FRAME_D), otherFrameStack.getCallFrames());
+        assertEquals(List.of(FRAME_A, FRAME_B), frameStack.intersect(otherFrameStack).getCallFrames());
+        assertEquals(List.of(FRAME_D), otherFrameStack.subtract(frameStack.intersect(otherFrameStack)).getCallFrames());
+    }
+
+    @Test
+    void shouldIntersectStacks() {
+        FrameStack frameStack = new FrameStack(List.of(FRAME_A, FRAME_B, FRAME_C));
+        FrameStack otherFrameStack = new FrameStack(List.of(FRAME_A, FRAME_B, FRAME_D));
+
+        FrameStack intersection = frameStack.intersect(otherFrameStack);
+
+        assertEquals(List.of(FRAME_A, FRAME_B), intersection.getCallFrames());
+        assertEquals(new FrameStack(List.of(FRAME_A, FRAME_B)), intersection);
+    }
+
+    @Test
+    void shouldSubtractStacks() {
+        FrameStack frameStack = new FrameStack(List.of(FRAME_A, FRAME_B, FRAME_C, FRAME_D));
+        FrameStack prefixFrameStack = new FrameStack(List.of(FRAME_A, FRAME_B));
+
+        FrameStack remainder = frameStack.subtract(prefixFrameStack);
+
+        assertEquals(List.of(FRAME_C, FRAME_D), remainder.getCallFrames());
+        assertEquals(new FrameStack(List.of(FRAME_C, FRAME_D)), remainder);
+        assertEquals(remainder, frameStack.subtract(new FrameStack(List.of(FRAME_A, FRAME_B))));
+        assertEquals(Optional.of(FRAME_D), remainder.findLastMatchingFrame(frame -> true));
+        assertEquals(Optional.empty(), remainder.findLastMatchingFrame(FRAME_A::equals));
+    }
+
+    @Test
+    void shouldNotSubtractStackWhichIsNotPrefix() {
+        FrameStack frameStack = new FrameStack(List.of(FRAME_A, FRAME_B, FRAME_C));
+
+        assertSame(frameStack, frameStack.subtract(new FrameStack(List.of(FRAME_B))));
+        assertSame(frameStack, frameStack.subtract(new FrameStack(List.of(FRAME_A, FRAME_B, FRAME_C, FRAME_D))));
+    }
+
+    private static FrameExtract frame(String methodName, int lineNumber) {
+        return new FrameExtract(FrameClassKind.APPLICATION_CLASS, FrameStackTest.class,
+                FrameStackTest.class.getName(), methodName, "FrameStackTest.java", lineNumber);
+    }
+}
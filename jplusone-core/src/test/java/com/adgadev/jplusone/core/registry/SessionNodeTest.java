@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.registry;
+
+import com.adgadev.jplusone.core.frame.FrameClassKind;
+import com.adgadev.jplusone.core.frame.FrameExtract;
+import com.adgadev.jplusone.core.proxy.SqlStatement;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SessionNodeTest {
+
+    private static final int STATEMENTS_PER_THREAD = 10_000;
+
+    private static final FrameStack SESSION_FRAME_STACK = new FrameStack(List.of(frame("session", 10)));
+
+    @Test
+    void shouldRecordStatementsOfSessionSharedByTwoThreads() throws Exception {
+        SessionNode session = SessionNode.create();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<?> firstThread = executor.submit(() -> recordStatements(session, start, new FrameStack(List.of(frame("first", 20)))));
+            Future<?> secondThread = executor.submit(() -> recordStatements(session, start, new FrameStack(List.of(frame("second", 30)))));
+            start.countDown();
+            firstThread.get();
+            secondThread.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        SessionNode closedSession = session.close(SESSION_FRAME_STACK);
+
+        int recordedStatementsCount = closedSession.getOperations().stream()
+                .mapToInt(operation -> operation.getStatements().size())
+                .sum();
+
+        assertEquals(2 * STATEMENTS_PER_THREAD, recordedStatementsCount);
+        assertEquals(2 * STATEMENTS_PER_THREAD, closedSession.getStatementCounters().getStatementsCount());
+        assertEquals(2 * STATEMENTS_PER_THREAD, closedSession.getStatementCounters().getStatementsCount(OperationType.EXPLICIT));
+        assertEquals(2 * STATEMENTS_PER_THREAD, closedSession.getStatementCounters().getLazyInitialisationsCount());
+    }
+
+    @Test
+    void shouldIgnoreStatementsRecordedAfterSessionIsClosed() {
+        SessionNode session = SessionNode.create();
+        session.addStatement(SqlStatement.of("select * from book where id = 1"), new FrameStack(List.of(frame("first", 20))));
+
+        SessionNode closedSession = session.close(SESSION_FRAME_STACK);
+        session.addStatement(SqlStatement.of("select * from book where id = 2"), new FrameStack(List.of(frame("first", 20))));
+        session.countLazyCollectionInitialisation();
+
+        assertEquals(1, closedSession.getOperations().get(0).getStatements().size());
+        assertEquals(1, closedSession.getStatementCounters().getStatementsCount());
+        assertEquals(0, closedSession.getStatementCounters().getLazyInitialisationsCount());
+    }
+
+    private static Void recordStatements(SessionNode session, CountDownLatch start, FrameStack operationFrameStack) throws InterruptedException {
+        start.await();
+
+        for (int i = 0; i < STATEMENTS_PER_THREAD; i++) {
+            session.addStatement(SqlStatement.of("select * from book where id = " + i), operationFrameStack);
+            session.countLazyCollectionInitialisation();
+        }
+
+        return null;
+    }
+
+    private static FrameExtract frame(String methodName, int lineNumber) {
+        return new FrameExtract(FrameClassKind.APPLICATION_CLASS, SessionNodeTest.class,
+                SessionNodeTest.class.getName(), methodName, "SessionNodeTest.java", lineNumber);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.registry;
+
+import com.adgadev.jplusone.core.proxy.SqlParameters;
+import com.adgadev.jplusone.core.proxy.SqlStatement;
+import com.adgadev.jplusone.core.sql.StatementType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StatementNodeTest {
+
+    @Test
+    void shouldRenderParametersOfRetainedSqlFragmentOnly() {
+        SqlParameters parameters = SqlParameters.ofSize(3);
+        parameters.setObject(1, "x");
+        parameters.setLong(2, 1);
+        parameters.setLong(3, 42);
+        SqlStatement sqlStatement = SqlStatement.withParameters(
+                "/* load ? */ select ? as c, b.id from book b where b.id = ?", parameters);
+
+        StatementNode statementNode = StatementNode.fromSql(sqlStatement);
+
+        assertEquals(StatementType.SELECT, statementNode.getStatementType());
+        assertEquals("select " + StatementNode.COLUMN_LIST_SUBSTITUTE + " from book b where b.id = 42", statementNode.getSql());
+    }
+
+    @Test
+    void shouldRenderParametersOfNonSelectStatement() {
+        SqlParameters parameters = SqlParameters.ofSize(2);
+        parameters.setObject(1, "Godfather");
+        parameters.setLong(2, 1);
+        SqlStatement sqlStatement = SqlStatement.withParameters("update book set title=? where id=?", parameters);
+
+        StatementNode statementNode = StatementNode.fromSql(sqlStatement);
+
+        assertEquals(StatementType.UPDATE, statementNode.getStatementType());
+        assertEquals("update book set title='Godfather' where id=1", statementNode.getSql());
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.report;
+
+import com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneReportProperties;
+import com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneReportProperties.JPlusOneAsyncReportProperties.OverflowPolicy;
+import com.adgadev.jplusone.core.registry.SessionNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class AsyncReportGeneratorTest {
+
+    @Test
+    void shouldGenerateAllQueuedReportsBeforeClose() {
+        AsyncReportGenerator reportGenerator = new AsyncReportGenerator(reportProperties(2, OverflowPolicy.BLOCK));
+
+        for (int i = 0; i < 10; i++) {
+            reportGenerator.handleRecordedSession(SessionNode.create().close(null));
+        }
+
+        reportGenerator.close();
+
+        assertEquals(10, reportGenerator.getGeneratedReportsCount());
+        assertEquals(0, reportGenerator.getDroppedReportsCount());
+        assertEquals(0, reportGenerator.getQueueDepth());
+    }
+
+    @Test
+    void shouldGenerateReportsOnHandlingThreadOnceClosed() {
+        AsyncReportGenerator reportGenerator = new AsyncReportGenerator(reportProperties(2, OverflowPolicy.DROP));
+        reportGenerator.close();
+
+        reportGenerator.handleRecordedSession(SessionNode.create().close(null));
+        reportGenerator.close();
+
+        assertEquals(1, reportGenerator.getGeneratedReportsCount());
+        assertFalse(reportGenerator.isWorkerStarted());
+    }
+
+    @Test
+    void shouldNotQueueReportsWhenReportIsDisabled() {
+        JPlusOneReportProperties reportProperties = reportProperties(2, OverflowPolicy.DROP);
+        reportProperties.setEnabled(false);
+        AsyncReportGenerator reportGenerator = new AsyncReportGenerator(reportProperties);
+
+        reportGenerator.handleRecordedSession(SessionNode.create().close(null));
+        reportGenerator.close();
+
+        assertEquals(0, reportGenerator.getGeneratedReportsCount());
+        assertFalse(reportGenerator.isWorkerStarted());
+    }
+
+    @Test
+    void shouldGenerateReportsOfSessionsRecordedConcurrentlyWithClose() throws Exception {
+        AsyncReportGenerator reportGenerator = new AsyncReportGenerator(reportProperties(1, OverflowPolicy.BLOCK));
+        int threads = 4;
+        int sessionsPerThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> producers = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < threads; i++) {
+                producers.add(executor.submit(() -> {
+                    startLatch.await();
+
+                    for (int j = 0; j < sessionsPerThread; j++) {
+                        reportGenerator.handleRecordedSession(SessionNode.create().close(null));
+                    }
+
+                    return null;
+                }));
+            }
+
+            startLatch.countDown();
+            reportGenerator.close();
+
+            for (Future<?> producer : producers) {
+                producer.get(1, TimeUnit.MINUTES);
+            }
+
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads * sessionsPerThread, reportGenerator.getGeneratedReportsCount());
+        assertEquals(0, reportGenerator.getQueueDepth());
+    }
+
+    private static JPlusOneReportProperties reportProperties(int queueCapacity, OverflowPolicy overflowPolicy) {
+        JPlusOneReportProperties reportProperties = new JPlusOneReportProperties();
+        reportProperties.getAsync().setEnabled(true);
+        reportProperties.getAsync().setQueueCapacity(queueCapacity);
+        reportProperties.getAsync().setOverflowPolicy(overflowPolicy);
+        return reportProperties;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.sql;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class StatementTemplateCacheTest {
+
+    @Test
+    void shouldParseTemplateOnce() {
+        StatementTemplateCache cache = new StatementTemplateCache();
+        String sql = "select b.id, b.title from book b where b.id=?";
+
+        StatementTemplate statementTemplate = cache.get(sql);
+
+        assertSame(statementTemplate, cache.get(new String(sql)));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void shouldEvictOldestTemplateWhenFull() {
+        StatementTemplateCache cache = new StatementTemplateCache(2);
+        StatementTemplate first = cache.get("select * from book where id=?");
+        StatementTemplate second = cache.get("select * from author where id=?");
+
+        cache.get("select * from genre where id=?");
+
+        assertEquals(2, cache.size());
+        assertSame(second, cache.get("select * from author where id=?"));
+        assertNotSame(first, cache.get("select * from book where id=?"));
+        assertEquals(2, cache.size());
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.sql;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StatementTemplateTest {
+
+    @Test
+    void shouldParseTemplate() {
+        String sql = "/* load Book */ select b.id, b.title from book b inner join author a on b.author_id=a.id where b.id=?";
+
+        StatementTemplate statementTemplate = StatementTemplate.parse(sql);
+
+        assertEquals(StatementType.SELECT, statementTemplate.getStatementType());
+        assertEquals("select b.id, b.title from book b inner join author a on b.author_id=a.id where b.id=?", statementTemplate.getSqlWithoutComments());
+        assertEquals("select #SELECT_COLUMNS_LIST from book b inner join author a on b.author_id=a.id where b.id=?", statementTemplate.getFormattedSql());
+        assertEquals(List.of("book", "author"), statementTemplate.getTableNames());
+        assertEquals(1, statementTemplate.getParametersCount());
+    }
+
+    @Test
+    void shouldCountParametersOfWriteStatements() {
+        assertEquals(2, StatementTemplate.parse("insert into book (title, id) values (?, ?)").getParametersCount());
+        assertEquals(0, StatementTemplate.parse("delete from book").getParametersCount());
+    }
+
+    @Test
+    void shouldResolveTableNamesOfWriteStatements() {
+        assertEquals(List.of("book"), StatementTemplate.parse("insert into book (title, id) values (?, ?)").getTableNames());
+        assertEquals(List.of("book"), StatementTemplate.parse("update book set title=? where id=?").getTableNames());
+        assertEquals(List.of("book"), StatementTemplate.parse("delete from book where id=?").getTableNames());
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.tracking;
+
+import com.adgadev.jplusone.core.frame.FramesProvider;
+import com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneReportProperties;
+import com.adgadev.jplusone.core.proxy.Identifier;
+import com.adgadev.jplusone.core.registry.RootNode;
+import com.adgadev.jplusone.core.report.ReportGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ActivationStateListenerTest {
+
+    private final OperationTypeTracker operationTypeTracker = new OperationTypeTracker();
+
+    private final TrackingContext context = new TrackingContext("com.adgadev", false, VerbosityLevel.V1);
+
+    private final ActivationStateListener listener = new ActivationStateListener(
+            new CountingStateListener(new FramesProvider("com.adgadev"), new RootNode(), reportGenerator(), operationTypeTracker), context);
+
+    @Test
+    void shouldFinishTransactionCommitWhenRecordingWasDisabledInTheMeantime() {
+        Identifier entityManagerId = Identifier.nextEntityManagerIdentifier();
+        context.onApplicationEvent(null);
+
+        listener.transactionCommitStarted(entityManagerId);
+        assertTrue(operationTypeTracker.isTransactionCommitInProgress());
+
+        context.disableRecording();
+        try {
+            listener.transactionCommitFinished(entityManagerId);
+        } finally {
+            context.enableRecording();
+        }
+
+        assertFalse(operationTypeTracker.isTransactionCommitInProgress());
+    }
+
+    private static ReportGenerator reportGenerator() {
+        JPlusOneReportProperties reportProperties = new JPlusOneReportProperties();
+        reportProperties.setEnabled(false);
+        return new ReportGenerator(reportProperties);
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.tracking;
+
+import com.adgadev.jplusone.core.frame.FramesProvider;
+import com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneReportProperties;
+import com.adgadev.jplusone.core.proxy.Identifier;
+import com.adgadev.jplusone.core.proxy.SqlStatement;
+import com.adgadev.jplusone.core.registry.OperationType;
+import com.adgadev.jplusone.core.registry.RootNode;
+import com.adgadev.jplusone.core.registry.SessionNode;
+import com.adgadev.jplusone.core.registry.SessionTrackingMode;
+import com.adgadev.jplusone.core.registry.StatementCounters;
+import com.adgadev.jplusone.core.report.ReportGenerator;
+import com.adgadev.jplusone.core.sql.StatementType;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManager;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountingStateListenerTest {
+
+    private final RootNode root = new RootNode();
+
+    private final OperationTypeTracker operationTypeTracker = new OperationTypeTracker();
+
+    private final CountingStateListener listener = new CountingStateListener(
+            new FramesProvider("com.adgadev"), root, reportGenerator(), operationTypeTracker);
+
+    @Test
+    void shouldCountStatementsByStatementTypeAndOperationType() {
+        Identifier entityManagerId = Identifier.nextEntityManagerIdentifier();
+
+        listener.entityManagerCreated(entityManagerId);
+        Identifier connectionEntityManagerId = acquireConnectionByEntityManager();
+        listener.statementExecuted(SqlStatement.of("select * from book where id = 1"), connectionEntityManagerId);
+        operationTypeTracker.enter(OperationType.IMPLICIT);
+        listener.statementExecuted(SqlStatement.of("select * from author where id = 1"), connectionEntityManagerId);
+        listener.lazyCollectionInitialized("com.adgadev.Book", "authors");
+        operationTypeTracker.exit(OperationType.IMPLICIT);
+        operationTypeTracker.enter(OperationType.COMMIT);
+        listener.statementExecuted(SqlStatement.of("update book set title = 'Godfather' where id = 1"), connectionEntityManagerId);
+        operationTypeTracker.exit(OperationType.COMMIT);
+        listener.entityManagerClosed(entityManagerId);
+
+        List<SessionNode> sessions = root.getSessions();
+        assertEquals(1, sessions.size());
+        assertEquals(SessionTrackingMode.COUNTERS_ONLY, sessions.get(0).getTrackingMode());
+        assertTrue(sessions.get(0).getOperations().isEmpty());
+
+        StatementCounters counters = sessions.get(0).getStatementCounters();
+        assertEquals(3, counters.getStatementsCount());
+        assertEquals(2, counters.getStatementsCount(StatementType.SELECT));
+        assertEquals(1, counters.getStatementsCount(StatementType.UPDATE));
+        assertEquals(1, counters.getStatementsCount(OperationType.EXPLICIT));
+        assertEquals(1, counters.getStatementsCount(OperationType.IMPLICIT));
+        assertEquals(1, counters.getStatementsCount(OperationType.COMMIT));
+        assertEquals(1, counters.getLazyInitialisationsCount());
+    }
+
+    @Test
+    void shouldAttributeStatementsToInnermostSession() {
+        Identifier outerEntityManagerId = Identifier.nextEntityManagerIdentifier();
+        Identifier innerEntityManagerId = Identifier.nextEntityManagerIdentifier();
+
+        listener.entityManagerCreated(outerEntityManagerId);
+        listener.statementExecuted(SqlStatement.of("select * from book"), acquireConnectionByEntityManager());
+        listener.entityManagerCreated(innerEntityManagerId);
+        listener.statementExecuted(SqlStatement.of("insert into book (id, title) values (2, 'Godfather')"), acquireConnectionByEntityManager());
+        listener.entityManagerClosed(innerEntityManagerId);
+        listener.entityManagerClosed(outerEntityManagerId);
+
+        List<SessionNode> sessions = root.getSessions();
+        assertEquals(2, sessions.size());
+        assertEquals(1, sessions.get(0).getStatementCounters().getStatementsCount(StatementType.INSERT));
+        assertEquals(1, sessions.get(1).getStatementCounters().getStatementsCount(StatementType.SELECT));
+    }
+
+    @Test
+    void shouldAttributeStatementsToSessionOfEntityManagerWhichAcquiredConnection() throws InterruptedException {
+        Identifier outerEntityManagerId = Identifier.nextEntityManagerIdentifier();
+        Identifier innerEntityManagerId = Identifier.nextEntityManagerIdentifier();
+
+        listener.entityManagerCreated(outerEntityManagerId);
+        Identifier connectionEntityManagerId = acquireConnectionByEntityManager();
+        listener.entityManagerCreated(innerEntityManagerId);
+
+        Thread thread = new Thread(() -> listener.statementExecuted(SqlStatement.of("select * from book"), connectionEntityManagerId));
+        thread.start();
+        thread.join();
+
+        listener.entityManagerClosed(innerEntityManagerId);
+        listener.entityManagerClosed(outerEntityManagerId);
+
+        List<SessionNode> sessions = root.getSessions();
+        assertEquals(2, sessions.size());
+        assertEquals(0, sessions.get(0).getStatementCounters().getStatementsCount());
+        assertEquals(1, sessions.get(1).getStatementCounters().getStatementsCount(StatementType.SELECT));
+    }
+
+    @Test
+    void shouldNotAttributeStatementsToClosedSession() {
+        Identifier entityManagerId = Identifier.nextEntityManagerIdentifier();
+
+        listener.entityManagerCreated(entityManagerId);
+        Identifier connectionEntityManagerId = acquireConnectionByEntityManager();
+        listener.entityManagerClosed(entityManagerId);
+        listener.statementExecuted(SqlStatement.of("select * from book"), connectionEntityManagerId);
+
+        assertEquals(entityManagerId, connectionEntityManagerId);
+        assertEquals(0, root.getSessions().get(0).getStatementCounters().getStatementsCount());
+        assertNull(acquireConnectionByEntityManager());
+    }
+
+    @Test
+    void shouldNotCountStatementsExecutedOnConnectionAcquiredOutsideOfEntityManager() {
+        Identifier entityManagerId = Identifier.nextEntityManagerIdentifier();
+
+        listener.entityManagerCreated(entityManagerId);
+        Identifier connectionEntityManagerId = listener.connectionAcquired();
+        listener.statementExecuted(SqlStatement.of("select * from book"), connectionEntityManagerId);
+        listener.entityManagerClosed(entityManagerId);
+
+        assertNull(connectionEntityManagerId);
+        assertEquals(0, root.getSessions().get(0).getStatementCounters().getStatementsCount());
+    }
+
+    @Test
+    void shouldResetOperationTypeWhenOutermostSessionIsClosed() {
+        Identifier entityManagerId = Identifier.nextEntityManagerIdentifier();
+
+        listener.entityManagerCreated(entityManagerId);
+        operationTypeTracker.enter(OperationType.IMPLICIT);
+        listener.entityManagerClosed(entityManagerId);
+
+        assertEquals(OperationType.EXPLICIT, operationTypeTracker.getCurrentOperationType());
+    }
+
+    private Identifier acquireConnectionByEntityManager() {
+        AtomicReference<Identifier> connectionEntityManagerId = new AtomicReference<>();
+        EntityManager entityManager = (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(),
+                new Class<?>[]{EntityManager.class}, (proxy, method, args) -> {
+                    connectionEntityManagerId.set(listener.connectionAcquired());
+                    return null;
+                });
+
+        entityManager.flush();
+        return connectionEntityManagerId.get();
+    }
+
+    private static ReportGenerator reportGenerator() {
+        JPlusOneReportProperties reportProperties = new JPlusOneReportProperties();
+        reportProperties.setEnabled(false);
+        return new ReportGenerator(reportProperties);
+    }
+}
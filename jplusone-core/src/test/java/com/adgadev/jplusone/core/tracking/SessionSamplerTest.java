@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.tracking;
+
+import com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneSamplingProperties;
+import com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneSamplingProperties.SamplingPolicy;
+import com.adgadev.jplusone.core.registry.SessionTrackingMode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SessionSamplerTest {
+
+    @Test
+    void shouldTrackAllSessionsFullyByDefault() {
+        SessionSampler sampler = new SessionSampler(new JPlusOneSamplingProperties());
+
+        assertEquals(List.of(SessionTrackingMode.FULL, SessionTrackingMode.FULL), nextSessionTrackingModes(sampler, 2));
+    }
+
+    @Test
+    void shouldTrackEveryNthSessionFullyForFixedRatePolicy() {
+        SessionSampler sampler = new SessionSampler(samplingProperties(SamplingPolicy.FIXED_RATE, 0.5, SessionTrackingMode.IGNORED));
+
+        assertEquals(
+                List.of(SessionTrackingMode.FULL, SessionTrackingMode.IGNORED, SessionTrackingMode.FULL, SessionTrackingMode.IGNORED),
+                nextSessionTrackingModes(sampler, 4));
+    }
+
+    @Test
+    void shouldNotTrackAnySessionFullyForZeroRate() {
+        SessionSampler sampler = new SessionSampler(samplingProperties(SamplingPolicy.RANDOM, 0, SessionTrackingMode.COUNTERS_ONLY));
+
+        assertEquals(
+                List.of(SessionTrackingMode.COUNTERS_ONLY, SessionTrackingMode.COUNTERS_ONLY),
+                nextSessionTrackingModes(sampler, 2));
+    }
+
+    @Test
+    void shouldStopTrackingSessionsFullyWhenCpuBudgetIsExceeded() {
+        SessionSampler sampler = new SessionSampler(samplingProperties(SamplingPolicy.ADAPTIVE, 1.0, SessionTrackingMode.COUNTERS_ONLY));
+
+        assertEquals(SessionTrackingMode.FULL, sampler.nextSessionTrackingMode());
+
+        sampler.recordTrackingCost(TimeUnit.SECONDS.toNanos(1));
+
+        assertEquals(SessionTrackingMode.COUNTERS_ONLY, sampler.nextSessionTrackingMode());
+    }
+
+    private static JPlusOneSamplingProperties samplingProperties(SamplingPolicy policy, double rate, SessionTrackingMode unsampledSessionMode) {
+        JPlusOneSamplingProperties properties = new JPlusOneSamplingProperties();
+        properties.setPolicy(policy);
+        properties.setRate(rate);
+        properties.setUnsampledSessionMode(unsampledSessionMode);
+        return properties;
+    }
+
+    private static List<SessionTrackingMode> nextSessionTrackingModes(SessionSampler sampler, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> sampler.nextSessionTrackingMode())
+                .collect(toList());
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.tracking;
+
+import com.adgadev.jplusone.core.frame.FramesProvider;
+import com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneReportProperties;
+import com.adgadev.jplusone.core.registry.RootNode;
+import com.adgadev.jplusone.core.report.ReportGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrackingContextTaskDecoratorBeanPostProcessorTest {
+
+    private final TrackingContext trackingContext = new TrackingContext("com.adgadev", false, VerbosityLevel.V1);
+
+    private final TrackingContextTaskDecoratorBeanPostProcessor postProcessor = new TrackingContextTaskDecoratorBeanPostProcessor(
+            new TrackingContextTaskDecorator(trackingContext, new CountingStateListener(new FramesProvider("com.adgadev"), new RootNode(), reportGenerator(), new OperationTypeTracker())));
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        trackingContext.enableRecording();
+    }
+
+    @Test
+    void shouldPropagateTrackingContextToExecutorWithoutTaskDecorator() throws Exception {
+        postProcessor.postProcessBeforeInitialization(executor, "taskExecutor");
+        executor.initialize();
+        trackingContext.disableRecording();
+
+        boolean recordingEnabled = executor.submit(trackingContext::isRecordingEnabledInCurrentThread).get(1, TimeUnit.MINUTES);
+
+        assertFalse(recordingEnabled);
+    }
+
+    @Test
+    void shouldComposeTrackingContextWithExistingTaskDecorator() throws Exception {
+        AtomicBoolean existingTaskDecoratorApplied = new AtomicBoolean();
+        executor.setTaskDecorator(runnable -> () -> {
+            existingTaskDecoratorApplied.set(true);
+            runnable.run();
+        });
+
+        postProcessor.postProcessBeforeInitialization(executor, "taskExecutor");
+        executor.initialize();
+        trackingContext.disableRecording();
+
+        boolean recordingEnabled = executor.submit(trackingContext::isRecordingEnabledInCurrentThread).get(1, TimeUnit.MINUTES);
+
+        assertFalse(recordingEnabled);
+        assertTrue(existingTaskDecoratorApplied.get());
+    }
+
+    private static ReportGenerator reportGenerator() {
+        JPlusOneReportProperties reportProperties = new JPlusOneReportProperties();
+        reportProperties.setEnabled(false);
+        return new ReportGenerator(reportProperties);
+    }
+}
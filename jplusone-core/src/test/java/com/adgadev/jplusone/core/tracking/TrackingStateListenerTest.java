@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.core.tracking;
+
+import com.adgadev.jplusone.core.frame.FramesProvider;
+import com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneReportProperties;
+import com.adgadev.jplusone.core.properties.JPlusOneProperties.JPlusOneSamplingProperties;
+import com.adgadev.jplusone.core.proxy.Identifier;
+import com.adgadev.jplusone.core.proxy.SqlStatement;
+import com.adgadev.jplusone.core.proxy.jpa.EntityManagerProxyFactory;
+import com.adgadev.jplusone.core.registry.RootNode;
+import com.adgadev.jplusone.core.registry.SessionNode;
+import com.adgadev.jplusone.core.report.ReportGenerator;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManager;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TrackingStateListenerTest {
+
+    private final RootNode root = new RootNode();
+
+    @Test
+    void shouldRecordStatementExecutedOnConnectionAcquiredByEntityManager() {
+        TrackingStateListener listener = trackingStateListener(new FramesProvider("com.adgadev"));
+
+        SessionNode session = recordSession(listener, true);
+
+        assertEquals(1, session.getOperations().size());
+        assertEquals(1, session.getStatementCounters().getStatementsCount());
+    }
+
+    @Test
+    void shouldRecordStatementExecutedOnConnectionAcquiredByEntityManagerWhenCallFramesAreTruncated() {
+        TrackingStateListener listener = trackingStateListener(new FramesProvider("com.adgadev", 2));
+
+        SessionNode session = recordSession(listener, true);
+
+        assertEquals(1, session.getOperations().size());
+        assertEquals(1, session.getStatementCounters().getStatementsCount());
+    }
+
+    @Test
+    void shouldNotRecordStatementExecutedOnConnectionAcquiredOutsideOfEntityManager() {
+        TrackingStateListener listener = trackingStateListener(new FramesProvider("com.adgadev", 2));
+
+        SessionNode session = recordSession(listener, false);
+
+        assertEquals(0, session.getOperations().size());
+        assertEquals(0, session.getStatementCounters().getStatementsCount());
+    }
+
+    @Test
+    void shouldRecordStatementExecutedOnConnectionAcquiredByEntityManagerInvokedOnAnotherThread() throws InterruptedException {
+        TrackingStateListener listener = trackingStateListener(new FramesProvider("com.adgadev"));
+        Identifier entityManagerId = Identifier.nextEntityManagerIdentifier();
+        AtomicReference<Identifier> connectionEntityManagerId = new AtomicReference<>();
+
+        listener.entityManagerCreated(entityManagerId);
+        EntityManager entityManager = EntityManagerProxyFactory.createProxy(
+                entityManagerExecuting(() -> connectionEntityManagerId.set(listener.connectionAcquired())), listener, entityManagerId);
+        Thread thread = new Thread(entityManager::flush);
+        thread.start();
+        thread.join();
+
+        listener.statementExecuted(SqlStatement.of("select * from book where id = 1"), connectionEntityManagerId.get());
+        listener.entityManagerClosed(entityManagerId);
+
+        assertEquals(entityManagerId, connectionEntityManagerId.get());
+        assertEquals(1, root.getSessions().get(0).getStatementCounters().getStatementsCount());
+    }
+
+    private SessionNode recordSession(TrackingStateListener listener, boolean acquiredByEntityManager) {
+        Identifier entityManagerId = Identifier.nextEntityManagerIdentifier();
+        AtomicReference<Identifier> connectionEntityManagerId = new AtomicReference<>();
+        Runnable acquireConnection = () -> connectionEntityManagerId.set(listener.connectionAcquired());
+
+        listener.entityManagerCreated(entityManagerId);
+
+        if (acquiredByEntityManager) {
+            entityManagerExecuting(acquireConnection).flush();
+        } else {
+            acquireConnection.run();
+        }
+
+        listener.statementExecuted(SqlStatement.of("select * from book where id = 1"), connectionEntityManagerId.get());
+        listener.entityManagerClosed(entityManagerId);
+
+        assertEquals(1, root.getSessions().size());
+        return root.getSessions().get(0);
+    }
+
+    private TrackingStateListener trackingStateListener(FramesProvider framesProvider) {
+        JPlusOneReportProperties reportProperties = new JPlusOneReportProperties();
+        reportProperties.setEnabled(false);
+
+        return new TrackingStateListener(framesProvider, new ReportGenerator(reportProperties),
+                new SessionSampler(new JPlusOneSamplingProperties()), new OperationTypeTracker(), root);
+    }
+
+    private static EntityManager entityManagerExecuting(Runnable action) {
+        return (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(), new Class<?>[]{EntityManager.class},
+                (proxy, method, args) -> {
+                    action.run();
+                    return null;
+                });
+    }
+}
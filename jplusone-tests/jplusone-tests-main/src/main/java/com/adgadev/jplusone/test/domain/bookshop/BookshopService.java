@@ -26,7 +26,7 @@ import javax.transaction.Transactional;
 @Service
 @Transactional
 @RequiredArgsConstructor
-class BookshopService {
+public class BookshopService {
 
     private final BookRepository bookRepository;
 
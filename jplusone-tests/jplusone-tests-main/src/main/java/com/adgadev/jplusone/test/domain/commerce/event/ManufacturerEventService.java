@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.adgadev.jplusone.test.domain.commerce.event;
+
+import com.adgadev.jplusone.test.domain.commerce.Manufacturer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.transaction.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class ManufacturerEventService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final EntityManager entityManager;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public Manufacturer fetchManufacturerAndPublishEvent(Long id) {
+        // entity manager created within active transaction synchronization, its commit is marked by the synchronization
+        EntityManager applicationManagedEntityManager = entityManagerFactory.createEntityManager();
+
+        try {
+            Manufacturer manufacturer = applicationManagedEntityManager.find(Manufacturer.class, id);
+            eventPublisher.publishEvent(new ManufacturerFetchedEvent(id));
+            return manufacturer;
+        } finally {
+            applicationManagedEntityManager.close();
+        }
+    }
+
+    @Transactional
+    public Manufacturer fetchManufacturerAndFetchProductsAfterCommit(Long id) {
+        // entity manager created within active transaction synchronization, its commit is marked by the synchronization
+        EntityManager applicationManagedEntityManager = entityManagerFactory.createEntityManager();
+
+        try {
+            Manufacturer manufacturer = applicationManagedEntityManager.find(Manufacturer.class, id);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    fetchProducts(id);
+                }
+            });
+            return manufacturer;
+        } finally {
+            applicationManagedEntityManager.close();
+        }
+    }
+
+    private void fetchProducts(Long manufacturerId) {
+        entityManager.createQuery("FROM Product p WHERE p.manufacturer.id = :manufacturerId")
+                .setParameter("manufacturerId", manufacturerId)
+                .getResultList();
+    }
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.adgadev.jplusone.test.domain.commerce.event;
+
+import com.adgadev.jplusone.test.domain.commerce.Manufacturer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.persistence.EntityManager;
+
+@Component
+@RequiredArgsConstructor
+public class ManufacturerFetchedEventListener {
+
+    private final EntityManager entityManager;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onManufacturerFetched(ManufacturerFetchedEvent event) {
+        entityManager.createQuery("FROM Product p WHERE p.manufacturer.id = :manufacturerId")
+                .setParameter("manufacturerId", event.getManufacturerId())
+                .getResultList();
+    }
+
+}
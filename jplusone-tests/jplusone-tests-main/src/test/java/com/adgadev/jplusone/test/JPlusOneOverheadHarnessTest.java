@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.test;
+
+import com.adgadev.jplusone.test.domain.bookshop.BookshopService;
+import com.adgadev.jplusone.test.domain.commerce.crud.JpaCascadeCrudService;
+import com.adgadev.jplusone.test.domain.commerce.session.OuterSessionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load harness measuring overhead of JPlusOne on the same JPA workload (lazy loading, cascading CRUD operations,
+ * nested sessions), run with JPlusOne disabled, with tracking only and with full reporting.
+ * Reports throughput, p50 / p99 latency and allocation per workload iteration for each mode. Log level of JPlusOne
+ * is pinned to DEBUG, at which reports are logged, in every mode so that all modes are measured with the same logging.
+ *
+ * Disabled by default, run with:
+ * {@code mvn test -pl jplusone-tests/jplusone-tests-main -Dtest=JPlusOneOverheadHarnessTest -Djplusone.overhead-harness=true}
+ * Amount of iterations can be adjusted with {@code jplusone.overhead-harness.warmup-iterations}
+ * and {@code jplusone.overhead-harness.iterations} system properties.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "jplusone.overhead-harness", matches = "true")
+class JPlusOneOverheadHarnessTest {
+
+    private static final Long MANUFACTURER_ID = 1L;
+
+    private static final String LOG_LEVEL_PROPERTY = "logging.level.com.adgadev.jplusone";
+
+    private static final int WARMUP_ITERATIONS = Integer.getInteger("jplusone.overhead-harness.warmup-iterations", 500);
+
+    private static final int ITERATIONS = Integer.getInteger("jplusone.overhead-harness.iterations", 2000);
+
+    @RequiredArgsConstructor
+    private enum Mode {
+        DISABLED(Map.of("jplusone.enabled", "false", LOG_LEVEL_PROPERTY, "DEBUG")),
+        TRACKING_ONLY(Map.of("jplusone.enabled", "true", "jplusone.report.enabled", "false", LOG_LEVEL_PROPERTY, "DEBUG")),
+        FULL_REPORTING(Map.of("jplusone.enabled", "true", "jplusone.report.enabled", "true", LOG_LEVEL_PROPERTY, "DEBUG"));
+
+        private final Map<String, Object> properties;
+    }
+
+    @Test
+    void shouldMeasureOverheadOfEachMode() {
+        List<String> results = new ArrayList<>();
+
+        for (Mode mode : Mode.values()) {
+            results.add(mode + ": " + runWorkload(mode));
+        }
+
+        log.info("JPlusOne overhead ({} iterations per mode):\n{}", ITERATIONS, String.join("\n", results));
+    }
+
+    private Result runWorkload(Mode mode) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(JPlusOneTestApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("integration-test")
+                .properties(mode.properties)
+                .run()) {
+
+            Workload workload = new Workload(
+                    context.getBean(BookshopService.class),
+                    context.getBean(JpaCascadeCrudService.class),
+                    context.getBean(OuterSessionService.class));
+
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                workload.run(i);
+            }
+
+            long[] latencies = new long[ITERATIONS];
+            long allocatedBytesBefore = getAllocatedBytes();
+            long start = System.nanoTime();
+
+            for (int i = 0; i < ITERATIONS; i++) {
+                long iterationStart = System.nanoTime();
+                workload.run(WARMUP_ITERATIONS + i);
+                latencies[i] = System.nanoTime() - iterationStart;
+            }
+
+            long elapsed = System.nanoTime() - start;
+            long allocatedBytes = getAllocatedBytes() - allocatedBytesBefore;
+
+            return new Result(latencies, elapsed, allocatedBytes);
+        }
+    }
+
+    private static long getAllocatedBytes() {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    @RequiredArgsConstructor
+    private static class Workload {
+
+        private final BookshopService bookshopService;
+
+        private final JpaCascadeCrudService crudService;
+
+        private final OuterSessionService outerSessionService;
+
+        void run(int iteration) {
+            String productName = "Overhead product " + iteration;
+            String newProductName = productName + " v2";
+
+            bookshopService.getSampleBookDetailsUsingLazyLoading();
+            crudService.updateManufacturerProductName(MANUFACTURER_ID, productName, newProductName);
+            crudService.deleteManufacturerProduct(MANUFACTURER_ID, newProductName);
+            outerSessionService.fetchDataOuterTxInnerNewTx();
+        }
+    }
+
+    private static class Result {
+
+        private final double throughput;
+
+        private final long p50Micros;
+
+        private final long p99Micros;
+
+        private final long allocatedBytesPerIteration;
+
+        private final double allocationRateMBps;
+
+        Result(long[] latencies, long elapsedNanos, long allocatedBytes) {
+            long[] sortedLatencies = latencies.clone();
+            Arrays.sort(sortedLatencies);
+            double elapsedSeconds = elapsedNanos / 1e9;
+
+            this.throughput = latencies.length / elapsedSeconds;
+            this.p50Micros = TimeUnit.NANOSECONDS.toMicros(percentile(sortedLatencies, 0.50));
+            this.p99Micros = TimeUnit.NANOSECONDS.toMicros(percentile(sortedLatencies, 0.99));
+            this.allocatedBytesPerIteration = allocatedBytes / latencies.length;
+            this.allocationRateMBps = allocatedBytes / elapsedSeconds / (1024 * 1024);
+        }
+
+        private static long percentile(long[] sortedValues, double percentile) {
+            int index = (int) Math.ceil(percentile * sortedValues.length) - 1;
+            return sortedValues[Math.max(0, Math.min(index, sortedValues.length - 1))];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("throughput: %.1f ops/s, p50: %d us, p99: %d us, allocation: %d B/op (%.1f MB/s)",
+                    throughput, p50Micros, p99Micros, allocatedBytesPerIteration, allocationRateMBps);
+        }
+    }
+}
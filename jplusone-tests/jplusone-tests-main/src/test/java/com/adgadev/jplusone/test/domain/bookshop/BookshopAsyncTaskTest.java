@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.adgadev.jplusone.test.domain.bookshop;
+
+import com.adgadev.jplusone.core.registry.RootNodeView;
+import com.adgadev.jplusone.core.registry.SessionNodeView;
+import com.adgadev.jplusone.core.registry.StatementCounters;
+import com.adgadev.jplusone.core.tracking.TrackingContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ActiveProfiles("integration-test")
+@SpringBootTest(webEnvironment = WebEnvironment.NONE)
+class BookshopAsyncTaskTest {
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private ThreadPoolTaskExecutor taskExecutor;
+
+    @Autowired
+    private BookshopService bookshopService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TrackingContext trackingContext;
+
+    @Autowired
+    private RootNodeView rootNode;
+
+    @Test
+    void shouldRecordSessionOpenInAsyncTask() throws Exception {
+        // when
+        BookDto bookDto = taskExecutor.submit(() -> bookshopService.getSampleBookDetailsUsingLazyLoading())
+                .get(1, TimeUnit.MINUTES);
+
+        // then
+        assertEquals(new BookDto("Mario Puzo", "Godfather", 1), bookDto);
+        assertEquals(1, findSessionsOpenedBy("shouldRecordSessionOpenInAsyncTask").size());
+    }
+
+    @Test
+    void shouldAttributeLazyLoadingInAsyncTaskToSessionOpenOnSubmittingThread() {
+        // when
+        int amountOfBooks = new TransactionTemplate(transactionManager).execute(status -> {
+            Book book = bookRepository.findById(1L).get();
+
+            try {
+                return taskExecutor.submit(() -> book.getAuthor().countWrittenBooks()).get(1, TimeUnit.MINUTES);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // then
+        assertEquals(1, amountOfBooks);
+
+        List<SessionNodeView> sessions = findSessionsOpenedBy("shouldAttributeLazyLoadingInAsyncTaskToSessionOpenOnSubmittingThread");
+        assertEquals(1, sessions.size());
+
+        StatementCounters statementCounters = sessions.get(0).getStatementCounters();
+        assertEquals(3, statementCounters.getStatementsCount());
+        assertEquals(1, statementCounters.getLazyInitialisationsCount());
+    }
+
+    @Test
+    void shouldNotRecordSessionOfAsyncTaskSubmittedWithRecordingDisabled() throws Exception {
+        // given
+        trackingContext.disableRecording();
+
+        // when
+        try {
+            taskExecutor.submit(() -> bookshopService.getSampleBookDetailsUsingLazyLoading()).get(1, TimeUnit.MINUTES);
+        } finally {
+            trackingContext.enableRecording();
+        }
+
+        // then
+        assertEquals(0, findSessionsOpenedBy("shouldNotRecordSessionOfAsyncTaskSubmittedWithRecordingDisabled").size());
+    }
+
+    private List<SessionNodeView> findSessionsOpenedBy(String testMethodName) {
+        // session opened in the task has test method's lambda on its call frames stack
+        return rootNode.getSessions().stream()
+                .filter(session -> session.getSessionFrameStack() != null)
+                .filter(session -> session.getSessionFrameStack().findLastMatchingFrame(
+                        frame -> frame.getClazz() == BookshopAsyncTaskTest.class && frame.getMethodName().contains(testMethodName)).isPresent())
+                .collect(toList());
+    }
+}
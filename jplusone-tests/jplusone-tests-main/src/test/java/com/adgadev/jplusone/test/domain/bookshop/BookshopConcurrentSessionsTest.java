@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.adgadev.jplusone.test.domain.bookshop;
+
+import com.adgadev.jplusone.core.registry.RootNodeView;
+import com.adgadev.jplusone.core.registry.SessionNodeView;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("integration-test")
+@SpringBootTest(webEnvironment = WebEnvironment.NONE)
+class BookshopConcurrentSessionsTest {
+
+    private static final int SESSIONS_PER_THREAD = 25;
+
+    private static final int THREADS = 4;
+
+    @Autowired
+    private BookshopService bookshopService;
+
+    @Autowired
+    private RootNodeView rootNode;
+
+    @Test
+    void shouldRecordAllSessionsClosedConcurrently() throws Exception {
+        // given
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        AtomicBoolean writersRunning = new AtomicBoolean(true);
+
+        try {
+            // when
+            Future<Integer> reader = executor.submit(() -> readSessionsContinuously(writersRunning));
+            List<Future<?>> writers = new ArrayList<>();
+
+            for (int i = 0; i < THREADS; i++) {
+                writers.add(executor.submit(() -> {
+                    startLatch.await();
+
+                    for (int j = 0; j < SESSIONS_PER_THREAD; j++) {
+                        bookshopService.getSampleBookDetailsUsingEagerLoading();
+                    }
+
+                    return null;
+                }));
+            }
+
+            startLatch.countDown();
+
+            for (Future<?> writer : writers) {
+                writer.get(1, TimeUnit.MINUTES);
+            }
+
+            writersRunning.set(false);
+            int snapshotsRead = reader.get(1, TimeUnit.MINUTES);
+
+            // then
+            assertEquals(THREADS * SESSIONS_PER_THREAD, countSessionsOpenedByThisTest());
+            assertTrue(snapshotsRead > 0);
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long countSessionsOpenedByThisTest() {
+        return rootNode.getSessions().stream()
+                .map(SessionNodeView::getSessionFrameStack)
+                .filter(Objects::nonNull)
+                .filter(frameStack -> frameStack.findLastMatchingFrame(
+                        frame -> frame.getClazz() == BookshopConcurrentSessionsTest.class).isPresent())
+                .count();
+    }
+
+    private int readSessionsContinuously(AtomicBoolean writersRunning) {
+        int snapshotsRead = 0;
+
+        do {
+            List<? extends SessionNodeView> sessions = rootNode.getSessions();
+
+            for (SessionNodeView session : sessions) {
+                session.getOperations().size();
+            }
+
+            snapshotsRead++;
+        } while (writersRunning.get());
+
+        return snapshotsRead;
+    }
+}
@@ -21,7 +21,7 @@ import com.adgadev.jplusone.core.registry.OperationType;
 import com.adgadev.jplusone.core.registry.RootNodeView;
 import com.adgadev.jplusone.core.registry.SessionNodeView;
 import com.adgadev.jplusone.core.registry.StatementNodeView;
-import com.adgadev.jplusone.core.registry.StatementType;
+import com.adgadev.jplusone.core.sql.StatementType;
 import com.adgadev.jplusone.test.matchers.JPlusOneMatchers;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2020 Adam Gaj
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.adgadev.jplusone.test.domain.commerce.event;
+
+import com.adgadev.jplusone.core.registry.OperationNodeView;
+import com.adgadev.jplusone.core.registry.OperationType;
+import com.adgadev.jplusone.core.registry.RootNodeView;
+import com.adgadev.jplusone.core.registry.SessionNodeView;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+@ActiveProfiles("integration-test")
+@SpringBootTest(webEnvironment = WebEnvironment.NONE)
+class ManufacturerEventServiceTest {
+
+    private static final Long MANUFACTURER_ID = 1L;
+
+    @Autowired
+    private ManufacturerEventService service;
+
+    @Autowired
+    private RootNodeView rootNode;
+
+    @Test
+    void shouldNotMarkStatementsOfAfterCommitEventListenerAsCommitOperation() {
+        // when
+        service.fetchManufacturerAndPublishEvent(MANUFACTURER_ID);
+
+        // then
+        List<? extends SessionNodeView> sessions = rootNode.getSessions();
+        SessionNodeView transactionSessionNode = sessions.get(sessions.size() - 1);
+        assertThat(transactionSessionNode.getOperations(), hasSize(equalTo(1)));
+
+        OperationNodeView eventListenerOperation = transactionSessionNode.getOperations().get(0);
+        assertThat(eventListenerOperation.getStatements(), hasSize(equalTo(1)));
+        assertThat(eventListenerOperation.getOperationType(), equalTo(OperationType.EXPLICIT));
+    }
+
+    @Test
+    void shouldNotMarkStatementsOfAfterCommitCallbackAsCommitOperation() {
+        // when
+        service.fetchManufacturerAndFetchProductsAfterCommit(MANUFACTURER_ID);
+
+        // then
+        List<? extends SessionNodeView> sessions = rootNode.getSessions();
+        SessionNodeView transactionSessionNode = sessions.get(sessions.size() - 1);
+        assertThat(transactionSessionNode.getOperations(), hasSize(equalTo(1)));
+
+        OperationNodeView afterCommitOperation = transactionSessionNode.getOperations().get(0);
+        assertThat(afterCommitOperation.getStatements(), hasSize(equalTo(1)));
+        assertThat(afterCommitOperation.getOperationType(), equalTo(OperationType.EXPLICIT));
+    }
+}